@@ -0,0 +1,136 @@
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.GShamirShareDKG;
+import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.core.Share;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.EphemeralKeyBasis;
+import org.example.napdkg.util.GroupGenerator;
+import org.example.napdkg.util.HashingTools;
+import org.example.napdkg.util.MaskedShareCHat;
+import org.example.napdkg.util.MultiScalarMul;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-(verifier, dealer) cost of the SCRAPE aggregate U in VerifySharesFor:
+ * n-term MSM over E with wₖ = vₖ·m*(αₖ) vs. the (n−t−1)-term MSM over the
+ * session basis P_d. The verifier* pair times the whole recomputation a
+ * verifier does per dealer (m*, U, V, DLEQ check), so the basis' share of
+ * it shows. The one-off basis build is reported separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EphemeralBasisBenchmark {
+    @Param({ "100", "500", "1000" })
+    public int n;
+
+    private DkgContext ctx;
+    private ECPoint[] E;
+    private BigInteger[] mStar;
+    private EphemeralKeyBasis basis;
+    // one honest dealing over E
+    private ECPoint pk;
+    private ECPoint[] Cij;
+    private BigInteger[] CHat;
+    private NizkDlEqProof proof;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        int t = n / 2;
+        ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        BigInteger p = ctx.getOrder();
+        SecureRandom rnd = new SecureRandom();
+
+        E = new ECPoint[n];
+        for (int k = 0; k < n; k++)
+            E[k] = ctx.multiplyG(new BigInteger(p.bitLength(), rnd).mod(p)).normalize();
+
+        mStar = new BigInteger[n - t - 1];
+        for (int d = 0; d < mStar.length; d++)
+            mStar[d] = new BigInteger(p.bitLength(), rnd).mod(p);
+
+        basis = ctx.getEphemeralBasis(E);
+
+        BigInteger sk = new BigInteger(p.bitLength(), rnd).mod(p);
+        pk = ctx.multiplyG(sk).normalize();
+        Share[] shares = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, sk).shares;
+        Cij = new ECPoint[n];
+        CHat = new BigInteger[n];
+        for (int k = 0; k < n; k++) {
+            Cij[k] = E[k].multiply(sk).add(shares[k].getAiPoint());
+            CHat[k] = MaskedShareCHat.maskShare(shares[k].getAiPoint(), shares[k].getai(), p);
+        }
+        DkgUtils.normalizeAll(Cij);
+        BigInteger[] dealerMStar = HashingTools.deriveMStar(ctx, pk, E, Cij, CHat, n, t);
+        ECPoint U = basis.aggregate(dealerMStar).normalize();
+        ECPoint V = MultiScalarMul.sum(Cij, weights(dealerMStar)).normalize();
+        proof = NizkDlEqProof.generateProof(ctx, pk, U, V, sk);
+    }
+
+    /** wₖ = vₖ·m*(αₖ) */
+    private BigInteger[] weights(BigInteger[] m) {
+        BigInteger p = ctx.getOrder();
+        BigInteger[] f = DkgUtils.evalAll(m, ctx.getAlphas(), p);
+        BigInteger[] v = ctx.getVs();
+        BigInteger[] w = new BigInteger[n];
+        for (int k = 0; k < n; k++)
+            w[k] = v[k].multiply(f[k + 1]).mod(p);
+        return w;
+    }
+
+    private boolean verifyDealer(boolean useBasis) throws Exception {
+        BigInteger[] m = HashingTools.deriveMStar(ctx, pk, E, Cij, CHat, n, ctx.getThreshold());
+        BigInteger[] w = weights(m);
+        ECPoint U = (useBasis ? basis.aggregate(m) : MultiScalarMul.sum(E, w)).normalize();
+        ECPoint V = MultiScalarMul.sum(Cij, w).normalize();
+        return NizkDlEqProof.verifyProof(ctx, pk, U, V, proof);
+    }
+
+    @Benchmark
+    public ECPoint perDealerMsmOverE() {
+        BigInteger p = ctx.getOrder();
+        BigInteger[] alpha = ctx.getAlphas();
+        BigInteger[] v = ctx.getVs();
+        BigInteger[] w = new BigInteger[n];
+        for (int k = 0; k < n; k++)
+            w[k] = v[k].multiply(DkgUtils.evaluatePolynomial(mStar, alpha[k + 1], p)).mod(p);
+        return MultiScalarMul.sum(E, w).normalize();
+    }
+
+    @Benchmark
+    public ECPoint perDealerBasis() {
+        return basis.aggregate(mStar).normalize();
+    }
+
+    @Benchmark
+    public boolean verifierRecomputeOverE() throws Exception {
+        return verifyDealer(false);
+    }
+
+    @Benchmark
+    public boolean verifierRecomputeBasis() throws Exception {
+        return verifyDealer(true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public EphemeralKeyBasis buildBasis() {
+        return EphemeralKeyBasis.build(ctx, E);
+    }
+}
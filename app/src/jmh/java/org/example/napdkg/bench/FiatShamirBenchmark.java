@@ -0,0 +1,108 @@
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.DhKeyPair;
+import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.core.NizkDlProof;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DLEQ and Schnorr DL proofs, generate and verify. DLEQ: v1 and v2 (SHA1PRNG
+ * challenge) vs. v3 (transcript hash-to-scalar); Schnorr: v1 (SHA1PRNG) vs.
+ * v2 (transcript).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FiatShamirBenchmark {
+    private DkgContext ctx;
+    private DhKeyPair kp;
+    private ECPoint x, h, y;
+    private BigInteger alpha;
+    private NizkDlEqProof dleqV1, dleqV2, dleqV3;
+    private NizkDlProof dlV1, dlV2;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+        ctx.getGeneratorTable();
+        BigInteger p = ctx.getOrder();
+        SecureRandom rnd = new SecureRandom();
+
+        kp = DhKeyPair.generate(ctx);
+        alpha = new BigInteger(p.bitLength(), rnd).mod(p);
+        x = ctx.multiplyG(alpha).normalize();
+        h = ctx.multiplyG(new BigInteger(p.bitLength(), rnd).mod(p)).normalize();
+        y = h.multiply(alpha).normalize();
+
+        dleqV1 = NizkDlEqProof.generateProof(ctx, x, h, y, alpha, NizkDlEqProof.V1_CHALLENGE);
+        dleqV2 = NizkDlEqProof.generateProof(ctx, x, h, y, alpha, NizkDlEqProof.V2_COMMITMENT);
+        dleqV3 = NizkDlEqProof.generateProof(ctx, x, h, y, alpha, NizkDlEqProof.V3_TRANSCRIPT);
+        dlV1 = NizkDlProof.generateProof(ctx, kp, NizkDlProof.V1);
+        dlV2 = NizkDlProof.generateProof(ctx, kp, NizkDlProof.V2);
+    }
+
+    @Benchmark
+    public NizkDlEqProof dleqGenerateV1() {
+        return NizkDlEqProof.generateProof(ctx, x, h, y, alpha, NizkDlEqProof.V1_CHALLENGE);
+    }
+
+    @Benchmark
+    public NizkDlEqProof dleqGenerateV2() {
+        return NizkDlEqProof.generateProof(ctx, x, h, y, alpha, NizkDlEqProof.V2_COMMITMENT);
+    }
+
+    @Benchmark
+    public NizkDlEqProof dleqGenerateV3() {
+        return NizkDlEqProof.generateProof(ctx, x, h, y, alpha, NizkDlEqProof.V3_TRANSCRIPT);
+    }
+
+    @Benchmark
+    public boolean dleqVerifyV1() {
+        return NizkDlEqProof.verifyProof(ctx, x, h, y, dleqV1);
+    }
+
+    @Benchmark
+    public boolean dleqVerifyV2() {
+        return NizkDlEqProof.verifyProof(ctx, x, h, y, dleqV2);
+    }
+
+    @Benchmark
+    public boolean dleqVerifyV3() {
+        return NizkDlEqProof.verifyProof(ctx, x, h, y, dleqV3);
+    }
+
+    @Benchmark
+    public NizkDlProof dlGenerateV1() throws Exception {
+        return NizkDlProof.generateProof(ctx, kp, NizkDlProof.V1);
+    }
+
+    @Benchmark
+    public NizkDlProof dlGenerateV2() throws Exception {
+        return NizkDlProof.generateProof(ctx, kp, NizkDlProof.V2);
+    }
+
+    @Benchmark
+    public boolean dlVerifyV1() throws Exception {
+        return NizkDlProof.verifyProof(ctx, kp.getPublic(), dlV1);
+    }
+
+    @Benchmark
+    public boolean dlVerifyV2() throws Exception {
+        return NizkDlProof.verifyProof(ctx, kp.getPublic(), dlV2);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * k·G: plain ECPoint.multiply vs. the fixed-base table owned by DkgContext.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FixedBaseBenchmark {
+    private static final int NUM_SCALARS = 1024;
+
+    private DkgContext ctx;
+    private ECPoint G;
+    private BigInteger[] scalars;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+        G = ctx.getGenerator();
+        ctx.getGeneratorTable(); // build outside the measurement
+
+        SecureRandom rnd = new SecureRandom();
+        BigInteger p = ctx.getOrder();
+        scalars = new BigInteger[NUM_SCALARS];
+        for (int i = 0; i < NUM_SCALARS; i++)
+            scalars[i] = new BigInteger(p.bitLength(), rnd).mod(p);
+    }
+
+    private BigInteger nextScalar() {
+        next = (next + 1) & (NUM_SCALARS - 1);
+        return scalars[next];
+    }
+
+    @Benchmark
+    public ECPoint plainMultiply() {
+        return G.multiply(nextScalar()).normalize();
+    }
+
+    @Benchmark
+    public ECPoint fixedBaseTable() {
+        return ctx.multiplyG(nextScalar()).normalize();
+    }
+}
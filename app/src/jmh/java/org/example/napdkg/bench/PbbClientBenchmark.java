@@ -0,0 +1,115 @@
+package org.example.napdkg.bench;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.example.napdkg.client.AsyncHttpPbbClient;
+import org.example.napdkg.client.BlockingPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.server.PbbServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Publish and fetch throughput against a board: one blocking request at a
+ * time over HTTP/1.1, as the phases issued them before AsyncHttpPbbClient, vs.
+ * a batch pipelined through the async client.
+ *
+ * The board is an in-process PbbServer unless -Dpbb.url names one, e.g. a
+ * json-server at http://127.0.0.1:3010. json-server does not create
+ * collections on POST, so its db.json needs empty "benchPbbClient" and
+ * "benchPbbClientFetch" arrays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PbbClientBenchmark {
+    private static final String TOPIC = "benchPbbClient";
+    private static final String FETCH_TOPIC = "benchPbbClientFetch";
+
+    @Param({ "100" })
+    public int batch;
+
+    private PbbServer server;
+    private PbbClient sequential;
+    private AsyncHttpPbbClient pipelined;
+    private EphemeralKeyDTO[] msgs;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        String url = System.getProperty("pbb.url");
+        if (url == null) {
+            server = PbbServer.start(0);
+            url = server.url();
+        }
+        sequential = new BlockingPbbClient(AsyncHttpPbbClient.builder(url)
+                .version(HttpClient.Version.HTTP_1_1).maxInFlight(1).build());
+        pipelined = AsyncHttpPbbClient.builder(url).build();
+
+        String pk = "02" + "ab".repeat(32), proof = "cd".repeat(96);
+        msgs = new EphemeralKeyDTO[batch];
+        for (int i = 0; i < batch; i++)
+            msgs[i] = new EphemeralKeyDTO(null, i, pk, proof);
+        clear(FETCH_TOPIC);
+        pipelined.publishAllAsync(FETCH_TOPIC, msgs).join();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearPublished() throws Exception {
+        clear(TOPIC);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        clear(TOPIC);
+        clear(FETCH_TOPIC);
+        if (server != null)
+            server.close();
+    }
+
+    private void clear(String topic) throws Exception {
+        for (String id : sequential.fetchIds(topic))
+            sequential.delete(topic, id);
+    }
+
+    @Benchmark
+    public void publishSequential() throws Exception {
+        for (EphemeralKeyDTO m : msgs)
+            sequential.publish(TOPIC, m);
+    }
+
+    @Benchmark
+    public void publishPipelined() {
+        pipelined.publishAllAsync(TOPIC, msgs).join();
+    }
+
+    @Benchmark
+    public int fetchSequential() throws Exception {
+        int total = 0;
+        for (int i = 0; i < 10; i++)
+            total += sequential.fetch(FETCH_TOPIC, EphemeralKeyDTO.class).size();
+        return total;
+    }
+
+    @Benchmark
+    public int fetchPipelined() {
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[10];
+        for (int i = 0; i < fs.length; i++)
+            fs[i] = pipelined.fetchAsync(FETCH_TOPIC, EphemeralKeyDTO.class);
+        int total = 0;
+        for (CompletableFuture<?> f : fs)
+            total += ((List<?>) f.join()).size();
+        return total;
+    }
+}
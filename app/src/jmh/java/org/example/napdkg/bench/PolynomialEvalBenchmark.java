@@ -0,0 +1,60 @@
+package org.example.napdkg.bench;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.GroupGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * m*(α₁ … αₙ) for one transcript (degree n−t−2): Horner per point vs. the
+ * forward-difference evaluator behind DkgUtils.evalAll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PolynomialEvalBenchmark {
+    @Param({ "100", "500", "1000" })
+    public int n;
+
+    private BigInteger p;
+    private BigInteger[] alpha;
+    private BigInteger[] mStar;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int t = n / 2;
+        DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        p = ctx.getOrder();
+        alpha = ctx.getAlphas();
+        SecureRandom rnd = new SecureRandom();
+        mStar = new BigInteger[n - t - 1];
+        for (int d = 0; d < mStar.length; d++)
+            mStar[d] = new BigInteger(p.bitLength(), rnd).mod(p);
+    }
+
+    @Benchmark
+    public BigInteger[] hornerPerPoint() {
+        BigInteger[] out = new BigInteger[n + 1];
+        for (int i = 1; i <= n; i++)
+            out[i] = DkgUtils.evaluatePolynomial(mStar, alpha[i], p);
+        return out;
+    }
+
+    @Benchmark
+    public BigInteger[] forwardDifferences() {
+        return DkgUtils.evalAll(mStar, alpha, p);
+    }
+}
@@ -7,7 +7,11 @@ import org.example.napdkg.core.ShareVerificationPublish;
 import org.example.napdkg.core.VerificationPhase;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
 public class ThresholdBenchmark {
 
     @Setup(Level.Invocation)
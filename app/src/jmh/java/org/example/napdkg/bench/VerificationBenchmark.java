@@ -6,10 +6,13 @@ import org.example.napdkg.core.VerificationPhase;
 import org.example.napdkg.dto.SharingOutputDTO;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 
 import java.util.List;
 
+@State(Scope.Benchmark)
 public class VerificationBenchmark {
 
     @Setup(Level.Invocation)
@@ -6,9 +6,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.example.napdkg.client.AsyncHttpPbbClient;
+import org.example.napdkg.client.CoalescingPbbClient;
+import org.example.napdkg.client.CodecPbbClient;
 import org.example.napdkg.client.GsonFactory;
 import org.example.napdkg.client.HttpPbbClient;
 import org.example.napdkg.client.InMemoryPbbClient;
@@ -16,22 +19,24 @@ import org.example.napdkg.client.InstrumentedPbbClient;
 import org.example.napdkg.client.NetShimPbb;
 import org.example.napdkg.client.PbbClient;
 import org.example.napdkg.client.TopicPoller;
+import org.example.napdkg.client.WireCodec;
 import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.DkgRunner;
+import org.example.napdkg.core.EphemeralKeyDirectory;
 import org.example.napdkg.core.Metrics;
 import org.example.napdkg.core.MetricsCsv;
-import org.example.napdkg.core.NizkDlProof;
 import org.example.napdkg.core.PartyContext;
+import org.example.napdkg.core.PartyRuntime;
 import org.example.napdkg.core.Phase;
-import org.example.napdkg.core.PhaseScope;
-import org.example.napdkg.core.PublicKeysWithProofs;
 import org.example.napdkg.core.SetupPhasePublisher;
 import org.example.napdkg.core.ShareVerificationPublish;
 import org.example.napdkg.core.SharingOutput;
 import org.example.napdkg.core.SharingPhase;
 import org.example.napdkg.core.VerificationPhase;
+import org.example.napdkg.dto.BinaryCodec;
 import org.example.napdkg.dto.EphemeralKeyDTO;
-import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.server.PbbServer;
 import org.example.napdkg.util.DkgContext;
 import org.example.napdkg.util.DkgRef;
 import org.example.napdkg.util.GroupGenerator;
@@ -44,9 +49,11 @@ public class FullTest {
 
     // Iterations, number of participants, threshold and fa(secure parameter)
     private static final int NUM_ITERATIONS = 2;
-    private static final int n = 10;
+    private static final int n = (int) propLong("dkg.n", 10);
     private static final int t = n / 2 + 1;
     private static final int fa = 1;
+    // -Ddkg.pipelined=true: DkgRunner instead of the phase barriers
+    private static final boolean PIPELINED = Boolean.getBoolean("dkg.pipelined");
 
     private static long propLong(String k, long d) {
         try {
@@ -64,8 +71,14 @@ public class FullTest {
         }
     }
 
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
     private static class TimingResult {
         double setupMs, sharingMs, verificationMs, thresholdMs, totalMs;
+
+        double partiesPerSec() {
+            return n / (totalMs / 1000.0);
+        }
     }
 
     public static TimingResult runOnce(PbbClient raw) throws Exception {
@@ -80,10 +93,14 @@ public class FullTest {
 
         // 1) Global timer
         long startAll = System.nanoTime();
-        Metrics metrics = new Metrics();
+        Metrics metrics = new Metrics("run-" + RUNS.incrementAndGet());
         File out = new File("bench.csv");
+        final long coalesceTtl = propLong("pbb.coalesceTtlMs", -1L); // < 0: every party reads for itself
         PbbClient shim = new NetShimPbb(raw, L, J);
-        InstrumentedPbbClient pbb = new InstrumentedPbbClient(shim, gson, metrics);
+        CoalescingPbbClient coalescing = coalesceTtl < 0 ? null : new CoalescingPbbClient(shim, coalesceTtl);
+        WireCodec codec = raw instanceof CodecPbbClient ? ((CodecPbbClient) raw).codec() : WireCodec.json(gson);
+        InstrumentedPbbClient pbb = new InstrumentedPbbClient(coalescing == null ? shim : coalescing, gson, metrics,
+                codec);
         // // // 2) Build PBB client (public ledger) (instrumented)????? Whats
         // instrumented
         // // // ?????
@@ -93,41 +110,87 @@ public class FullTest {
         GroupGenerator.GroupParameters gp = GroupGenerator.generateGroup();
         // Setup
         DkgContext ctx = DHPVSS_Setup.dhPvssSetup(gp, t, n);
-        // 4) Executor with at most n threads (and no more than CPU cores)
-        // For threads to run the participants asynchronously.
-        ExecutorService executor = Executors.newFixedThreadPool(n);
+        // 4) Parties run as waiters (virtual threads where available); their
+        // EC work goes to a pool with one thread per core.
+        PartyRuntime runtime = new PartyRuntime();
+        ExecutorService executor = runtime.waiters();
+        log.info("party runtime: {}", runtime);
         // For timing
         TimingResult result = new TimingResult();
 
         DkgRef.resetForNewRun(); // ← clears baseline for this run
         VerificationPhase.setDealerPoller(null);
+        SharingPhase.setParallelMinN((int) propLong("dkg.dealerParallelMinN", 1024));
         // —— Parallel clear old data ——
         List<Callable<Void>> clearTasks = new ArrayList<>();
         clearTasks.add(() -> {
-            for (EphemeralKeyDTO e : pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class))
-                pbb.delete("ephemeralKeys", e.id);
+            for (String id : pbb.fetchIds("ephemeralKeys"))
+                pbb.delete("ephemeralKeys", id);
             return null;
         });
         clearTasks.add(() -> {
-            for (SharingOutputDTO sh : pbb.fetch("DealerPublish", SharingOutputDTO.class))
-                pbb.delete("DealerPublish", sh.id);
+            for (String id : pbb.fetchIds("DealerPublish"))
+                pbb.delete("DealerPublish", id);
             return null;
         });
         clearTasks.add(() -> {
-            for (ShareVerificationOutputDTO so : pbb.fetch("ShareVerificationOutput", ShareVerificationOutputDTO.class))
-                pbb.delete("ShareVerificationOutput", so.id);
+            for (String id : pbb.fetchIds("ShareVerificationOutput"))
+                pbb.delete("ShareVerificationOutput", id);
             return null;
         });
         executor.invokeAll(clearTasks);
         // 5) Create PartyContexts
         List<PartyContext> parties = new ArrayList<>(n);
         for (int i = 0; i < n; i++)
-            parties.add(new PartyContext(i, ctx, pbb, n, t, fa));
+            parties.add(new PartyContext(i, ctx, pbb, n, t, fa, runtime));
+
+        try {
+            if (PIPELINED)
+                runPipelined(parties, pbb, runtime, result);
+            else
+                runPhased(parties, pbb, executor, result, log);
+
+            // 6) Total time
+            long endAll = System.nanoTime();
+            result.totalMs = (endAll - startAll) / 1_000_000.0;
+        } finally {
+            // ensure we clear the static pointer
+            VerificationPhase.setDealerPoller(null);
+            executor.shutdown();
+        }
+
+        // executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        runtime.close();
+        System.out.println(pbb.prettySummary());
+        System.out.println(((NetShimPbb) shim).latencySummary());
+        if (coalescing != null)
+            System.out.println(coalescing.summary());
 
+        try {
+            MetricsCsv.RunParams rp = new MetricsCsv.RunParams(
+                    n, t, fa, seed,
+                    L, J);
+            MetricsCsv.Timings tm = new MetricsCsv.Timings(
+                    result.setupMs, result.sharingMs, result.verificationMs, result.thresholdMs);
+
+            MetricsCsv.dump(out, rp, metrics, tm);
+
+            System.out.println("Wrote metrics CSV → " + out.getAbsolutePath());
+        } catch (Exception ex) {
+            System.err.println("Failed to write metrics CSV: " + ex);
+        }
+        return result;
+    }
+
+    /** The phases one after another, each behind an invokeAll barrier. */
+    private static void runPhased(List<PartyContext> parties, InstrumentedPbbClient pbb, ExecutorService executor,
+            TimingResult result, Logger log) throws Exception {
         // —— Phase 1: Setup —— Splittet in publishEphemeralKey and
         // awayAllEpehemeralKeys
 
         long t0 = System.nanoTime();
+        pbb.setPhase(Phase.SETUP);
         List<Callable<Void>> tasks = new ArrayList<>();
         try (TopicPoller<EphemeralKeyDTO> ekPoller = new TopicPoller<>(pbb, "ephemeralKeys", EphemeralKeyDTO.class,
                 dto -> dto.id, 50)) {
@@ -143,27 +206,14 @@ public class FullTest {
                 });
             executor.invokeAll(tasks);
 
-            // --- Phase 1.2: wait & verify, but use the poller snapshot, not N×fetch ---
+            // --- Phase 1.2: wait & verify, one fetch in PBB order, each key verified once ---
+            if (!ekPoller.awaitAtLeast(n, 10_000))
+                throw new IllegalStateException("timed out waiting for " + n + " ephemeral keys");
+            List<EphemeralKeyDTO> ekDtos = pbb.fetch(EphemeralKeyDirectory.TOPIC, EphemeralKeyDTO.class);
             List<Callable<Void>> waits = new ArrayList<>();
             for (PartyContext P : parties) {
                 waits.add(() -> {
-                    // wait until we have all n keys in the cache
-                    ekPoller.awaitAtLeast(n, 10_000);
-
-                    // decode/verify exactly like your SetupPhaseWaiter, but from snapshot()
-                    List<EphemeralKeyDTO> dtos = ekPoller.snapshot();
-                    for (EphemeralKeyDTO dto : dtos) {
-                        byte[] raws = org.bouncycastle.util.encoders.Hex.decode(dto.publicKey);
-                        var Q = P.ctx.getGenerator().getCurve().decodePoint(raws).normalize();
-                        String[] parts = dto.schnorrProof.split("\\|");
-                        var prf = new NizkDlProof(
-                                new java.math.BigInteger(parts[0], 16),
-                                new java.math.BigInteger(parts[1], 16));
-
-                        P.allEphPubs[dto.partyIndex] = new PublicKeysWithProofs(dto.partyIndex, Q, prf);
-                        if (!NizkDlProof.verifyProof(P.ctx, Q, prf))
-                            throw new IllegalStateException("pk check failed - abort");
-                    }
+                    P.useEphemeralKeys(P.compute(() -> EphemeralKeyDirectory.load(P.ctx, ekDtos)));
                     return null;
                 });
             }
@@ -175,25 +225,25 @@ public class FullTest {
         t0 = System.nanoTime();
         tasks.clear();
         tasks = new ArrayList<>();
-        try (PhaseScope ignored = new PhaseScope(Phase.SHARING)) {
-            // Lambda/arrow function. This is a little function that will run later. So the
-            // add is a callable void that will be added to tasks.
-            // Here we add an instance a SharingPhase with P and t and
-            // dorunSharingAsDealer() for that party P. And that is done for each party P
-            // in parties.
-            for (PartyContext P : parties)
-                tasks.add(() -> {
-                    new SharingPhase(P, t).runSharingAsDealer();
-                    return null;
-                });
-            executor.invokeAll(tasks);
-            result.sharingMs = (System.nanoTime() - t0) / 1_000_000.0;
-            // Timing Ends for Setup phase
-        }
+        pbb.setPhase(Phase.SHARING);
+        // Lambda/arrow function. This is a little function that will run later. So the
+        // add is a callable void that will be added to tasks.
+        // Here we add an instance a SharingPhase with P and t and
+        // dorunSharingAsDealer() for that party P. And that is done for each party P
+        // in parties.
+        for (PartyContext P : parties)
+            tasks.add(() -> {
+                new SharingPhase(P, t).runSharingAsDealer();
+                return null;
+            });
+        executor.invokeAll(tasks);
+        result.sharingMs = (System.nanoTime() - t0) / 1_000_000.0;
+        // Timing Ends for Setup phase
 
         // --- Phase 3: Verification (stop at t+fa) ---
         t0 = System.nanoTime();
         tasks = new ArrayList<>();
+        pbb.setPhase(Phase.VERIFICATION);
 
         System.out.println("==> Verification");
 
@@ -209,29 +259,16 @@ public class FullTest {
             for (PartyContext P : parties)
                 vps.add(new VerificationPhase(P)); // <— new ctor
 
-            final int target = t + fa;
-
             for (int i = 0; i < n; i++) {
                 final int idx = i;
                 tasks.add(() -> {
                     VerificationPhase vp = vps.get(idx);
 
-                    for (int d = 0; d < n && vp.q1Size() < target; d++) {
-                        boolean already = false;
-                        for (SharingOutput sh : vp.getQ1()) {
-                            if (sh.getDealerIndex() == d) {
-                                already = true;
-                                break;
-                            }
-                        }
-                        if (already)
-                            continue;
-
-                        try {
-                            vp.VerifySharesFor(d);
-                        } catch (Exception e) {
-                            log.warn("Party {}: VerifySharesFor({}) failed: {}", idx, d, e.toString());
-                        }
+                    // dealers in PBB order, verified concurrently until t+fa pass
+                    try {
+                        vp.verifyInArrivalOrder();
+                    } catch (Exception e) {
+                        log.warn("Party {}: verifyInArrivalOrder failed: {}", idx, e.toString());
                     }
 
                     vp.finalizeQ1Deterministically();
@@ -252,10 +289,12 @@ public class FullTest {
             // —— Phase 4a: publish Θ_i (threshold outputs) ——
             // Step 1-4 in Threshold Key Computation
             t0 = System.nanoTime();
+            pbb.setPhase(Phase.THRESHOLD);
 
             // not quite sure with the final int idx.
             // however we use the verificationPhase instance vps to run the threshold
             // functions on.
+            tasks = new ArrayList<>();
             for (int i = 0; i < n; i++) {
                 final int idx = i;
                 tasks.add(() -> {
@@ -290,53 +329,50 @@ public class FullTest {
             executor.invokeAll(tasks);
 
             result.thresholdMs = (System.nanoTime() - t0) / 1_000_000.0;
-
-            // 6) Total time
-            long endAll = System.nanoTime();
-            result.totalMs = (endAll - startAll) / 1_000_000.0;
-            // poller auto-stops here
-        } finally {
-            // ensure we clear the static pointer
-            VerificationPhase.setDealerPoller(null);
-            executor.shutdown();
         }
+    }
 
-        // executor.shutdown();
-        executor.awaitTermination(1, TimeUnit.MINUTES);
-        System.out.println(pbb.prettySummary());
-        System.out.println(((NetShimPbb) shim).latencySummary());
-
-        try {
-            MetricsCsv.RunParams rp = new MetricsCsv.RunParams(
-                    n, t, fa, seed,
-                    L, J);
-            MetricsCsv.Timings tm = new MetricsCsv.Timings(
-                    result.setupMs, result.sharingMs, result.verificationMs, result.thresholdMs);
-
-            MetricsCsv.dump(out, rp, metrics, tm);
-
-            System.out.println("Wrote metrics CSV → " + out.getAbsolutePath());
-        } catch (Exception ex) {
-            System.err.println("Failed to write metrics CSV: " + ex);
-        }
-        return result;
+    /**
+     * Every party on its own, advancing as soon as its inputs are on the
+     * board (see {@link DkgRunner}). Phases overlap here, so each phase time
+     * is the longest any party spent in that stage.
+     */
+    private static void runPipelined(List<PartyContext> parties, InstrumentedPbbClient pbb, PartyRuntime runtime,
+            TimingResult result) throws Exception {
+        DkgRunner.Result r = new DkgRunner(pbb, runtime.waiters()).run(parties);
+        System.out.println(r.summary());
+        result.setupMs = r.longestMs(DkgRunner.Stage.KEY_PUBLISHED) + r.longestMs(DkgRunner.Stage.KEYS_READY);
+        result.sharingMs = r.longestMs(DkgRunner.Stage.DEALT);
+        result.verificationMs = r.longestMs(DkgRunner.Stage.Q1_FINAL);
+        result.thresholdMs = r.longestMs(DkgRunner.Stage.THETA_PUBLISHED) + r.longestMs(DkgRunner.Stage.DONE);
     }
 
     public static void main(String[] args) throws Exception {
-        // Flag “inmem” for in-memory PBB
+        // Flag “inmem” for in-memory PBB, “embedded” for HTTP to an in-process PbbServer;
+        // a further “binary” posts the messages in BinaryCodec form
         boolean inmem = args.length > 0 && args[0].equalsIgnoreCase("inmem");
-
-        PbbClient raw = inmem ? new InMemoryPbbClient() : new HttpPbbClient("http://127.0.0.1:3003");
+        boolean embedded = args.length > 0 && args[0].equalsIgnoreCase("embedded");
+        boolean binary = args.length > 1 && args[1].equalsIgnoreCase("binary");
+
+        if (embedded && System.getProperty(PbbServer.NODELAY_PROPERTY) == null)
+            System.setProperty(PbbServer.NODELAY_PROPERTY, "true");
+        PbbServer server = embedded ? PbbServer.start(0) : null;
+        PbbClient raw = inmem ? new InMemoryPbbClient()
+                : embedded ? new HttpPbbClient(AsyncHttpPbbClient.builder(server.url()).extendedApi(true).build())
+                        : new HttpPbbClient("http://127.0.0.1:3003");
+        if (binary)
+            raw = new CodecPbbClient(raw, new BinaryCodec());
+        String mode = (inmem ? "in-memory" : embedded ? "embedded HTTP" : "HTTP") + (binary ? ", binary" : "");
 
         List<TimingResult> results = new ArrayList<>(NUM_ITERATIONS);
-        System.out.printf("Running %d iterations (%s mode)…%n%n", NUM_ITERATIONS, inmem ? "in-memory" : "HTTP");
+        System.out.printf("Running %d iterations (%s mode)…%n%n", NUM_ITERATIONS, mode);
         for (int i = 1; i <= NUM_ITERATIONS; i++) {
             System.out.printf("=== Iteration %d/%d ===%n", i, NUM_ITERATIONS);
             TimingResult tr = runOnce(raw);
             results.add(tr);
             System.out.printf(
-                    "Setup: %8.3f ms | Sharing: %8.3f ms | Verification: %8.3f ms | Threshold: %8.3f ms | Total: %8.3f ms%n%n",
-                    tr.setupMs, tr.sharingMs, tr.verificationMs, tr.thresholdMs, tr.totalMs);
+                    "Setup: %8.3f ms | Sharing: %8.3f ms | Verification: %8.3f ms | Threshold: %8.3f ms | Total: %8.3f ms | %.1f parties/s%n%n",
+                    tr.setupMs, tr.sharingMs, tr.verificationMs, tr.thresholdMs, tr.totalMs, tr.partiesPerSec());
         }
         // Aggregate statistics
         double[] sum = new double[5], sq = new double[5];
@@ -357,7 +393,8 @@ public class FullTest {
             double var = (sq[j] - sum[j] * sum[j] / N) / (N - 1);
             System.out.printf("%-12s: %7s ms ± %7s ms%n", names[j], df.format(mean), df.format(Math.sqrt(var)));
         }
-        System.out.printf("Running %d iterations (%s mode)…%n%n", NUM_ITERATIONS, inmem ? "in-memory" : "HTTP");
-
+        System.out.printf("Running %d iterations (%s mode)…%n%n", NUM_ITERATIONS, mode);
+        if (server != null)
+            server.close();
     }
 }
\ No newline at end of file
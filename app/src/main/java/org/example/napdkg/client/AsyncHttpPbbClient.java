@@ -0,0 +1,444 @@
+package org.example.napdkg.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * {@link AsyncPbbClient} for a json-server style REST board, on
+ * {@link HttpClient#sendAsync}.
+ *
+ * Requests are issued concurrently up to {@code maxInFlight}; beyond that they
+ * queue in submission order and start as earlier ones complete, so a burst
+ * from many in-JVM parties neither opens unbounded connections nor blocks
+ * their threads. HTTP/2 is requested by default: against an h2 server all
+ * requests share one multiplexed connection; a plain HTTP/1.1 server (such as
+ * json-server) answers in 1.1 and each in-flight request gets its own pooled
+ * keep-alive connection.
+ *
+ * With {@link Builder#extendedApi} the client uses the bulk, ids and
+ * seq-cursor endpoints of {@code server.PbbServer}, and subscriptions
+ * long-poll (?_since&_wait): the server holds each request until the topic
+ * grows, so an entry reaches subscribers one round trip after it is posted.
+ * Against json-server, subscriptions poll every few milliseconds.
+ */
+public class AsyncHttpPbbClient implements AsyncPbbClient {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Response header of PbbServer's ?_since endpoint. */
+    static final String CURSOR_HEADER = "X-Pbb-Cursor";
+    /** How long the server may hold a subscription's long-poll. */
+    static final Duration LONG_POLL_WAIT = Duration.ofSeconds(20);
+    /** Pause before a failed long-poll is retried. */
+    static final long LONG_POLL_RETRY_MS = 100;
+
+    private final HttpClient client;
+    private final URI base;
+    private final Gson gson;
+    private final Duration requestTimeout;
+    private final boolean extendedApi;
+
+    private volatile TrafficListener traffic;
+
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private AsyncHttpPbbClient(Builder b) {
+        this.base = URI.create(b.baseUrl.endsWith("/") ? b.baseUrl : b.baseUrl + "/");
+        HttpClient.Builder hb = HttpClient.newBuilder()
+                .version(b.version)
+                .connectTimeout(b.connectTimeout);
+        if (b.executor != null)
+            hb.executor(b.executor);
+        this.client = hb.build();
+        this.gson = b.gson != null ? b.gson : GsonFactory.createGson();
+        this.requestTimeout = b.requestTimeout;
+        this.extendedApi = b.extendedApi;
+        this.permits = new Semaphore(b.maxInFlight);
+    }
+
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    public static final class Builder {
+        private final String baseUrl;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private Executor executor;
+        private Gson gson;
+        private boolean extendedApi;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /** Preferred protocol; HTTP_2 falls back to 1.1 if the server declines. */
+        public Builder version(HttpClient.Version version) {
+            this.version = version;
+            return this;
+        }
+
+        /** Upper bound on concurrent requests (connections under HTTP/1.1). */
+        public Builder maxInFlight(int maxInFlight) {
+            if (maxInFlight < 1)
+                throw new IllegalArgumentException("maxInFlight must be ≥ 1");
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /** Per-request timeout, from send to the end of the response headers. */
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Executor for response handling; default is the HttpClient's own.
+         * Fetches parse their bodies on it while they stream in, so give it
+         * more than one thread.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder gson(Gson gson) {
+            this.gson = gson;
+            return this;
+        }
+
+        /**
+         * The board is a PbbServer: publishAll posts one _bulk request,
+         * fetchIds reads _ids, and fetchSince cursors are sequence numbers
+         * (?_since), which stay valid across deletes.
+         */
+        public Builder extendedApi(boolean extendedApi) {
+            this.extendedApi = extendedApi;
+            return this;
+        }
+
+        public AsyncHttpPbbClient build() {
+            return new AsyncHttpPbbClient(this);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(String topic, Object bean) {
+        byte[] body = gson.toJson(bean).getBytes(StandardCharsets.UTF_8);
+        HttpRequest req = request(base.resolve(topic))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return send(req, "publish “" + topic + "”", resp -> sent(topic, body.length, 1));
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAllAsync(String topic, Object[] msgs) {
+        if (!extendedApi)
+            return AsyncPbbClient.super.publishAllAsync(topic, msgs);
+        byte[] body = gson.toJson(msgs).getBytes(StandardCharsets.UTF_8);
+        HttpRequest req = request(base.resolve(topic + "/_bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return send(req, "publish “" + topic + "”", resp -> sent(topic, body.length, msgs.length));
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> fetchAsync(String topic, Class<T> clazz) {
+        HttpRequest req = request(base.resolve(topic)).GET().build();
+        return stream(req, "fetch “" + topic + "”", resp -> parseList(topic, resp.body(), clazz, true));
+    }
+
+    /**
+     * json-server has no sequence numbers; the cursor is the number of entries
+     * already seen and the request slices the topic with
+     * ?_start=cursor&_end=MAX, so only new entries cross the wire. The _end
+     * bound is required: json-server slices only when _end or _limit is
+     * given, and a bare _start is not honoured. Deleting entries shifts
+     * positions, so restart from {@link PbbClient#START} after clearing a
+     * topic.
+     *
+     * With the extended API the cursor is the last sequence number seen, sent
+     * as ?_since and returned in the X-Pbb-Cursor header.
+     */
+    @Override
+    public <T> CompletableFuture<FetchResult<T>> fetchSinceAsync(String topic, long cursor, Class<T> clazz) {
+        long from = Math.max(cursor, 0L);
+        if (extendedApi) {
+            HttpRequest req = request(base.resolve(topic + "?_since=" + from)).GET().build();
+            return stream(req, "fetch “" + topic + "”", resp -> new FetchResult<>(parseList(topic, resp.body(), clazz, true),
+                    resp.headers().firstValueAsLong(CURSOR_HEADER).orElse(from)));
+        }
+        URI uri = base.resolve(topic + "?_start=" + from + "&_end=" + Integer.MAX_VALUE);
+        HttpRequest req = request(uri).GET().build();
+        return stream(req, "fetch “" + topic + "”", resp -> {
+            List<T> items = parseList(topic, resp.body(), clazz, true);
+            return new FetchResult<>(items, from + items.size());
+        });
+    }
+
+    /**
+     * With the extended API, a chain of long-polls: each ?_since&_wait
+     * request is held by the server until there is something newer, and
+     * the next one is sent when its entries have been delivered. Long-polls
+     * bypass the maxInFlight limiter (a held request would otherwise block
+     * the publishes it is waiting for) and take no thread while held; the
+     * listener runs on the response executor.
+     */
+    @Override
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        if (!extendedApi)
+            return AsyncPbbClient.super.subscribe(topic, clazz, listener);
+        LongPoll<T> s = new LongPoll<>(topic, clazz, listener);
+        s.next(PbbClient.START);
+        return s;
+    }
+
+    private final class LongPoll<T> implements Subscription {
+        private final String topic;
+        private final Class<T> clazz;
+        private final Consumer<? super T> listener;
+        private volatile boolean open = true;
+
+        LongPoll(String topic, Class<T> clazz, Consumer<? super T> listener) {
+            this.topic = topic;
+            this.clazz = clazz;
+            this.listener = listener;
+        }
+
+        void next(long cursor) {
+            if (!open)
+                return;
+            URI uri = base.resolve(topic + "?_since=" + cursor + "&_wait=" + LONG_POLL_WAIT.toMillis());
+            HttpRequest req = HttpRequest.newBuilder(uri).timeout(requestTimeout.plus(LONG_POLL_WAIT)).GET().build();
+            AsyncHttpPbbClient.this.<FetchResult<T>>exchange(req, "subscribe “" + topic + "”",
+                    resp -> new FetchResult<>(parseList(topic, resp.body(), clazz, true),
+                            resp.headers().firstValueAsLong(CURSOR_HEADER).orElse(cursor)))
+                    .whenComplete((page, e) -> {
+                        if (e == null)
+                            deliver(page, 0);
+                        else // board unreachable or bad page: try again shortly
+                            later(() -> next(cursor));
+                    });
+        }
+
+        /**
+         * Hands the page's entries from index {@code from} on to the
+         * listener, then polls for the next page. If the listener throws,
+         * delivery resumes shortly at the entry that failed: the entries
+         * before it are not handed over again.
+         */
+        private void deliver(FetchResult<T> page, int from) {
+            List<T> items = page.getItems();
+            for (int k = from; k < items.size(); k++) {
+                if (!open)
+                    return;
+                try {
+                    listener.accept(items.get(k));
+                } catch (RuntimeException e) {
+                    int failed = k;
+                    later(() -> deliver(page, failed));
+                    return;
+                }
+            }
+            next(page.getCursor());
+        }
+
+        private void later(Runnable r) {
+            CompletableFuture.delayedExecutor(LONG_POLL_RETRY_MS, TimeUnit.MILLISECONDS).execute(r);
+        }
+
+        /** Stops delivery; a held request is left to time out on the server. */
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<String>> fetchIdsAsync(String topic) {
+        if (!extendedApi)
+            return AsyncPbbClient.super.fetchIdsAsync(topic);
+        HttpRequest req = request(base.resolve(topic + "/_ids")).GET().build();
+        return stream(req, "fetch “" + topic + "”", resp -> parseList(topic, resp.body(), String.class, false));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String topic, String id) {
+        HttpRequest req = request(base.resolve(topic + "/" + id)).DELETE().build();
+        return send(req, "delete \"" + topic + "/" + id + "\"", resp -> null);
+    }
+
+    /** Request bodies of publishes and response bodies of fetches, as sent/read. */
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        traffic = listener;
+        return listener != null;
+    }
+
+    private Void sent(String topic, long bytes, int msgs) {
+        TrafficListener tl = traffic;
+        if (tl != null)
+            tl.sent(topic, bytes, msgs);
+        return null;
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(requestTimeout);
+    }
+
+    /**
+     * Parses the body as it arrives; no String of the whole response is built.
+     * Reports the body's length, and the items as messages unless they are
+     * ids.
+     */
+    private <T> List<T> parseList(String topic, InputStream body, Class<T> clazz, boolean messages) {
+        Type listType = TypeToken.getParameterized(List.class, clazz).getType();
+        CountingInputStream in = new CountingInputStream(body);
+        List<T> items;
+        try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            items = gson.fromJson(r, listType);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        if (items == null)
+            items = new ArrayList<>();
+        TrafficListener tl = traffic;
+        if (tl != null)
+            tl.received(topic, in.count, messages ? items.size() : 0);
+        return items;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0)
+                count += n;
+            return n;
+        }
+    }
+
+    /** Sends once a permit is free; 4xx/5xx complete with an IOException. */
+    private <R> CompletableFuture<R> send(HttpRequest req, String what, Function<HttpResponse<String>, R> onOk) {
+        return submit(() -> client.sendAsync(req, HttpResponse.BodyHandlers.ofString())
+                .thenApply(resp -> {
+                    if (resp.statusCode() >= 400) {
+                        throw new CompletionException(new IOException(
+                                what + " failed: " + resp.statusCode() + " / " + resp.body()));
+                    }
+                    return onOk.apply(resp);
+                }));
+    }
+
+    /**
+     * As {@link #send}, but completes once the headers are in and hands
+     * onOk the body as a stream; onOk reads it on the response executor.
+     */
+    private <R> CompletableFuture<R> stream(HttpRequest req, String what,
+            Function<HttpResponse<InputStream>, R> onOk) {
+        return submit(() -> exchange(req, what, onOk));
+    }
+
+    /** As {@link #stream}, sent at once without taking a permit. */
+    private <R> CompletableFuture<R> exchange(HttpRequest req, String what,
+            Function<HttpResponse<InputStream>, R> onOk) {
+        return client.sendAsync(req, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(resp -> {
+                    if (resp.statusCode() >= 400) {
+                        String text;
+                        try (InputStream in = resp.body()) {
+                            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                        } catch (IOException e) {
+                            text = e.toString();
+                        }
+                        throw new CompletionException(new IOException(
+                                what + " failed: " + resp.statusCode() + " / " + text));
+                    }
+                    return onOk.apply(resp);
+                });
+    }
+
+    private <R> CompletableFuture<R> submit(Supplier<CompletableFuture<R>> call) {
+        CompletableFuture<R> out = new CompletableFuture<>();
+        waiting.add(() -> {
+            CompletableFuture<R> f;
+            try {
+                f = call.get();
+            } catch (RuntimeException e) {
+                f = CompletableFuture.failedFuture(e);
+            }
+            f.whenComplete((r, e) -> {
+                permits.release();
+                drain();
+                if (e != null)
+                    out.completeExceptionally(e instanceof CompletionException
+                            && e.getCause() != null ? e.getCause() : e);
+                else
+                    out.complete(r);
+            });
+        });
+        drain();
+        return out;
+    }
+
+    /** Starts queued requests while permits remain. */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null)
+                permits.release();
+            else
+                next.run();
+        }
+    }
+}
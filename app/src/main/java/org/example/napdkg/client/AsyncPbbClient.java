@@ -0,0 +1,80 @@
+package org.example.napdkg.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking counterpart of {@link PbbClient}: every call returns at once
+ * and completes when the board has answered, so many requests can be in
+ * flight on one client. Failures complete the future exceptionally with the
+ * same exceptions the blocking client throws.
+ *
+ * {@link BlockingPbbClient} adapts an implementation back to {@link PbbClient}
+ * for the phases.
+ */
+public interface AsyncPbbClient extends AutoCloseable {
+    CompletableFuture<Void> publishAsync(String topic, Object msg);
+
+    /**
+     * Publishes all messages concurrently; completes when every one has been
+     * accepted. Their relative order on the board is not guaranteed.
+     */
+    default CompletableFuture<Void> publishAllAsync(String topic, Object[] msgs) {
+        CompletableFuture<?>[] fs = new CompletableFuture<?>[msgs.length];
+        for (int i = 0; i < msgs.length; i++)
+            fs[i] = publishAsync(topic, msgs[i]);
+        return CompletableFuture.allOf(fs);
+    }
+
+    <T> CompletableFuture<List<T>> fetchAsync(String topic, Class<T> clazz);
+
+    /**
+     * See {@link PbbClient#fetchSince}.
+     *
+     * Default: full fetch, skipping the first {@code cursor} entries.
+     */
+    default <T> CompletableFuture<FetchResult<T>> fetchSinceAsync(String topic, long cursor, Class<T> clazz) {
+        return fetchAsync(topic, clazz).thenApply(all -> {
+            int from = (int) Math.min(Math.max(cursor, 0L), all.size());
+            return new FetchResult<>(new ArrayList<>(all.subList(from, all.size())), all.size());
+        });
+    }
+
+    /**
+     * See {@link PbbClient#fetchIds}.
+     *
+     * Default: full fetch, projected to the "id" field.
+     */
+    default CompletableFuture<List<String>> fetchIdsAsync(String topic) {
+        return fetchAsync(topic, PbbClient.IdOnly.class).thenApply(all -> {
+            List<String> ids = new ArrayList<>(all.size());
+            for (PbbClient.IdOnly e : all)
+                ids.add(e.id);
+            return ids;
+        });
+    }
+
+    CompletableFuture<Void> deleteAsync(String topic, String id);
+
+    /**
+     * See {@link PbbClient#subscribe}.
+     *
+     * Default: a background thread polling {@link #fetchSinceAsync}.
+     */
+    default <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        return PollingSubscription.start(new BlockingPbbClient(this), topic, clazz, listener,
+                PollingSubscription.DEFAULT_INTERVAL_MS);
+    }
+
+    /** As {@link PbbClient#reportTraffic}. */
+    default boolean reportTraffic(TrafficListener listener) {
+        return false;
+    }
+
+    /** Releases connections and threads; in-flight requests may fail. */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.napdkg.client;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * {@link PbbClient} over an {@link AsyncPbbClient}: each call waits for its
+ * future, and failures are rethrown as the original exception. publishAll
+ * still pipelines, so a batch costs about one round trip instead of one per
+ * message.
+ */
+public class BlockingPbbClient implements PbbClient, AutoCloseable {
+    private final AsyncPbbClient async;
+
+    public BlockingPbbClient(AsyncPbbClient async) {
+        this.async = async;
+    }
+
+    /** @return the wrapped client, for callers that want to pipeline */
+    public AsyncPbbClient async() {
+        return async;
+    }
+
+    @Override
+    public void publish(String topic, Object msg) throws Exception {
+        await(async.publishAsync(topic, msg));
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) throws Exception {
+        await(async.publishAllAsync(topic, msgs));
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        return await(async.fetchAsync(topic, clazz));
+    }
+
+    @Override
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) throws Exception {
+        return await(async.fetchSinceAsync(topic, cursor, clazz));
+    }
+
+    @Override
+    public List<String> fetchIds(String topic) throws Exception {
+        return await(async.fetchIdsAsync(topic));
+    }
+
+    @Override
+    public void delete(String topic, String id) throws Exception {
+        await(async.deleteAsync(topic, id));
+    }
+
+    @Override
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        return async.subscribe(topic, clazz, listener);
+    }
+
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        return async.reportTraffic(listener);
+    }
+
+    @Override
+    public void close() {
+        async.close();
+    }
+
+    private static <R> R await(CompletableFuture<R> f) throws Exception {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            f.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+}
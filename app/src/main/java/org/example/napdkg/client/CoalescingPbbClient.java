@@ -0,0 +1,332 @@
+package org.example.napdkg.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Collapses the identical reads of parties that share one client, as all
+ * parties of the in-JVM simulation do:
+ *
+ * - concurrent identical fetches (same call, topic, cursor and class) are
+ * single-flight: one goes to the board, the others wait for and share its
+ * decoded result;
+ * - a result is then served for another {@code ttlMs} as long as the topic's
+ * version is unchanged. The version counts the publishes and deletes made
+ * through this client, so a party always reads its own writes; writes by
+ * other processes show up after at most ttlMs;
+ * - subscribers of the same topic and class share one upstream
+ * subscription (one poller instead of n), late ones get the entries seen so
+ * far replayed first.
+ *
+ * Results are shared between callers: treat them as read-only, as the lists
+ * of {@link InMemoryPbbClient} already are.
+ */
+public class CoalescingPbbClient implements PbbClient {
+    public static final long DEFAULT_TTL_MS = 20;
+
+    private enum Call {
+        FETCH, SINCE, IDS
+    }
+
+    private static final class Key {
+        final Call call;
+        final String topic;
+        final long cursor;
+        final Class<?> clazz;
+
+        Key(Call call, String topic, long cursor, Class<?> clazz) {
+            this.call = call;
+            this.topic = topic;
+            this.cursor = cursor;
+            this.clazz = clazz;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return call == k.call && cursor == k.cursor && topic.equals(k.topic) && clazz == k.clazz;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(call, topic, cursor, clazz);
+        }
+    }
+
+    private static final class Flight {
+        final long version;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Flight(long version) {
+            this.version = version;
+        }
+    }
+
+    private static final class Cached {
+        final Object value;
+        final long version;
+        final long expires; // System.nanoTime()
+
+        Cached(Object value, long version, long expires) {
+            this.value = value;
+            this.version = version;
+            this.expires = expires;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Read {
+        Object run() throws Exception;
+    }
+
+    private static final int CACHE_SWEEP_SIZE = 1024;
+
+    private final PbbClient delegate;
+    private final long ttlNanos;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, Cached> cache = new ConcurrentHashMap<>();
+    private final Map<Key, Feed> feeds = new ConcurrentHashMap<>();
+
+    private final LongAdder upstream = new LongAdder(), joined = new LongAdder(), cacheHits = new LongAdder();
+    private final LongAdder subscribers = new LongAdder(), upstreamSubs = new LongAdder();
+
+    public CoalescingPbbClient(PbbClient delegate) {
+        this(delegate, DEFAULT_TTL_MS);
+    }
+
+    /** @param ttlMs how long an unchanged topic's result is served again; 0 only merges concurrent fetches */
+    public CoalescingPbbClient(PbbClient delegate, long ttlMs) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    // ---------------- writes: pass through, then bump the topic version ----------------
+
+    @Override
+    public void publish(String topic, Object msg) throws Exception {
+        try {
+            delegate.publish(topic, msg);
+        } finally {
+            bump(topic);
+        }
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) throws Exception {
+        try {
+            delegate.publishAll(topic, msgs);
+        } finally {
+            bump(topic);
+        }
+    }
+
+    @Override
+    public void delete(String topic, String id) throws Exception {
+        try {
+            delegate.delete(topic, id);
+        } finally {
+            bump(topic);
+        }
+    }
+
+    private AtomicLong versionOf(String topic) {
+        return versions.computeIfAbsent(topic, __ -> new AtomicLong());
+    }
+
+    private void bump(String topic) {
+        versionOf(topic).incrementAndGet();
+    }
+
+    // ---------------- reads ----------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        return (List<T>) read(new Key(Call.FETCH, topic, 0, clazz), () -> delegate.fetch(topic, clazz));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) throws Exception {
+        return (FetchResult<T>) read(new Key(Call.SINCE, topic, cursor, clazz),
+                () -> delegate.fetchSince(topic, cursor, clazz));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> fetchIds(String topic) throws Exception {
+        return (List<String>) read(new Key(Call.IDS, topic, 0, String.class), () -> delegate.fetchIds(topic));
+    }
+
+    /**
+     * A cached result of the current version, else the flight in progress for
+     * it, else a new flight. A flight started before one of our own writes is
+     * never joined.
+     */
+    private Object read(Key key, Read call) throws Exception {
+        long version = versionOf(key.topic).get();
+        Cached c = cache.get(key);
+        if (c != null && c.version == version && System.nanoTime() - c.expires < 0) {
+            cacheHits.increment();
+            return c.value;
+        }
+
+        Flight mine = new Flight(version);
+        while (true) {
+            Flight f = inFlight.putIfAbsent(key, mine);
+            if (f == null)
+                break;
+            if (f.version == version) {
+                joined.increment();
+                return await(f);
+            }
+            if (f.version > version) {
+                // a write landed after we looked: start over at the newer version
+                version = versionOf(key.topic).get();
+                mine = new Flight(version);
+                continue;
+            }
+            inFlight.remove(key, f); // stale flight; let its own callers finish it
+        }
+
+        upstream.increment();
+        try {
+            Object value = call.run();
+            if (ttlNanos > 0) {
+                if (cache.size() >= CACHE_SWEEP_SIZE) {
+                    long now = System.nanoTime();
+                    cache.values().removeIf(e -> now - e.expires >= 0);
+                }
+                cache.merge(key, new Cached(value, version, System.nanoTime() + ttlNanos),
+                        (old, nu) -> old.version > nu.version ? old : nu);
+            }
+            mine.result.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static Object await(Flight f) throws Exception {
+        try {
+            return f.result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // ---------------- shared subscriptions ----------------
+
+    /** One upstream subscription, fanned out to every local listener. */
+    private final class Feed {
+        private final Key key;
+        // guarded by this
+        private final List<Object> seen = new ArrayList<>();
+        private final List<Consumer<Object>> listeners = new ArrayList<>();
+        private Subscription upstream;
+        private boolean closed;
+
+        Feed(Key key) {
+            this.key = key;
+        }
+
+        synchronized void deliver(Object item) {
+            if (closed)
+                return;
+            seen.add(item);
+            // a listener may close its subscription from inside the callback
+            for (Consumer<Object> l : new ArrayList<>(listeners))
+                l.accept(item);
+        }
+
+        synchronized void remove(Consumer<Object> l) {
+            if (!listeners.remove(l) || !listeners.isEmpty())
+                return;
+            closed = true;
+            feeds.remove(key, this);
+            upstream.close();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        Key key = new Key(Call.SINCE, topic, START, clazz);
+        Consumer<Object> l = o -> listener.accept((T) o);
+        while (true) {
+            Feed feed = feeds.computeIfAbsent(key, Feed::new);
+            synchronized (feed) {
+                if (feed.closed)
+                    continue; // the last subscriber just left; open a new feed
+                if (feed.upstream == null) {
+                    feed.upstream = delegate.subscribe(topic, clazz, feed::deliver);
+                    upstreamSubs.increment();
+                }
+                subscribers.increment();
+                for (Object item : feed.seen)
+                    l.accept(item);
+                feed.listeners.add(l);
+            }
+            return () -> feed.remove(l);
+        }
+    }
+
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        return delegate.reportTraffic(listener);
+    }
+
+    // ---------------- stats ----------------
+
+    /** @return reads that went to the board */
+    public long getUpstreamReads() {
+        return upstream.sum();
+    }
+
+    /** @return reads that shared a flight already in progress */
+    public long getJoinedReads() {
+        return joined.sum();
+    }
+
+    /** @return reads served from the TTL cache */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /** @return subscriptions opened on the board, for {@link #getSubscribers} local ones */
+    public long getUpstreamSubscriptions() {
+        return upstreamSubs.sum();
+    }
+
+    public long getSubscribers() {
+        return subscribers.sum();
+    }
+
+    public String summary() {
+        long up = upstream.sum(), saved = joined.sum() + cacheHits.sum();
+        return String.format(
+                "Coalescing: %d reads sent, %d joined in flight, %d from cache (%.1f%% saved) | %d subscribers on %d feeds",
+                up, joined.sum(), cacheHits.sum(), up + saved == 0 ? 0.0 : 100.0 * saved / (up + saved),
+                subscribers.sum(), upstreamSubs.sum());
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.napdkg.client;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Publishes every message through a {@link WireCodec}, so the codec can be
+ * chosen per client (e.g. {@code new CodecPbbClient(http, new BinaryCodec())}).
+ * Each entry on the underlying board is an {@link Envelope}: the message id,
+ * kept readable for deletes and id manifests, plus the encoded bytes in
+ * Base64, since json-server only stores JSON.
+ *
+ * Traffic is counted as the envelopes: over HTTP the delegate reports their
+ * JSON bodies itself; over a board without a wire the envelopes are sized
+ * here as that same JSON, so a binary run's bytes include the Base64 (4/3)
+ * and the {id, data} wrapper and compare directly with a JSON run's.
+ */
+public class CodecPbbClient implements PbbClient {
+    /** What the underlying board stores. */
+    public static final class Envelope {
+        public String id;
+        public String data; // Base64 of the codec's bytes
+
+        public Envelope() {
+        }
+
+        Envelope(String id, String data) {
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    /** Sizes envelopes as the HTTP client would post them. */
+    private static final WireCodec ENVELOPE_JSON = WireCodec.json(GsonFactory.createGson());
+
+    private final PbbClient delegate;
+    private final WireCodec codec;
+    // set when the delegate has no wire of its own: then the envelopes are the traffic
+    private volatile TrafficListener traffic;
+
+    public CodecPbbClient(PbbClient delegate, WireCodec codec) {
+        this.delegate = delegate;
+        this.codec = codec;
+    }
+
+    public WireCodec codec() {
+        return codec;
+    }
+
+    @Override
+    public void publish(String topic, Object msg) throws Exception {
+        delegate.publish(topic, wrap(topic, msg));
+    }
+
+    @Override
+    public void publishAll(String topic, Object[] msgs) throws Exception {
+        Envelope[] out = new Envelope[msgs.length];
+        for (int i = 0; i < msgs.length; i++)
+            out[i] = wrap(topic, msgs[i]);
+        delegate.publishAll(topic, out);
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        return unwrapAll(topic, delegate.fetch(topic, Envelope.class), clazz);
+    }
+
+    @Override
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) throws Exception {
+        FetchResult<Envelope> r = delegate.fetchSince(topic, cursor, Envelope.class);
+        return new FetchResult<>(unwrapAll(topic, r.getItems(), clazz), r.getCursor());
+    }
+
+    @Override
+    public List<String> fetchIds(String topic) throws Exception {
+        return delegate.fetchIds(topic);
+    }
+
+    @Override
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        return delegate.subscribe(topic, Envelope.class, e -> {
+            T msg = unwrap(e, clazz);
+            TrafficListener tl = traffic;
+            if (tl != null)
+                tl.received(topic, ENVELOPE_JSON.size(e), 1);
+            listener.accept(msg);
+        });
+    }
+
+    /** The delegate's wire bytes if it has a wire, else the envelopes' JSON. */
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        if (delegate.reportTraffic(listener)) {
+            traffic = null;
+            return true;
+        }
+        traffic = listener;
+        return listener != null;
+    }
+
+    @Override
+    public void delete(String topic, String id) throws Exception {
+        delegate.delete(topic, id);
+    }
+
+    private Envelope wrap(String topic, Object msg) {
+        ByteBuffer bytes = codec.encode(msg);
+        byte[] raw = new byte[bytes.remaining()];
+        bytes.get(raw);
+        Envelope e = new Envelope(IdExtractor.of(msg.getClass()).idOf(msg), Base64.getEncoder().encodeToString(raw));
+        TrafficListener tl = traffic;
+        if (tl != null)
+            tl.sent(topic, ENVELOPE_JSON.size(e), 1);
+        return e;
+    }
+
+    private <T> List<T> unwrapAll(String topic, List<Envelope> in, Class<T> clazz) {
+        List<T> out = new ArrayList<>(in.size());
+        TrafficListener tl = traffic;
+        long bytes = tl == null ? 0 : 2 + Math.max(0, in.size() - 1); // [ , ]
+        for (Envelope e : in) {
+            out.add(unwrap(e, clazz));
+            if (tl != null)
+                bytes += ENVELOPE_JSON.size(e);
+        }
+        if (tl != null)
+            tl.received(topic, bytes, out.size());
+        return out;
+    }
+
+    /** Decodes e; a message posted without an id gets the one the board assigned. */
+    private <T> T unwrap(Envelope e, Class<T> clazz) {
+        T msg = codec.decode(ByteBuffer.wrap(Base64.getDecoder().decode(e.data)), clazz);
+        IdExtractor ids = IdExtractor.of(msg.getClass());
+        if (e.id != null && ids.idOf(msg) == null)
+            ids.assign(msg, e.id);
+        return msg;
+    }
+}
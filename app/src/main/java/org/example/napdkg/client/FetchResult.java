@@ -0,0 +1,27 @@
+package org.example.napdkg.client;
+
+import java.util.List;
+
+/**
+ * One page of an incremental fetch: the entries published after the caller's
+ * cursor, in publication order, and the cursor to pass next time.
+ */
+public final class FetchResult<T> {
+    private final List<T> items;
+    private final long cursor;
+
+    public FetchResult(List<T> items, long cursor) {
+        this.items = items;
+        this.cursor = cursor;
+    }
+
+    /** @return entries after the requested cursor (possibly empty) */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /** @return cursor covering everything returned so far */
+    public long getCursor() {
+        return cursor;
+    }
+}
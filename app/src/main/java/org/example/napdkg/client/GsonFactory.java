@@ -4,6 +4,7 @@ import java.lang.reflect.Type;
 import java.util.Base64;
 
 import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.dto.DtoTypeAdapters;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -27,6 +28,8 @@ public class GsonFactory {
                     }
                 })
                 // BigInteger works by default, but you can register one if you need control
+                // the DKG messages: streaming adapters, same JSON as reflection
+                .registerTypeAdapterFactory(new DtoTypeAdapters())
                 .create();
     }
 }
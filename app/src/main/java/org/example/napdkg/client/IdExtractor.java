@@ -0,0 +1,86 @@
+package org.example.napdkg.client;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * A message's "id", resolved once per class and cached: the public field
+ * {@code id}, else {@code getId()}, else {@code toString()}. A generated id
+ * can be written back through the public field or {@code setId(String)}, as
+ * json-server assigns ids to posted objects.
+ */
+final class IdExtractor {
+    private static final ClassValue<IdExtractor> CACHE = new ClassValue<>() {
+        @Override
+        protected IdExtractor computeValue(Class<?> type) {
+            return forClass(type);
+        }
+    };
+
+    private static final MethodType GET = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SET = MethodType.methodType(void.class, Object.class, String.class);
+
+    private final MethodHandle getter; // (Object)Object, or null → toString()
+    private final MethodHandle setter; // (Object,String)void, or null
+
+    private IdExtractor(MethodHandle getter, MethodHandle setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    static IdExtractor of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /** @return the message's id, or null if it has an id member that is unset */
+    String idOf(Object msg) {
+        if (getter == null)
+            return msg.toString();
+        try {
+            Object id = getter.invokeExact(msg);
+            return id == null ? null : id.toString();
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot read id of " + msg.getClass().getName(), t);
+        }
+    }
+
+    /** Writes id back into msg if its class has a writable String id. */
+    void assign(Object msg, String id) {
+        if (setter == null)
+            return;
+        try {
+            setter.invokeExact(msg, id);
+        } catch (Throwable t) {
+            throw new IllegalStateException("cannot assign id to " + msg.getClass().getName(), t);
+        }
+    }
+
+    private static IdExtractor forClass(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            Field f = type.getField("id");
+            MethodHandle set = null;
+            if (f.getType() == String.class && !Modifier.isFinal(f.getModifiers()))
+                set = lookup.unreflectSetter(f).asType(SET);
+            return new IdExtractor(lookup.unreflectGetter(f).asType(GET), set);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            // fall through to getId()
+        }
+        try {
+            Method get = type.getMethod("getId");
+            MethodHandle set = null;
+            try {
+                set = lookup.unreflect(type.getMethod("setId", String.class)).asType(SET);
+            } catch (NoSuchMethodException e) {
+                // read-only id
+            }
+            return new IdExtractor(lookup.unreflect(get).asType(GET), set);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return new IdExtractor(null, null);
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package org.example.napdkg.client;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * InMemoryPbbClient keeps all “published” objects in memory, keyed by topic.
  *
  * Internally:
- * storage: Map<String topicName, Map<String id, Object dto>>
+ * storage: Map<String topicName, Topic>, where a Topic is a lock-free
+ * append-only linked log. A publish takes the next sequence number by
+ * CAS-linking its node after the tail, so the log order is the publication
+ * order and a reader that sees seq k has seen every seq below k. Deletes
+ * only mark nodes; readers skip them.
  *
- * fetch(...) on a missing topic now returns a mutable empty ArrayList<> (not
- * Collections.emptyList()).
- * publish(...) stores dto under its “id” (via reflection).
- * delete(...) on a missing (topic, id) now throws an IllegalArgumentException,
+ * fetch(...) returns an immutable list in publication order; an unchanged
+ * topic returns the same list again. fetch(...) on a missing topic returns
+ * an empty list.
+ * publish(...) stores dto under its “id” (see {@link IdExtractor}); a null id
+ * is replaced by a generated one, as json-server does.
+ * subscribe(...) listeners are called from publish(...), in order.
+ * delete(...) on a missing (topic, id) throws an IllegalArgumentException,
  * exactly what testDeleteThrows expects.
  */
 public class InMemoryPbbClient implements PbbClient {
@@ -33,64 +48,237 @@ public class InMemoryPbbClient implements PbbClient {
         }
     }
 
-    // topicName → (id → dto)
-    private final Map<String, Map<String, Object>> storage = new ConcurrentHashMap<>();
+    private static final VarHandle NEXT;
+    private static final VarHandle TAIL;
+    private static final VarHandle HEAD;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            NEXT = l.findVarHandle(Node.class, "next", Node.class);
+            TAIL = l.findVarHandle(Topic.class, "tail", Node.class);
+            HEAD = l.findVarHandle(Topic.class, "head", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Node {
+        final long seq;
+        final String id;
+        final Object dto;
+        volatile Node next;
+        volatile boolean deleted;
+
+        Node(long seq, String id, Object dto) {
+            this.seq = seq;
+            this.id = id;
+            this.dto = dto;
+        }
+    }
+
+    /** An immutable fetch result, valid while tail and deletions are unchanged. */
+    private static final class Snapshot {
+        final Node tail;
+        final int deletions;
+        final List<Object> items;
+
+        Snapshot(Node tail, int deletions, List<Object> items) {
+            this.tail = tail;
+            this.deletions = deletions;
+            this.items = items;
+        }
+    }
+
+    private static final class Topic {
+        // head: last node before the first live one (a sentinel at seq 0, or
+        // a deleted node); advanced past deleted prefixes so they can be GC'd
+        volatile Node head = new Node(0, null, null);
+        volatile Node tail = head;
+        final ConcurrentSkipListMap<Long, Node> index = new ConcurrentSkipListMap<>(); // live seq → node
+        final Map<String, Node> byId = new ConcurrentHashMap<>();
+        final AtomicInteger deletions = new AtomicInteger();
+        final List<Sub> subs = new CopyOnWriteArrayList<>();
+        volatile Snapshot snapshot;
+
+        Node append(String id, Object dto) {
+            while (true) {
+                Node t = tail;
+                Node n = t.next;
+                if (n != null) {
+                    TAIL.compareAndSet(this, t, n); // help a stalled publisher
+                    continue;
+                }
+                Node node = new Node(t.seq + 1, id, dto);
+                if (NEXT.compareAndSet(t, null, node)) {
+                    TAIL.compareAndSet(this, t, node);
+                    return node;
+                }
+            }
+        }
+
+        void markDeleted(Node n) {
+            n.deleted = true;
+            index.remove(n.seq);
+            deletions.incrementAndGet();
+            Node h;
+            Node nx;
+            while ((nx = (h = head).next) != null && nx.deleted)
+                HEAD.compareAndSet(this, h, nx);
+        }
+
+        /** @return the node with seq = cursor, or the closest one before it */
+        Node nodeAt(long cursor) {
+            Node h = head;
+            if (cursor <= h.seq)
+                return h;
+            Map.Entry<Long, Node> e = index.floorEntry(cursor);
+            Node n = e == null || e.getValue().seq < h.seq ? h : e.getValue();
+            Node nx;
+            while (n.seq < cursor && (nx = n.next) != null)
+                n = nx;
+            return n;
+        }
+    }
+
+    /** One subscriber; its cursor only moves inside drain, one thread at a time. */
+    private static final class Sub {
+        final Consumer<Object> listener;
+        final AtomicInteger wip = new AtomicInteger();
+        volatile boolean closed;
+        Node last;
+
+        Sub(Consumer<Object> listener, Node from) {
+            this.listener = listener;
+            this.last = from;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0)
+                return; // the running drain will pick it up
+            int missed = 1;
+            do {
+                Node n;
+                while (!closed && (n = last.next) != null) {
+                    last = n;
+                    if (!n.deleted)
+                        listener.accept(n.dto);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    // topicName → topic (kept after its last delete so cursors stay valid)
+    private final Map<String, Topic> storage = new ConcurrentHashMap<>();
+    private final AtomicLong autoIds = new AtomicLong();
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> List<T> fetch(String topic, Class<T> clazz) {
         maybeSleep();
-        Map<String, Object> topicMap = storage.get(topic);
-        if (topicMap == null) {
-            // return a new, mutable empty list (not Collections.emptyList())
-            return new ArrayList<>();
+        Topic tp = storage.get(topic);
+        if (tp == null)
+            return Collections.emptyList();
+        Snapshot s = tp.snapshot;
+        Node tail = tp.tail;
+        int deletions = tp.deletions.get();
+        if (s == null || s.tail != tail || s.deletions != deletions) {
+            List<Object> items = new ArrayList<>();
+            for (Node n = tp.head.next; n != null; n = n.next) {
+                if (!n.deleted)
+                    items.add(n.dto);
+                if (n == tail)
+                    break;
+            }
+            s = new Snapshot(tail, deletions, Collections.unmodifiableList(items));
+            tp.snapshot = s;
         }
+        return (List<T>) s.items;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) {
+        maybeSleep();
+        Topic tp = storage.get(topic);
+        if (tp == null)
+            return new FetchResult<>(Collections.emptyList(), cursor);
         List<T> result = new ArrayList<>();
-        for (Object o : topicMap.values()) {
-            @SuppressWarnings("unchecked")
-            T t = (T) o;
-            result.add(t);
+        Node n = tp.nodeAt(cursor);
+        long last = cursor;
+        for (Node nx; (nx = n.next) != null;) {
+            n = nx;
+            if (!n.deleted)
+                result.add((T) n.dto);
+            last = n.seq;
         }
-        return result;
+        return new FetchResult<>(Collections.unmodifiableList(result), last);
+    }
+
+    @Override
+    public List<String> fetchIds(String topic) {
+        maybeSleep();
+        Topic tp = storage.get(topic);
+        List<String> ids = new ArrayList<>();
+        if (tp != null)
+            for (Node n = tp.head.next; n != null; n = n.next)
+                if (!n.deleted)
+                    ids.add(n.id);
+        return Collections.unmodifiableList(ids);
     }
 
     @Override
     public void publish(String topic, Object dto) {
         maybeSleep();
-        // ensure there is a map for this topic
-        Map<String, Object> topicMap = storage.computeIfAbsent(topic,
-                k -> new ConcurrentHashMap<>());
+        // ensure there is a log for this topic
+        Topic tp = storage.computeIfAbsent(topic, k -> new Topic());
 
-        // “id” extraction logic: try public field “id”, then getId(), else fallback to
-        // toString()
-        String id;
-        try {
-            java.lang.reflect.Field f = dto.getClass().getField("id");
-            id = (String) f.get(dto);
-        } catch (Exception e1) {
-            try {
-                java.lang.reflect.Method m = dto.getClass().getMethod("getId");
-                id = (String) m.invoke(dto);
-            } catch (Exception e2) {
-                id = dto.toString();
-            }
+        IdExtractor ids = IdExtractor.of(dto.getClass());
+        String id = ids.idOf(dto);
+        if (id == null) {
+            id = "m" + autoIds.incrementAndGet();
+            ids.assign(dto, id);
         }
 
-        topicMap.put(id, dto);
+        Node node = tp.append(id, dto);
+        tp.index.put(node.seq, node);
+        // re-publishing an id replaces the entry and moves it to the end
+        Node old = tp.byId.put(id, node);
+        if (old != null)
+            tp.markDeleted(old);
+        for (Sub s : tp.subs)
+            s.drain();
+    }
+
+    /**
+     * Replays the topic, then delivers each publish. Delivery is in log order
+     * and never concurrent for one listener; it usually runs on the
+     * publishing thread, but may run on whichever publisher is already
+     * draining.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        Topic tp = storage.computeIfAbsent(topic, k -> new Topic());
+        Sub sub = new Sub(o -> listener.accept((T) o), tp.head);
+        tp.subs.add(sub);
+        sub.drain();
+        return () -> {
+            sub.closed = true;
+            tp.subs.remove(sub);
+        };
     }
 
     @Override
     public void delete(String topic, String id) {
         maybeSleep();
-        Map<String, Object> topicMap = storage.get(topic);
+        Topic tp = storage.get(topic);
         // If topic is missing or id is not present, throw IllegalArgumentException
-        if (topicMap == null || !topicMap.containsKey(id)) {
+        Node n = tp == null ? null : tp.byId.get(id);
+        if (n == null || !tp.byId.remove(id, n)) {
             throw new IllegalArgumentException(
                     "No such ID '" + id + "' in topic '" + topic + "'");
         }
-        // Otherwise remove
-        topicMap.remove(id);
-        if (topicMap.isEmpty()) {
-            storage.remove(topic);
-        }
+        tp.markDeleted(n);
     }
 }
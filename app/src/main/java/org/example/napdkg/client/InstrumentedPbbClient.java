@@ -6,129 +6,227 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 import org.example.napdkg.core.Metrics;
+import org.example.napdkg.core.Phase;
 
 import com.google.gson.Gson;
 
-/** Wraps any PbbClient and counts bytes/messages globally and per topic. */
+/**
+ * Wraps any PbbClient and counts bytes/messages globally, per topic and,
+ * with a {@link Metrics}, per phase.
+ *
+ * Bytes are what the transport reports it moved (see
+ * {@link PbbClient#reportTraffic}): HTTP bodies, stored bytes, or the output
+ * of a {@link CodecPbbClient}. Only for a board without a wire (a bare
+ * InMemoryPbbClient) are messages sized here, with the given
+ * {@link WireCodec} (JSON by default). Nothing is encoded just to be sized
+ * otherwise; to compare codecs, compare the bytes of a run in each.
+ *
+ * Traffic is booked under the phase last passed to {@link #setPhase}, from
+ * whatever thread it happens on (pollers included), in the session of the
+ * Metrics. Counters are LongAdders; nothing here takes a lock.
+ */
 public class InstrumentedPbbClient implements PbbClient {
     private final PbbClient delegate;
-    private final Gson gson;
-
-    // ---- global counters (simple synchronized bumps) ----
-    private long bytesSent = 0, bytesReceived = 0;
-    private long publishes = 0, fetches = 0, deletes = 0;
+    private final WireCodec codec;
     private final Metrics metrics;
+    private final Meter meter = new Meter();
+    private final boolean wireReported;
+    private volatile Phase phase = Phase.OTHER;
+
+    // ---- global counters ----
+    private final LongAdder bytesSent = new LongAdder(), bytesReceived = new LongAdder();
+    private final LongAdder publishes = new LongAdder(), fetches = new LongAdder(), deletes = new LongAdder();
 
     // ---- per-topic stats ----
     private static final class TopicStats {
-        long pub, fetch, del, upBytes, downBytes;
-
-        synchronized void addPublish(long up) {
-            pub++;
-            upBytes += up;
-        }
-
-        synchronized void addFetch(long down) {
-            fetch++;
-            downBytes += down;
-        }
-
-        synchronized void addDelete() {
-            del++;
-        }
+        final LongAdder pub = new LongAdder(), fetch = new LongAdder(), del = new LongAdder(),
+                upBytes = new LongAdder(), downBytes = new LongAdder();
     }
 
+    private final Map<String, TopicStats> byTopic = new ConcurrentHashMap<>();
+
     // InstrumentedPbbClient.java
     public void resetCounters() {
-        this.bytesSent = 0;
-        this.bytesReceived = 0;
-        this.publishes = 0;
-        this.fetches = 0;
-        this.deletes = 0;
-
+        this.bytesSent.reset();
+        this.bytesReceived.reset();
+        this.publishes.reset();
+        this.fetches.reset();
+        this.deletes.reset();
     }
 
-    private final Map<String, TopicStats> byTopic = new ConcurrentHashMap<>();
-
     public InstrumentedPbbClient(PbbClient delegate, Gson gson) {
-        this.delegate = delegate;
-        this.gson = gson;
-        this.metrics = null;
+        this(delegate, gson, null);
     }
 
     public InstrumentedPbbClient(PbbClient delegate, Gson gson, Metrics metrics) {
+        this(delegate, gson, metrics, WireCodec.json(gson));
+    }
+
+    /**
+     * Takes over the delegate's traffic reporting.
+     *
+     * @param codec what to size messages with if the delegate reports no
+     *              traffic, e.g. the one of a {@link CodecPbbClient}
+     */
+    public InstrumentedPbbClient(PbbClient delegate, Gson gson, Metrics metrics, WireCodec codec) {
         this.delegate = delegate;
-        this.gson = gson;
+        this.codec = codec;
         this.metrics = metrics;
+        this.wireReported = delegate.reportTraffic(meter);
+    }
+
+    /** Books all traffic from now on under p. */
+    public void setPhase(Phase p) {
+        this.phase = p;
+    }
+
+    public Phase getPhase() {
+        return phase;
     }
 
     private TopicStats statsFor(String topic) {
         return byTopic.computeIfAbsent(topic, __ -> new TopicStats());
     }
 
+    /** Where the transport's reports, or our own sizes, land. */
+    private final class Meter implements TrafficListener {
+        @Override
+        public void sent(String topic, long bytes, int msgs) {
+            bytesSent.add(bytes);
+            statsFor(topic).upBytes.add(bytes);
+            if (metrics != null)
+                metrics.addOut(phase, bytes, msgs);
+        }
+
+        @Override
+        public void received(String topic, long bytes, int msgs) {
+            bytesReceived.add(bytes);
+            statsFor(topic).downBytes.add(bytes);
+            if (metrics != null)
+                metrics.addIn(phase, bytes, msgs);
+        }
+    }
+
     // ---------------- PbbClient ----------------
 
     @Override
     public void publish(String topic, Object msg) throws Exception {
-        byte[] data = gson.toJson(msg).getBytes(StandardCharsets.UTF_8);
-        synchronized (this) {
-            publishes++;
-            bytesSent += data.length;
-        }
-        statsFor(topic).addPublish(data.length);
+        countPublish(topic, msg);
         delegate.publish(topic, msg);
     }
 
     @Override
     public void publishAll(String topic, Object[] msgs) throws Exception {
         for (Object m : msgs)
-            publish(topic, m);
+            countPublish(topic, m);
+        delegate.publishAll(topic, msgs);
+    }
+
+    private void countPublish(String topic, Object msg) {
+        publishes.increment();
+        statsFor(topic).pub.increment();
+        if (!wireReported)
+            meter.sent(topic, codec.size(msg), 1);
     }
 
     @Override
     public <T> List<T> fetch(String topic, Class<T> clazz) throws Exception {
+        countFetch(topic);
         List<T> out = delegate.fetch(topic, clazz);
-        String json = gson.toJson(out);
-        int down = json.getBytes(StandardCharsets.UTF_8).length;
-        synchronized (this) {
-            fetches++;
-            bytesReceived += down;
-        }
-        statsFor(topic).addFetch(down);
+        if (!wireReported)
+            meter.received(topic, sizeOf(out), out.size());
+        return out;
+    }
+
+    @Override
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) throws Exception {
+        countFetch(topic);
+        FetchResult<T> out = delegate.fetchSince(topic, cursor, clazz);
+        if (!wireReported)
+            meter.received(topic, sizeOf(out.getItems()), out.getItems().size());
         return out;
     }
 
+    @Override
+    public List<String> fetchIds(String topic) throws Exception {
+        countFetch(topic);
+        List<String> out = delegate.fetchIds(topic);
+        if (!wireReported)
+            meter.received(topic, idsSize(out), 0);
+        return out;
+    }
+
+    /**
+     * Pushed entries count as downloaded bytes (no fetch call); a transport
+     * that reports its traffic books the polls or pushes behind them itself.
+     */
+    @Override
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        if (wireReported)
+            return delegate.subscribe(topic, clazz, listener);
+        return delegate.subscribe(topic, clazz, item -> {
+            meter.received(topic, codec.size(item), 1);
+            listener.accept(item);
+        });
+    }
+
+    /** This client owns the delegate's reports; it does not hand them on. */
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        return false;
+    }
+
+    private long sizeOf(List<?> items) {
+        long n = 0;
+        for (Object item : items)
+            n += codec.size(item);
+        return n;
+    }
+
+    /** As the JSON array of ids: ["a","b"]. */
+    private static long idsSize(List<String> ids) {
+        long n = 2 + Math.max(0, ids.size() - 1);
+        for (String id : ids)
+            n += 2 + id.getBytes(StandardCharsets.UTF_8).length;
+        return n;
+    }
+
+    private void countFetch(String topic) {
+        fetches.increment();
+        statsFor(topic).fetch.increment();
+    }
+
     @Override
     public void delete(String topic, String id) throws Exception {
-        synchronized (this) {
-            deletes++;
-        }
-        statsFor(topic).addDelete();
+        deletes.increment();
+        statsFor(topic).del.increment();
         delegate.delete(topic, id);
     }
 
     // ---------------- accessors & summary ----------------
 
-    public synchronized long getBytesSent() {
-        return bytesSent;
+    public long getBytesSent() {
+        return bytesSent.sum();
     }
 
-    public synchronized long getBytesReceived() {
-        return bytesReceived;
+    public long getBytesReceived() {
+        return bytesReceived.sum();
     }
 
-    public synchronized long getPublishes() {
-        return publishes;
+    public long getPublishes() {
+        return publishes.sum();
     }
 
-    public synchronized long getFetches() {
-        return fetches;
+    public long getFetches() {
+        return fetches.sum();
     }
 
-    public synchronized long getDeletes() {
-        return deletes;
+    public long getDeletes() {
+        return deletes.sum();
     }
 
     private static String human(long bytes) {
@@ -143,15 +241,12 @@ public class InstrumentedPbbClient implements PbbClient {
 
     public String prettySummary() {
         StringBuilder sb = new StringBuilder();
-        sb.append("=== PBB comms ===\n");
-        long up, down, pub, fet, del;
-        synchronized (this) {
-            up = bytesSent;
-            down = bytesReceived;
-            pub = publishes;
-            fet = fetches;
-            del = deletes;
-        }
+        sb.append("=== PBB comms");
+        if (metrics != null)
+            sb.append(" [").append(metrics.getSession()).append(']');
+        sb.append(wireReported ? " (wire bytes) ===\n" : " (sized by codec) ===\n");
+        long up = bytesSent.sum(), down = bytesReceived.sum();
+        long pub = publishes.sum(), fet = fetches.sum(), del = deletes.sum();
         sb.append(String.format("Publishes: %d | Fetches: %d | Deletes: %d%n", pub, fet, del));
         sb.append(String.format("Up: %s | Down: %s%n", human(up), human(down)));
 
@@ -162,18 +257,10 @@ public class InstrumentedPbbClient implements PbbClient {
         byTopic.entrySet().stream()
                 .sorted(Comparator.comparing(Map.Entry::getKey))
                 .forEach(e -> {
-                    String topic = e.getKey();
                     TopicStats s = e.getValue();
-                    long p, f, d, u, dn;
-                    synchronized (s) {
-                        p = s.pub;
-                        f = s.fetch;
-                        d = s.del;
-                        u = s.upBytes;
-                        dn = s.downBytes;
-                    }
                     sb.append(String.format("%-24s %8d %8d %8d %12s %12s%n",
-                            topic, p, f, d, human(u), human(dn)));
+                            e.getKey(), s.pub.sum(), s.fetch.sum(), s.del.sum(),
+                            human(s.upBytes.sum()), human(s.downBytes.sum())));
                 });
 
         // quick useful ratios
@@ -2,6 +2,10 @@ package org.example.napdkg.client;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public final class NetShimPbb implements PbbClient {
     private final PbbClient base;
@@ -20,12 +24,16 @@ public final class NetShimPbb implements PbbClient {
     }
 
     private long sleepWithJitter1(long bytes) throws InterruptedException {
-        double eps = (rnd.nextDouble() * 2 - 1) * (jitterPct / 100.0);
-        long delay = Math.max(0L, Math.round(latencyMs * (1.0 + eps)));
+        long delay = jitteredDelayMs();
         Thread.sleep(delay);
         return delay;
     }
 
+    private long jitteredDelayMs() {
+        double eps = (rnd.nextDouble() * 2 - 1) * (jitterPct / 100.0);
+        return Math.max(0L, Math.round(latencyMs * (1.0 + eps)));
+    }
+
     @Override
     public void publish(String topic, Object dto) throws Exception {
         int sz = (dto == null) ? 0
@@ -44,6 +52,55 @@ public final class NetShimPbb implements PbbClient {
         return base.fetch(topic, clazz);
     }
 
+    @Override
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) throws Exception {
+        long d = sleepWithJitter1(0);
+        fetchCalls++;
+        fetchDelayMs += d;
+        return base.fetchSince(topic, cursor, clazz);
+    }
+
+    @Override
+    public List<String> fetchIds(String topic) throws Exception {
+        long d = sleepWithJitter1(0);
+        fetchCalls++;
+        fetchDelayMs += d;
+        return base.fetchIds(topic);
+    }
+
+    /**
+     * Forwards the base board's pushes, each delivered one jittered latency
+     * after it was published, on a per-subscription thread (order kept,
+     * publisher not blocked).
+     */
+    @Override
+    public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+        if (latencyMs <= 0)
+            return base.subscribe(topic, clazz, listener);
+        ExecutorService lane = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "NetShim-" + topic);
+            t.setDaemon(true);
+            return t;
+        });
+        Subscription sub = base.subscribe(topic, clazz, item -> {
+            long due = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(jitteredDelayMs());
+            lane.execute(() -> {
+                try {
+                    long left = due - System.nanoTime();
+                    if (left > 0)
+                        TimeUnit.NANOSECONDS.sleep(left);
+                    listener.accept(item);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        });
+        return () -> {
+            sub.close();
+            lane.shutdownNow();
+        };
+    }
+
     @Override
     public void delete(String topic, String id) throws Exception {
         long d = sleepWithJitter1(0);
@@ -52,6 +109,11 @@ public final class NetShimPbb implements PbbClient {
         base.delete(topic, id);
     }
 
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        return base.reportTraffic(listener);
+    }
+
     // expose stats
     public String latencySummary() {
         double ap = pubCalls == 0 ? 0 : (pubDelayMs * 1.0 / pubCalls);
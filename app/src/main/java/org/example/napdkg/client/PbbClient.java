@@ -1,11 +1,15 @@
 package org.example.napdkg.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * A very thin “bulletin‐board” client abstraction.
- * RoundOneService only ever calls these two methods.
+ * RoundOneService only ever calls these two methods; pollers use the
+ * incremental {@link #fetchSince} / {@link #fetchIds}, waiters
+ * {@link #subscribe}.
  */
 public interface PbbClient {
         void publish(String topic, Object msg)
@@ -22,4 +26,65 @@ public interface PbbClient {
 
         void delete(String topic, String id) throws Exception;
 
+        /** Cursor before the first entry of any topic. */
+        long START = 0L;
+
+        /**
+         * Entries published to {@code topic} after {@code cursor}. Pass
+         * {@link #START} first, then the returned cursor; each poll then costs
+         * the new entries only.
+         *
+         * Default: full fetch, skipping the first {@code cursor} entries.
+         */
+        default <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz)
+                        throws Exception {
+                List<T> all = fetch(topic, clazz);
+                int from = (int) Math.min(Math.max(cursor, 0L), all.size());
+                return new FetchResult<>(new ArrayList<>(all.subList(from, all.size())), all.size());
+        }
+
+        /**
+         * Ids-only manifest of a topic, in publication order.
+         *
+         * Default: full fetch, projected to the "id" field.
+         */
+        default List<String> fetchIds(String topic) throws Exception {
+                List<IdOnly> all = fetch(topic, IdOnly.class);
+                List<String> ids = new ArrayList<>(all.size());
+                for (IdOnly e : all)
+                        ids.add(e.id);
+                return ids;
+        }
+
+        /**
+         * Delivers every entry of {@code topic} — those already posted, then each
+         * new one as it arrives — to {@code listener}, in publication order, until
+         * the returned subscription is closed. Listeners should be quick (record
+         * and signal); they may run on the publisher's thread.
+         *
+         * Default: a background thread polling {@link #fetchSince}.
+         */
+        default <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+                return PollingSubscription.start(this, topic, clazz, listener,
+                                PollingSubscription.DEFAULT_INTERVAL_MS);
+        }
+
+        /**
+         * Asks this client to report its wire bytes to {@code listener},
+         * replacing any listener set before. Wrappers pass the call on to the
+         * client they wrap.
+         *
+         * Default: no wire to measure.
+         *
+         * @return whether traffic will be reported; if not, callers have to
+         *         size messages themselves
+         */
+        default boolean reportTraffic(TrafficListener listener) {
+                return false;
+        }
+
+        /** Projection used by the default {@link #fetchIds}. */
+        final class IdOnly {
+                public String id;
+        }
 }
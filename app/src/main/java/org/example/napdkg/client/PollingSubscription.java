@@ -0,0 +1,82 @@
+package org.example.napdkg.client;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Subscription for boards that cannot push: a daemon thread pulls
+ * {@link PbbClient#fetchSince} every few milliseconds and hands each new
+ * entry to the listener, in publication order. Fetch errors are retried on
+ * the next round; a listener that throws gets the same entry again then,
+ * and the entries before it are not repeated.
+ */
+final class PollingSubscription<T> implements Subscription {
+    static final long DEFAULT_INTERVAL_MS = 20;
+
+    private final PbbClient pbb;
+    private final String topic;
+    private final Class<T> clazz;
+    private final Consumer<? super T> listener;
+    private final long intervalMs;
+    private final Thread worker;
+    private volatile boolean open = true;
+
+    private PollingSubscription(PbbClient pbb, String topic, Class<T> clazz,
+            Consumer<? super T> listener, long intervalMs) {
+        this.pbb = pbb;
+        this.topic = topic;
+        this.clazz = clazz;
+        this.listener = listener;
+        this.intervalMs = intervalMs;
+        this.worker = new Thread(this::run, "PbbSubscription-" + topic);
+        this.worker.setDaemon(true);
+    }
+
+    static <T> Subscription start(PbbClient pbb, String topic, Class<T> clazz,
+            Consumer<? super T> listener, long intervalMs) {
+        PollingSubscription<T> s = new PollingSubscription<>(pbb, topic, clazz, listener, intervalMs);
+        s.worker.start();
+        return s;
+    }
+
+    private void run() {
+        long cursor = PbbClient.START;
+        // a page the listener failed on, and the entry to resume it at
+        FetchResult<T> page = null;
+        int next = 0;
+        while (open) {
+            try {
+                if (page == null) {
+                    page = pbb.fetchSince(topic, cursor, clazz);
+                    next = 0;
+                }
+                List<T> items = page.getItems();
+                while (next < items.size()) {
+                    if (!open)
+                        return;
+                    listener.accept(items.get(next));
+                    next++;
+                }
+                cursor = page.getCursor();
+                page = null;
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                // board unreachable, bad page or listener failure: try again
+                // next round, resuming a page at the entry that failed
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        worker.interrupt();
+    }
+}
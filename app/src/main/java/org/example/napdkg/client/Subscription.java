@@ -0,0 +1,10 @@
+package org.example.napdkg.client;
+
+/**
+ * Handle for a {@link PbbClient#subscribe} registration; closing it stops
+ * delivery. Idempotent.
+ */
+public interface Subscription extends AutoCloseable {
+    @Override
+    void close();
+}
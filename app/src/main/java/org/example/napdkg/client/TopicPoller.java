@@ -2,86 +2,111 @@ package org.example.napdkg.client;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
+/**
+ * Local mirror of one PBB topic, fed by {@link PbbClient#subscribe}: entries
+ * are de-duplicated by id and kept in arrival order, and waiters wake as soon
+ * as a matching entry arrives instead of on a timer.
+ */
 public class TopicPoller<T> implements AutoCloseable {
     private final PbbClient pbb;
-    private String topic = "";
+    private final String topic;
     private final Class<T> clazz;
     private final Function<T, String> idFn;
-    private final long pollMs;
 
-    private final ConcurrentMap<String, T> cache = new ConcurrentHashMap<>();
+    // guarded by this
+    private final Map<String, T> cache = new HashMap<>();
+    private final List<T> arrivals = new ArrayList<>();
+
     private final AtomicBoolean running = new AtomicBoolean(false);
-    private final ScheduledExecutorService ses = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "TopicPoller-" + topic);
-        t.setDaemon(true);
-        return t;
-    });
+    private volatile Subscription sub;
 
+    /**
+     * @param pollMs unused; entries are pushed (boards without push are polled
+     *               by {@link PbbClient#subscribe}'s default)
+     */
     public TopicPoller(PbbClient pbb, String topic, Class<T> clazz,
             Function<T, String> idFn, long pollMs) {
         this.pbb = Objects.requireNonNull(pbb);
         this.topic = Objects.requireNonNull(topic);
         this.clazz = Objects.requireNonNull(clazz);
         this.idFn = Objects.requireNonNull(idFn);
-        this.pollMs = pollMs;
     }
 
     public void start() {
         if (running.compareAndSet(false, true)) {
-            ses.scheduleWithFixedDelay(this::tick, 0, pollMs, TimeUnit.MILLISECONDS);
+            sub = pbb.subscribe(topic, clazz, this::onEntry);
         }
     }
 
-    private void tick() {
-        if (!running.get())
+    private void onEntry(T it) {
+        String id = idFn.apply(it);
+        if (id == null)
             return;
-        try {
-            List<T> items = pbb.fetch(topic, clazz);
-            for (T it : items) {
-                String id = idFn.apply(it);
-                if (id != null)
-                    cache.putIfAbsent(id, it);
+        synchronized (this) {
+            if (cache.putIfAbsent(id, it) == null) {
+                arrivals.add(it);
+                notifyAll();
             }
-        } catch (Exception e) {
-            // swallow and try again later
         }
     }
 
-    /** Immutable snapshot of all items seen so far. */
-    public List<T> snapshot() {
-        return Collections.unmodifiableList(new ArrayList<>(cache.values()));
+    /** Immutable snapshot of all items seen so far, in arrival order. */
+    public synchronized List<T> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(arrivals));
     }
 
     /** Current number of distinct items. */
-    public int size() {
-        return cache.size();
+    public synchronized int size() {
+        return arrivals.size();
     }
 
     /** Block until at least k items are cached (or timeout). */
-    public boolean awaitAtLeast(int k, long timeoutMs) throws InterruptedException {
+    public synchronized boolean awaitAtLeast(int k, long timeoutMs) throws InterruptedException {
         long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
-        while (size() < k) {
+        while (arrivals.size() < k) {
             long left = deadline - System.nanoTime();
             if (left <= 0)
                 return false;
-            Thread.sleep(Math.min(50, TimeUnit.NANOSECONDS.toMillis(left)));
+            TimeUnit.NANOSECONDS.timedWait(this, left);
         }
         return true;
     }
 
+    /**
+     * Block until an item matching {@code match} has arrived (or timeout).
+     *
+     * @return the first such item in arrival order, or null on timeout
+     */
+    public synchronized T awaitFirst(Predicate<? super T> match, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        int scanned = 0;
+        while (true) {
+            for (; scanned < arrivals.size(); scanned++) {
+                T it = arrivals.get(scanned);
+                if (match.test(it))
+                    return it;
+            }
+            long left = deadline - System.nanoTime();
+            if (left <= 0)
+                return null;
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+    }
+
     public void stop() {
         running.set(false);
-        ses.shutdownNow();
+        Subscription s = sub;
+        if (s != null)
+            s.close();
     }
 
     @Override
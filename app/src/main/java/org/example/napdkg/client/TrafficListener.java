@@ -0,0 +1,16 @@
+package org.example.napdkg.client;
+
+/**
+ * Told by a transport what it actually moved: request and response body
+ * bytes for HTTP, stored bytes for a TopicStore, codec output for a
+ * {@link CodecPbbClient} over an in-memory board. Attach one with
+ * {@link PbbClient#reportTraffic}. Called on whichever thread did the I/O;
+ * implementations must be thread-safe and cheap.
+ */
+public interface TrafficListener {
+        /** bytes posted to topic, carrying msgs messages */
+        void sent(String topic, long bytes, int msgs);
+
+        /** bytes read from topic, carrying msgs messages (0 for an id manifest) */
+        void received(String topic, long bytes, int msgs);
+}
@@ -0,0 +1,87 @@
+package org.example.napdkg.client;
+
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.Gson;
+
+/**
+ * How a message is turned into bytes on the board. {@link #json(Gson)} is
+ * what every PbbClient did so far; {@code dto.BinaryCodec} is the compact
+ * form for the DKG messages. Select one per client with
+ * {@link CodecPbbClient}.
+ */
+public interface WireCodec {
+        /** @return msg's bytes, positioned at 0 */
+        ByteBuffer encode(Object msg);
+
+        /** Reads one message from buf's remaining bytes. */
+        <T> T decode(ByteBuffer buf, Class<T> clazz);
+
+        /** @return the encoded size of msg, in bytes */
+        default int size(Object msg) {
+                return encode(msg).remaining();
+        }
+
+        /** UTF-8 JSON, as posted to json-server. */
+        static WireCodec json(Gson gson) {
+                return new Json(gson);
+        }
+
+        final class Json implements WireCodec {
+                private final Gson gson;
+
+                Json(Gson gson) {
+                        this.gson = gson;
+                }
+
+                @Override
+                public ByteBuffer encode(Object msg) {
+                        return ByteBuffer.wrap(gson.toJson(msg).getBytes(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public <T> T decode(ByteBuffer buf, Class<T> clazz) {
+                        return gson.fromJson(StandardCharsets.UTF_8.decode(buf).toString(), clazz);
+                }
+
+                /** Streams the JSON into a byte counter; nothing is buffered. */
+                @Override
+                public int size(Object msg) {
+                        Utf8Counter n = new Utf8Counter();
+                        gson.toJson(msg, n);
+                        return (int) n.bytes;
+                }
+        }
+
+        /** Counts the UTF-8 length of what is written to it. */
+        final class Utf8Counter extends Writer {
+                long bytes;
+
+                @Override
+                public void write(int c) {
+                        bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate((char) c) ? 2 : 3;
+                }
+
+                @Override
+                public void write(char[] buf, int off, int len) {
+                        for (int i = off; i < off + len; i++)
+                                write(buf[i]);
+                }
+
+                @Override
+                public void write(String s, int off, int len) {
+                        for (int i = off; i < off + len; i++)
+                                write(s.charAt(i));
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+        }
+}
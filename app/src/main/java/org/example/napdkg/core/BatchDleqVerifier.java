@@ -0,0 +1,173 @@
+package org.example.napdkg.core;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.MultiScalarMul;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batch verification of DLEQ proofs (x = [α]·G, y = [α]·h) in the v2
+ * commitment format (a₁, a₂, z).
+ *
+ * Each proof i must satisfy
+ *
+ * [z_i]·G + [e_i]·x_i − a₁_i = 𝒪 and [z_i]·h_i + [e_i]·y_i − a₂_i = 𝒪
+ *
+ * With fresh random 128-bit weights ρ_i, σ_i the batch checks the single
+ * equation
+ *
+ * [Σ ρ_i z_i]·G + Σ ( [ρ_i e_i]·x_i − [ρ_i]·a₁_i + [σ_i z_i]·h_i
+ * + [σ_i e_i]·y_i − [σ_i]·a₂_i ) = 𝒪
+ *
+ * as one MSM (G goes through the fixed-base table, equal h_i — e.g. EQ1 in
+ * the Q2 check — collapse into one term). A false proof slips through with
+ * probability ≤ 2⁻¹²⁸. If the batch fails it is bisected, so k bad proofs
+ * out of m cost O(k·log m) batches instead of m single verifications.
+ *
+ * v1 (e, z) proofs carry no commitments and are verified one by one.
+ */
+public final class BatchDleqVerifier {
+    private static final Logger log = LoggerFactory.getLogger(BatchDleqVerifier.class);
+
+    static final int WEIGHT_BITS = 128;
+    private static final SecureRandom RNG = new SecureRandom();
+
+    private BatchDleqVerifier() {
+        /* no-op */ }
+
+    /** One DLEQ claim: proof that log_G(x) = log_h(y). */
+    public static final class Statement {
+        final ECPoint x;
+        final ECPoint h;
+        final ECPoint y;
+        final NizkDlEqProof proof;
+
+        public Statement(ECPoint x, ECPoint h, ECPoint y, NizkDlEqProof proof) {
+            this.x = x;
+            this.h = h;
+            this.y = y;
+            this.proof = proof;
+        }
+    }
+
+    /** A v2/v3 statement with normalized points and its recomputed challenge. */
+    private static final class Prepared {
+        final int index;
+        final ECPoint x, h, y, a1, a2;
+        final BigInteger z, e;
+
+        Prepared(DkgContext ctx, int index, Statement st) {
+            this.index = index;
+            this.x = st.x.normalize();
+            this.h = st.h.normalize();
+            this.y = st.y.normalize();
+            this.a1 = st.proof.getA1().normalize();
+            this.a2 = st.proof.getA2().normalize();
+            this.z = st.proof.getResponse();
+            this.e = NizkDlEqProof.challenge(ctx, st.proof.getVersion(), x, h, y, a1, a2);
+        }
+
+        boolean verifySingle(DkgContext ctx) {
+            return MultiScalarMul.sumOfTwo(ctx.getGenerator(), z, x, e).normalize().equals(a1)
+                    && MultiScalarMul.sumOfTwo(h, z, y, e).normalize().equals(a2);
+        }
+    }
+
+    /**
+     * @param ctx        DHPVSS context
+     * @param statements claims to check
+     * @return ok[i] iff statements.get(i) verifies (same answer as
+     *         {@link NizkDlEqProof#verifyProof})
+     */
+    public static boolean[] verify(DkgContext ctx, List<Statement> statements) {
+        boolean[] ok = new boolean[statements.size()];
+        List<Prepared> batch = new ArrayList<>(statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            Statement st = statements.get(i);
+            if (!NizkDlEqProof.carriesCommitments(st.proof.getVersion())) {
+                ok[i] = NizkDlEqProof.verifyProof(ctx, st.x, st.h, st.y, st.proof);
+                continue;
+            }
+            batch.add(new Prepared(ctx, i, st));
+        }
+        check(ctx, batch, 0, batch.size(), ok);
+        return ok;
+    }
+
+    /** @return true iff every statement verifies */
+    public static boolean verifyAll(DkgContext ctx, List<Statement> statements) {
+        for (boolean b : verify(ctx, statements))
+            if (!b)
+                return false;
+        return true;
+    }
+
+    private static void check(DkgContext ctx, List<Prepared> items, int lo, int hi, boolean[] ok) {
+        if (lo >= hi)
+            return;
+        if (hi - lo == 1) {
+            Prepared it = items.get(lo);
+            ok[it.index] = it.verifySingle(ctx);
+            return;
+        }
+        if (combinationHolds(ctx, items, lo, hi)) {
+            for (int i = lo; i < hi; i++)
+                ok[items.get(i).index] = true;
+            return;
+        }
+        log.debug("DLEQ batch [{}, {}) failed, bisecting", lo, hi);
+        int mid = (lo + hi) >>> 1;
+        check(ctx, items, lo, mid, ok);
+        check(ctx, items, mid, hi, ok);
+    }
+
+    private static boolean combinationHolds(DkgContext ctx, List<Prepared> items, int lo, int hi) {
+        BigInteger p = ctx.getOrder();
+        BigInteger gCoeff = BigInteger.ZERO;
+        Map<ECPoint, BigInteger> hCoeff = new HashMap<>();
+        List<ECPoint> pts = new ArrayList<>(4 * (hi - lo) + 1);
+        List<BigInteger> ks = new ArrayList<>(4 * (hi - lo) + 1);
+
+        for (int i = lo; i < hi; i++) {
+            Prepared it = items.get(i);
+            BigInteger rho = weight();
+            BigInteger sigma = weight();
+
+            gCoeff = gCoeff.add(rho.multiply(it.z));
+            hCoeff.merge(it.h, sigma.multiply(it.z), BigInteger::add);
+
+            pts.add(it.x);
+            ks.add(rho.multiply(it.e).mod(p));
+            pts.add(it.a1.negate());
+            ks.add(rho);
+            pts.add(it.y);
+            ks.add(sigma.multiply(it.e).mod(p));
+            pts.add(it.a2.negate());
+            ks.add(sigma);
+        }
+        for (Map.Entry<ECPoint, BigInteger> h : hCoeff.entrySet()) {
+            pts.add(h.getKey());
+            ks.add(h.getValue().mod(p));
+        }
+
+        ECPoint sum = MultiScalarMul.sum(pts.toArray(new ECPoint[0]), ks.toArray(new BigInteger[0]))
+                .add(ctx.multiplyG(gCoeff.mod(p)));
+        return sum.isInfinity();
+    }
+
+    private static BigInteger weight() {
+        BigInteger w;
+        do {
+            w = new BigInteger(WEIGHT_BITS, RNG);
+        } while (w.signum() == 0);
+        return w;
+    }
+}
@@ -57,9 +57,6 @@ public class DhKeyPair {
 
         // p = order of the curve group 𝔾
         BigInteger p = ctx.getGroupParameters().getgroupOrd();
-        // G = fixed generator point in 𝔾
-        ECPoint G = ctx.getGenerator();
-
         // pick sk ∈ {1,...,p−1}
         BigInteger sk;
         do {
@@ -67,7 +64,7 @@ public class DhKeyPair {
         } while (sk.compareTo(p) >= 0);
 
         // PK = sk · G
-        ECPoint PK = G.multiply(sk).normalize();
+        ECPoint PK = ctx.multiplyG(sk).normalize();
 
         return new DhKeyPair(sk, PK);
     }
@@ -0,0 +1,228 @@
+package org.example.napdkg.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.TopicPoller;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the whole DKG as dataflow instead of phase barriers: every party is
+ * one chain of {@link Stage}s on the waiter executor, and each stage starts
+ * as soon as that party's own inputs are on the board. A party deals once
+ * it has all n keys, verifies dealers in PBB order as they arrive
+ * ({@link VerificationPhase#verifyInArrivalOrder}), publishes Θ once
+ * its Q1 is final and reconstructs once t+fa Θ are up, whatever the other
+ * parties are doing.
+ *
+ * Each party's stage times are kept, so the run's latency can be read as
+ * the slowest party's path rather than the sum of the phase maxima.
+ */
+public class DkgRunner {
+    private static final Logger log = LoggerFactory.getLogger(DkgRunner.class);
+
+    /** Stages of one party, in order; each is timed when it ends. */
+    public enum Stage {
+        KEY_PUBLISHED, KEYS_READY, DEALT, Q1_FINAL, THETA_PUBLISHED, DONE
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final long WAIT_LOG_MS = 10_000;
+
+    private final PbbClient pbb;
+    private final Executor waiters;
+
+    /**
+     * @param pbb     the board the parties share (for the shared key and
+     *                dealer mirrors)
+     * @param waiters runs the parties; they block on the board, so give each
+     *                its own thread (e.g. {@link PartyRuntime#waiters()})
+     */
+    public DkgRunner(PbbClient pbb, Executor waiters) {
+        this.pbb = pbb;
+        this.waiters = waiters;
+    }
+
+    /** When each stage of one party ended, in ns since the run started. */
+    public static final class Timeline {
+        public final int party;
+        private final long start;
+        private final long[] at = new long[STAGES.length];
+
+        Timeline(int party, long start) {
+            this.party = party;
+            this.start = start;
+        }
+
+        void mark(Stage s) {
+            at[s.ordinal()] = System.nanoTime() - start;
+        }
+
+        /** @return when stage s ended, in ms since the run started */
+        public double atMs(Stage s) {
+            return at[s.ordinal()] / 1_000_000.0;
+        }
+
+        /** @return how long this party spent in stage s */
+        public double stageMs(Stage s) {
+            int i = s.ordinal();
+            return (at[i] - (i == 0 ? 0 : at[i - 1])) / 1_000_000.0;
+        }
+
+        public double totalMs() {
+            return atMs(Stage.DONE);
+        }
+    }
+
+    public static final class Result {
+        private final List<Timeline> timelines;
+        private final double wallMs;
+
+        Result(List<Timeline> timelines, double wallMs) {
+            this.timelines = timelines;
+            this.wallMs = wallMs;
+        }
+
+        public List<Timeline> timelines() {
+            return timelines;
+        }
+
+        public double wallMs() {
+            return wallMs;
+        }
+
+        /** @return the longest time any party spent in stage s */
+        public double longestMs(Stage s) {
+            double max = 0;
+            for (Timeline tl : timelines)
+                max = Math.max(max, tl.stageMs(s));
+            return max;
+        }
+
+        /** @return the party that finished last: the critical path */
+        public Timeline slowest() {
+            return timelines.stream().max(Comparator.comparingDouble(Timeline::totalMs)).orElseThrow();
+        }
+
+        /** @return what barriers between the stages would have cost at least */
+        public double sumOfStageMaximaMs() {
+            double sum = 0;
+            for (Stage s : STAGES)
+                sum += longestMs(s);
+            return sum;
+        }
+
+        public String summary() {
+            Timeline slow = slowest();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("=== DkgRunner: %d parties in %.1f ms; slowest party %d (%.1f ms); "
+                    + "sum of stage maxima %.1f ms ===%n", timelines.size(), wallMs, slow.party, slow.totalMs(),
+                    sumOfStageMaximaMs()));
+            sb.append(String.format("%-16s %10s %10s %14s%n", "stage", "median", "max", "slowest party"));
+            for (Stage s : STAGES) {
+                double[] d = timelines.stream().mapToDouble(tl -> tl.stageMs(s)).sorted().toArray();
+                sb.append(String.format("%-16s %10.1f %10.1f %14.1f%n", s, d[d.length / 2], d[d.length - 1],
+                        slow.stageMs(s)));
+            }
+            return sb.toString();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs all parties to the end. The first party to fail ends the run at
+     * once, without waiting on parties that now block for its output; the
+     * others are cancelled.
+     *
+     * @throws Exception the first failing party's exception, as thrown
+     */
+    public Result run(List<PartyContext> parties) throws Exception {
+        int n = parties.size();
+        long start = System.nanoTime();
+        List<CompletableFuture<Timeline>> runs = new ArrayList<>(n);
+        try (TopicPoller<EphemeralKeyDTO> keys = new TopicPoller<>(pbb, EphemeralKeyDirectory.TOPIC,
+                EphemeralKeyDTO.class, dto -> dto.id, 0);
+                TopicPoller<SharingOutputDTO> dealers = new TopicPoller<>(pbb, "DealerPublish",
+                        SharingOutputDTO.class, dto -> dto.id, 0)) {
+            keys.start();
+            dealers.start();
+            VerificationPhase.setDealerPoller(dealers);
+
+            // completed by whichever party fails first
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            for (PartyContext P : parties) {
+                CompletableFuture<Timeline> r = party(P, keys, start);
+                r.whenComplete((tl, e) -> {
+                    if (e != null)
+                        failed.completeExceptionally(e);
+                });
+                runs.add(r);
+            }
+            CompletableFuture.anyOf(CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0])), failed).get();
+            List<Timeline> done = new ArrayList<>(n);
+            for (CompletableFuture<Timeline> r : runs)
+                done.add(r.join());
+            return new Result(done, (System.nanoTime() - start) / 1_000_000.0);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            runs.forEach(r -> r.cancel(true));
+            VerificationPhase.setDealerPoller(null);
+        }
+    }
+
+    private CompletableFuture<Timeline> party(PartyContext P, TopicPoller<EphemeralKeyDTO> keys, long start) {
+        Timeline tl = new Timeline(P.id, start);
+        VerificationPhase vp = new VerificationPhase(P);
+        return CompletableFuture
+                .runAsync(stage(tl, Stage.KEY_PUBLISHED, () -> SetupPhasePublisher.publishEphemeralKey(P)), waiters)
+                .thenRunAsync(stage(tl, Stage.KEYS_READY, () -> {
+                    List<EphemeralKeyDTO> dtos = await(keys, P.n, P.id, "ephemeral keys");
+                    P.useEphemeralKeys(P.compute(() -> EphemeralKeyDirectory.load(P.ctx, dtos)));
+                }), waiters)
+                .thenRunAsync(stage(tl, Stage.DEALT, () -> new SharingPhase(P, P.t).runSharingAsDealer()), waiters)
+                .thenRunAsync(stage(tl, Stage.Q1_FINAL, vp::verifyInArrivalOrder), waiters)
+                .thenRunAsync(stage(tl, Stage.THETA_PUBLISHED, vp::publishThresholdOutput), waiters)
+                .thenRunAsync(stage(tl, Stage.DONE, () -> vp.finalReconstruction(vp.getQ1(),
+                        vp.collectAndPruneThresholdOutputs())), waiters)
+                .thenApply(__ -> tl);
+    }
+
+    private static Runnable stage(Timeline tl, Stage s, Step step) {
+        return () -> {
+            try {
+                step.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            tl.mark(s);
+        };
+    }
+
+    private static <T> List<T> await(TopicPoller<T> mirror, int k, int party, String what)
+            throws InterruptedException {
+        while (!mirror.awaitAtLeast(k, WAIT_LOG_MS))
+            log.info("party {} waiting for {} ({}/{})", party, what, mirror.size(), k);
+        return mirror.snapshot();
+    }
+}
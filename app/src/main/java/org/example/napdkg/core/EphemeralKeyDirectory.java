@@ -0,0 +1,161 @@
+package org.example.napdkg.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.util.DkgContext;
+
+/**
+ * The verified ephemeral keys pk_k = (E_k, ς_k) of one session, decoded once.
+ *
+ * Every key's Schnorr proof is checked the first time its (E_k, ς_k) is seen
+ * for a context; later loads (a longer PBB list, another party, another
+ * phase) reuse the verified entry. The latest directory of a session is kept
+ * on its context ({@link DkgContext#memo}), not in static state. Keys are served
+ * • in PBB arrival order — the E array m* and U are defined over,
+ * • by party index — allEphPubs and the Θ_j checks,
+ * • by compressed encoding — a key's position in E.
+ *
+ * Arrays handed out are shared, not copied; callers must not write to them.
+ */
+public final class EphemeralKeyDirectory {
+    public static final String TOPIC = "ephemeralKeys";
+
+    private final PublicKeysWithProofs[] arrival; // PBB order
+    private final ECPoint[] E; // arrival order, affine
+    private final PublicKeysWithProofs[] byParty; // [partyIndex]
+    private final ECPoint[] EByParty; // [partyIndex]
+    private final Map<ByteBuffer, Integer> positionByEncoding;
+    private final Map<String, PublicKeysWithProofs> verified; // wire form → entry
+
+    private EphemeralKeyDirectory(PublicKeysWithProofs[] arrival, int n,
+            Map<String, PublicKeysWithProofs> verified) {
+        this.arrival = arrival;
+        this.verified = verified;
+        this.E = new ECPoint[arrival.length];
+        this.byParty = new PublicKeysWithProofs[n];
+        this.EByParty = new ECPoint[n];
+        this.positionByEncoding = new HashMap<>(arrival.length * 2);
+        for (int k = 0; k < arrival.length; k++) {
+            PublicKeysWithProofs pk = arrival[k];
+            E[k] = pk.getPublicKey();
+            byParty[pk.getPartyIndex()] = pk;
+            EByParty[pk.getPartyIndex()] = pk.getPublicKey();
+            positionByEncoding.putIfAbsent(ByteBuffer.wrap(E[k].getEncoded(true)), k);
+        }
+    }
+
+    /** Fetches the ephemeralKeys topic and {@link #load}s it. */
+    public static EphemeralKeyDirectory fetch(DkgContext ctx, PbbClient pbb) throws Exception {
+        return load(ctx, pbb.fetch(TOPIC, EphemeralKeyDTO.class));
+    }
+
+    /**
+     * Decodes and verifies the posted keys, reusing every entry already
+     * verified for this context.
+     *
+     * @param ctx  session parameters
+     * @param dtos the ephemeralKeys topic in PBB order
+     * @return the directory over exactly these keys
+     * @throws IllegalStateException if a Schnorr proof is invalid or a party
+     *                               index is out of range
+     */
+    public static EphemeralKeyDirectory load(DkgContext ctx, List<EphemeralKeyDTO> dtos) throws Exception {
+        AtomicReference<EphemeralKeyDirectory> latest = latest(ctx);
+        EphemeralKeyDirectory prev = latest.get();
+        if (prev != null && prev.sameAs(dtos))
+            return prev;
+
+        int n = ctx.getNumParticipants();
+        Map<String, PublicKeysWithProofs> known = prev == null ? Collections.emptyMap() : prev.verified;
+        Map<String, PublicKeysWithProofs> verified = new HashMap<>(dtos.size() * 2);
+        PublicKeysWithProofs[] arrival = new PublicKeysWithProofs[dtos.size()];
+        for (int k = 0; k < arrival.length; k++) {
+            EphemeralKeyDTO dto = dtos.get(k);
+            if (dto.partyIndex < 0 || dto.partyIndex >= n)
+                throw new IllegalStateException("ephemeral key for unknown partyIndex=" + dto.partyIndex);
+            String wire = wireKey(dto);
+            PublicKeysWithProofs pk = verified.get(wire);
+            if (pk == null)
+                pk = known.get(wire);
+            if (pk == null) {
+                ECPoint P = ctx.getCurve().decodePoint(Hex.decode(dto.publicKey)).normalize();
+                NizkDlProof prf = NizkDlProof.decode(dto.schnorrProof);
+                if (!NizkDlProof.verifyProof(ctx, P, prf))
+                    throw new IllegalStateException("Invalid Schnorr proof for partyIndex=" + dto.partyIndex);
+                pk = new PublicKeysWithProofs(dto.partyIndex, P, prf);
+            }
+            verified.put(wire, pk);
+            arrival[k] = pk;
+        }
+
+        EphemeralKeyDirectory dir = new EphemeralKeyDirectory(arrival, n, verified);
+        latest.set(dir);
+        return dir;
+    }
+
+    /** @return the session's slot for its most recently loaded directory */
+    private static AtomicReference<EphemeralKeyDirectory> latest(DkgContext ctx) {
+        return ctx.memo(EphemeralKeyDirectory.class, AtomicReference::new);
+    }
+
+    /** @return number of posted keys */
+    public int size() {
+        return arrival.length;
+    }
+
+    /** @return E_0 … E_{size−1} in PBB arrival order (shared) */
+    public ECPoint[] getE() {
+        return E;
+    }
+
+    /** @return E indexed by party index, null where no key was posted (shared) */
+    public ECPoint[] getEByPartyIndex() {
+        return EByParty;
+    }
+
+    /** @return the keys in PBB arrival order (read-only view) */
+    public List<PublicKeysWithProofs> inArrivalOrder() {
+        return Collections.unmodifiableList(Arrays.asList(arrival));
+    }
+
+    /** @return the key of party i, or null if it has not posted one */
+    public PublicKeysWithProofs get(int partyIndex) {
+        return byParty[partyIndex];
+    }
+
+    /** @return the position of P in {@link #getE()}, or −1 */
+    public int positionOf(ECPoint P) {
+        Integer pos = positionByEncoding.get(ByteBuffer.wrap(P.normalize().getEncoded(true)));
+        return pos == null ? -1 : pos;
+    }
+
+    /** allEphPubs view for {@link PartyContext}. */
+    PublicKeysWithProofs[] partyArray() {
+        return byParty;
+    }
+
+    private boolean sameAs(List<EphemeralKeyDTO> dtos) {
+        if (dtos.size() != arrival.length)
+            return false;
+        for (int k = 0; k < arrival.length; k++) {
+            EphemeralKeyDTO dto = dtos.get(k);
+            if (verified.get(wireKey(dto)) != arrival[k])
+                return false;
+        }
+        return true;
+    }
+
+    private static String wireKey(EphemeralKeyDTO dto) {
+        return dto.partyIndex + "|" + dto.publicKey + "|" + dto.schnorrProof;
+    }
+}
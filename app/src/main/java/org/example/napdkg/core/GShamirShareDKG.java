@@ -5,7 +5,10 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.util.ChunkedRange;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.MultiScalarMul;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,10 +36,20 @@ public class GShamirShareDKG {
          * @return an array of Share objects of length n
          */
         public static ShamirSharingResult generateShares(DkgContext ctx, BigInteger secret) {
+            return generateShares(ctx, secret, ctx.getNumParticipants());
+        }
+
+        /**
+         * As {@link #generateShares(DkgContext, BigInteger)}, with the n
+         * fixed-base multiplications A_i = G * a_i split into chunks of at
+         * most chunk recipients on a fork-join pool (see
+         * {@link ChunkedRange}); each chunk is normalized with its own
+         * inversion. chunk ≥ n runs sequentially.
+         */
+        public static ShamirSharingResult generateShares(DkgContext ctx, BigInteger secret, int chunk) {
             int n = ctx.getNumParticipants(); // total # of shares
             int t = ctx.getThreshold(); // polynomial degree
             BigInteger p = ctx.getOrder(); // group order
-            ECPoint G = ctx.getGenerator(); // group generator
             BigInteger[] alpha = ctx.getAlphas(); // alpha[0..n], with alpha[0]=0
 
             // 1) Sample random polynomial m(x) of degree ≤ t, with m(0)=secret
@@ -49,20 +62,18 @@ public class GShamirShareDKG {
             }
 
             // 2) Evaluate m at alpha[1..n], build shares
+            // (forward differences over consecutive α, see DkgUtils.evalAll)
+            BigInteger[] evals = DkgUtils.evalAll(coeffs, alpha, p);
             Share[] out = new Share[n];
-            for (int i = 1; i <= n; i++) {
-                BigInteger x = alpha[i];
-                // Horner’s method for polynomial evaluation
-
-                BigInteger a_i = coeffs[t];
-                for (int j = t - 1; j >= 0; j--) {
-                    a_i = a_i.multiply(x).add(coeffs[j]).mod(p);
-
-                }
-
-                ECPoint A_i = G.multiply(a_i).normalize();
-                out[i - 1] = new Share(a_i, A_i);
-            }
+            ChunkedRange.forEach(n, chunk, (lo, hi) -> {
+                ECPoint[] A = new ECPoint[hi - lo];
+                for (int i = lo; i < hi; i++)
+                    A[i - lo] = ctx.multiplyG(evals[i + 1]);
+                // one inversion for the chunk's A_i instead of one each
+                DkgUtils.normalizeAll(A);
+                for (int i = lo; i < hi; i++)
+                    out[i] = new Share(evals[i + 1], A[i - lo]);
+            });
 
             return new ShamirSharingResult(out, coeffs); //
 
@@ -89,27 +100,15 @@ public class GShamirShareDKG {
                 throw new IllegalArgumentException("share count ≠ indices count");
             }
             BigInteger p = ctx.getOrder();
-            BigInteger[] alphas = ctx.getAlphas(); // [α₀, α₁, …, αₙ]
-            BigInteger x0 = alphas[0]; // interpolate at α₀ so m(α₀)=s
             BigInteger sRec = BigInteger.ZERO;
+            if (shares.length == 0)
+                return sRec;
+            // ℓᵢ = ∏_{j≠i}(α₀−αⱼ)/(αᵢ−αⱼ) mod p, memoized per index set
+            BigInteger[] lambdas = ctx.getLagrange().lambdasAtZero(indices);
 
             for (int k = 0; k < shares.length; k++) {
-                int i = indices[k];
                 BigInteger ai = shares[k].getai();
-                BigInteger lambda = BigInteger.ONE;
-
-                // ℓᵢ = ∏_{j≠i}(α₀−αⱼ)/(αᵢ−αⱼ) mod p
-                for (int m = 0; m < shares.length; m++) {
-                    if (m == k)
-                        continue;
-                    int j = indices[m];
-                    BigInteger num = x0.subtract(alphas[j]).mod(p);
-                    BigInteger den = alphas[i].subtract(alphas[j]).mod(p);
-                    lambda = lambda
-                            .multiply(num)
-                            .multiply(den.modInverse(p))
-                            .mod(p);
-                }
+                BigInteger lambda = lambdas[k];
                 // System.out.printf(
                 // " term i=%d: aᵢ=%s λᵢ=%s aᵢ·λᵢ=%s%n",
                 // i,
@@ -140,51 +139,41 @@ public class GShamirShareDKG {
                 throw new IllegalArgumentException("share count ≠ indices count");
             }
 
-            BigInteger p = ctx.getOrder();
             BigInteger[] alphas = ctx.getAlphas(); // [α₀, α₁, …, αₙ]
-            BigInteger x0 = alphas[0]; // interpolate at α₀
-            ECPoint Srec = ctx.getGenerator()
-                    .getCurve()
-                    .getInfinity();
+            if (shares.length == 0)
+                return ctx.getCurve().getInfinity();
+            ECPoint[] points = new ECPoint[shares.length];
+            // ℓᵢ = ∏_{j≠i}(α₀−αⱼ)/(αᵢ−αⱼ) mod p, memoized per index set
+            BigInteger[] lambdas = ctx.getLagrange().lambdasAtZero(indices);
 
             for (int k = 0; k < shares.length; k++) {
                 int i = indices[k];
                 ECPoint Ai = shares[k].getAiPoint();
-                BigInteger lambda = BigInteger.ONE;
-
-                // ℓᵢ = ∏_{j≠i}(α₀−αⱼ)/(αᵢ−αⱼ) mod p
-                for (int m = 0; m < shares.length; m++) {
-                    if (m == k)
-                        continue;
-                    int j = indices[m];
-                    BigInteger num = x0.subtract(alphas[j]).mod(p);
-                    BigInteger den = alphas[i].subtract(alphas[j]).mod(p);
-                    lambda = lambda
-                            .multiply(num)
-                            .multiply(den.modInverse(p))
-                            .mod(p);
-                }
+                BigInteger lambda = lambdas[k];
                 log.info(String.format(
                         "   • Dealer idx=%d  α_i=%s  → λ_i = %s",
                         i, // zero‐based dealer index
                         alphas[i].toString(16), // α_i in hex
                         lambda.toString(16) // λ_i in hex
                 ));
-                ECPoint termPoint = Ai.multiply(lambda).normalize();
-                log.info(String.format(
-                        "     → A_{%d} = %s\n       so A_{%d}·λ_%d = %s",
-                        i,
-                        Hex.toHexString(Ai.getEncoded(true)),
-                        i, i,
-                        Hex.toHexString(termPoint.getEncoded(true))));
-
-                Srec = Srec.add(Ai.multiply(lambda));
-                log.info(" ⇒ In reconstructSecretEC: final Srec = {}", Hex.toHexString(Srec.getEncoded(true)));
-
+                if (log.isDebugEnabled()) {
+                    ECPoint termPoint = Ai.multiply(lambda).normalize();
+                    log.debug(String.format(
+                            "     → A_{%d} = %s\n       so A_{%d}·λ_%d = %s",
+                            i,
+                            Hex.toHexString(Ai.getEncoded(true)),
+                            i, i,
+                            Hex.toHexString(termPoint.getEncoded(true))));
+                }
+                points[k] = Ai;
             }
+
+            // S = Σ λᵢ·Aᵢ in one multi-scalar multiplication
+            ECPoint Srec = MultiScalarMul.sum(points, lambdas).normalize();
+            log.info(" ⇒ In reconstructSecretEC: final Srec = {}", Hex.toHexString(Srec.getEncoded(true)));
             // System.out.println("⇒ sRec = " + Srec);
 
-            return Srec.normalize();
+            return Srec;
         }
     }
 }
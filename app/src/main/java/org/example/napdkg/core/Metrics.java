@@ -13,25 +13,46 @@ public final class Metrics {
     }
 
     private final EnumMap<Phase, Stat> byPhase = new EnumMap<>(Phase.class);
+    private final String session;
 
     public Metrics() {
+        this("default");
+    }
+
+    /** @param session label of the run these counters belong to */
+    public Metrics(String session) {
+        this.session = session;
         for (Phase p : Phase.values())
             byPhase.put(p, new Stat());
     }
 
-    private Stat stat() {
+    public String getSession() {
+        return session;
+    }
+
+    /** The calling thread's PhaseScope, else OTHER. */
+    private static Phase scoped() {
         Phase p = PhaseScope.current();
-        return byPhase.get(p == null ? Phase.OTHER : p);
+        return p == null ? Phase.OTHER : p;
     }
 
     public void addOut(long bytes, long msgs) {
-        Stat s = stat();
+        addOut(scoped(), bytes, msgs);
+    }
+
+    public void addIn(long bytes, long msgs) {
+        addIn(scoped(), bytes, msgs);
+    }
+
+    /** Explicitly tagged; safe from any thread, pollers included. */
+    public void addOut(Phase phase, long bytes, long msgs) {
+        Stat s = byPhase.get(phase);
         s.bytesOut.add(bytes);
         s.msgsOut.add(msgs);
     }
 
-    public void addIn(long bytes, long msgs) {
-        Stat s = stat();
+    public void addIn(Phase phase, long bytes, long msgs) {
+        Stat s = byPhase.get(phase);
         s.bytesIn.add(bytes);
         s.msgsIn.add(msgs);
     }
@@ -6,7 +6,9 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.FiatShamirTranscript;
 import org.example.napdkg.util.HashingTools;
+import org.example.napdkg.util.MultiScalarMul;
 
 /**
  * Non‑interactive zero‑knowledge proof of equality of discrete logs (DLEQ)
@@ -28,14 +30,58 @@ import org.example.napdkg.util.HashingTools;
  * </ul>
  */
 public class NizkDlEqProof {
-    private final BigInteger challenge; // e ∈ ℤₚ
+    /** (e, z): the challenge travels, the commitments are recomputed. */
+    public static final int V1_CHALLENGE = 1;
+    /** (a₁, a₂, z): the commitments travel, e is recomputed — batchable. */
+    public static final int V2_COMMITMENT = 2;
+    /**
+     * (a₁, a₂, z) as v2, with e from a {@link FiatShamirTranscript} instead
+     * of the PRG — batchable, no PRG.
+     */
+    public static final int V3_TRANSCRIPT = 3;
+    /** Format produced by {@link #generateProof(DkgContext, ECPoint, ECPoint, ECPoint, BigInteger)}. */
+    public static final int DEFAULT_VERSION = V3_TRANSCRIPT;
+
+    private final int version;
+    private final BigInteger challenge; // e ∈ ℤₚ (null for a received v2/v3 proof)
     private final BigInteger response; // z ∈ ℤₚ
+    private final ECPoint a1; // [w]·G (v2/v3 only)
+    private final ECPoint a2; // [w]·h (v2/v3 only)
 
     public NizkDlEqProof(BigInteger challenge, BigInteger response) {
+        this(V1_CHALLENGE, challenge, response, null, null);
+    }
+
+    /** v2 proof as received from the wire; e is derived during verification. */
+    public NizkDlEqProof(ECPoint a1, ECPoint a2, BigInteger response) {
+        this(V2_COMMITMENT, a1, a2, response);
+    }
+
+    /** v2 or v3 proof as received from the wire. */
+    public NizkDlEqProof(int version, ECPoint a1, ECPoint a2, BigInteger response) {
+        this(version, null, response, a1, a2);
+        if (!carriesCommitments(version))
+            throw new IllegalArgumentException("v" + version + " DLEQ proofs carry no commitments");
+    }
+
+    private NizkDlEqProof(int version, BigInteger challenge, BigInteger response, ECPoint a1, ECPoint a2) {
+        this.version = version;
         this.challenge = challenge;
         this.response = response;
+        this.a1 = a1;
+        this.a2 = a2;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    /** @return whether proofs of this version carry (a₁, a₂) rather than e */
+    public static boolean carriesCommitments(int version) {
+        return version == V2_COMMITMENT || version == V3_TRANSCRIPT;
+    }
+
+    /** @return e, or null for a v2/v3 proof that was decoded rather than generated */
     public BigInteger getChallenge() {
         return challenge;
     }
@@ -44,8 +90,20 @@ public class NizkDlEqProof {
         return response;
     }
 
+    /** @return a₁ = [w]·G (v2/v3), null for v1 */
+    public ECPoint getA1() {
+        return a1;
+    }
+
+    /** @return a₂ = [w]·h (v2/v3), null for v1 */
+    public ECPoint getA2() {
+        return a2;
+    }
+
     @Override
     public String toString() {
+        if (carriesCommitments(version))
+            return "NizkDlEqProof{v" + version + ", a1=" + a1 + ", a2=" + a2 + ", z=" + response + "}";
         return "NizkDlEqProof{e=" + challenge + ", z=" + response + "}";
     }
 
@@ -73,7 +131,7 @@ public class NizkDlEqProof {
      * @param x     = [α]·G ∈ 𝔾
      * @param y     = [α]·h ∈ 𝔾
      * @param alpha secret α ∈ ℤₚ
-     * @return challenge/response pair (e,z)
+     * @return proof in {@link #DEFAULT_VERSION} format
      */
     public static NizkDlEqProof generateProof(
             DkgContext ctx,
@@ -81,8 +139,23 @@ public class NizkDlEqProof {
             ECPoint h,
             ECPoint y,
             BigInteger alpha) {
+        return generateProof(ctx, x, h, y, alpha, DEFAULT_VERSION);
+    }
+
+    /**
+     * As above, in an explicit wire format ({@link #V1_CHALLENGE} or
+     * {@link #V2_COMMITMENT}).
+     */
+    public static NizkDlEqProof generateProof(
+            DkgContext ctx,
+            ECPoint x,
+            ECPoint h,
+            ECPoint y,
+            BigInteger alpha,
+            int version) {
+        if (version != V1_CHALLENGE && !carriesCommitments(version))
+            throw new IllegalArgumentException("unknown DLEQ proof version " + version);
         BigInteger p = ctx.getOrder();
-        ECPoint G = ctx.getGenerator();
 
         // 1) random w ∈ [1, p−1]
         BigInteger w;
@@ -93,40 +166,30 @@ public class NizkDlEqProof {
         // System.out.println(" [DLEQ] w = " + w.toString(16));
 
         // 2) commitments a1 = w·G, a2 = w·h
-        ECPoint a1 = G.multiply(w).normalize();
+        ECPoint a1 = ctx.multiplyG(w).normalize();
         ECPoint a2 = h.multiply(w).normalize();
         // System.out.println(" [DLEQ] a1 = " + a1);
         // System.out.println(" [DLEQ] a2 = " + a2);
 
-        // 3) H = Hash(G, x, h, y, a1, a2) mod p
-        BigInteger H = HashingTools
-                .hashElements(ctx, G, x, h, y, a1, a2)
-                .mod(p);
-        // System.out.println(" [DLEQ] H = " + H.toString(16));
-        // 4) challenge e ← PRG(H) in [1, p−1]
-        SecureRandom prg;
-        try {
-            prg = SecureRandom.getInstance("SHA1PRNG");
-        } catch (NoSuchAlgorithmException ex) {
-            throw new RuntimeException("SHA1PRNG unavailable", ex);
-        }
-        prg.setSeed(H.toByteArray());
-        BigInteger e;
-        do {
-            e = new BigInteger(p.bitLength(), prg);
-        } while (e.signum() == 0 || e.compareTo(p) >= 0);
+        // 3)+4) v1, v2: e ← PRG(Hash(G, x, h, y, a1, a2) mod p)
+        // v3: e = transcript("dleq"; G, x, h, y, a1, a2) mod p
+        BigInteger e = challenge(ctx, version, x, h, y, a1, a2);
         // System.out.println(" [DLEQ] e = " + e.toString(16));
 
         // 5) z = w − e·α mod p
         BigInteger z = w.subtract(e.multiply(alpha)).mod(p);
         // System.out.println(" [DLEQ] z = " + z.toString(16));
 
+        if (carriesCommitments(version))
+            return new NizkDlEqProof(version, e, z, a1, a2);
         return new NizkDlEqProof(e, z);
     }
 
     /**
      * Verify a DLEQ proof for x=[α]·G, y=[α]·h.
      *
+     * <p>
+     * v1 (e,z):
      * <ol>
      * <li>a₁' = [z]·G + [e]·x</li>
      * <li>a₂' = [z]·h + [e]·y</li>
@@ -135,11 +198,19 @@ public class NizkDlEqProof {
      * <li>Accept iff e' == e (from proof)</li>
      * </ol>
      *
+     * <p>
+     * v2 (a₁,a₂,z): e ← PRG(Hash(G, x, h, y, a₁, a₂)), accept iff
+     * a₁ == [z]·G + [e]·x and a₂ == [z]·h + [e]·y. The same equations summed
+     * with random weights are what {@link BatchDleqVerifier} checks.
+     *
+     * <p>
+     * v3 (a₁,a₂,z): as v2, with e = transcript("dleq"; G, x, h, y, a₁, a₂).
+     *
      * @param ctx DHPVSS context
      * @param h   secondary base h ∈ 𝔾
      * @param x   public key = [α]·G
      * @param y   aggregate = [α]·h
-     * @param prf proof (e,z)
+     * @param prf proof (e,z) or (a₁,a₂,z)
      * @return true iff proof checks out
      */
     public static boolean verifyProof(
@@ -148,43 +219,80 @@ public class NizkDlEqProof {
             ECPoint h,
             ECPoint y,
             NizkDlEqProof prf) {
-        BigInteger p = ctx.getOrder();
         ECPoint G = ctx.getGenerator();
 
-        BigInteger e = prf.getChallenge();
         BigInteger z = prf.getResponse();
         x = x.normalize();
         h = h.normalize();
         y = y.normalize();
 
+        if (carriesCommitments(prf.getVersion())) {
+            ECPoint a1 = prf.getA1().normalize();
+            ECPoint a2 = prf.getA2().normalize();
+            BigInteger e = challenge(ctx, prf.getVersion(), x, h, y, a1, a2);
+            return MultiScalarMul.sumOfTwo(G, z, x, e).normalize().equals(a1)
+                    && MultiScalarMul.sumOfTwo(h, z, y, e).normalize().equals(a2);
+        }
+
+        BigInteger e = prf.getChallenge();
+
         // 1) a₁' = z·G + e·x
-        ECPoint a1p = G.multiply(z).add(x.multiply(e)).normalize();
+        ECPoint a1p = MultiScalarMul.sumOfTwo(G, z, x, e).normalize();
         // System.out.println(" [DLEQ.verify] recomputed a1′ = " + a1p);
         // a₂' = z·h + e·y
-        ECPoint a2p = h.multiply(z).add(y.multiply(e)).normalize();
+        ECPoint a2p = MultiScalarMul.sumOfTwo(h, z, y, e).normalize();
         // System.out.println(" [DLEQ.verify] recomputed a2′ = " + a2p);
-        // 2) H' = Hash(G,x,h,y,a₁',a₂') mod p
-        BigInteger Hp = HashingTools
-                .hashElements(ctx, G, x, h, y, a1p, a2p)
-                .mod(p);
-        // System.out.println(" [DLEQ.verify] H1′ = " + Hp.toString(16));
+        // 2)+3) e' ← PRG(Hash(G,x,h,y,a₁',a₂') mod p)
+        BigInteger e2 = challengeV1(ctx, x, h, y, a1p, a2p);
+        // System.out.println(" [DLEQ.verify] e′ recomputed = " + e2);
+        // 4) accept iff e2 == e
+        return e2.equals(e);
+
+    }
+
+    /** e for a proof of this version; all points must be normalized. */
+    static BigInteger challenge(DkgContext ctx, int version, ECPoint x, ECPoint h, ECPoint y, ECPoint a1,
+            ECPoint a2) {
+        return version == V3_TRANSCRIPT
+                ? challengeV3(ctx, x, h, y, a1, a2)
+                : challengeV1(ctx, x, h, y, a1, a2);
+    }
+
+    /**
+     * v3: e = SHA-512 transcript over (G, x, h, y, a₁, a₂) mod p.
+     */
+    static BigInteger challengeV3(DkgContext ctx, ECPoint x, ECPoint h, ECPoint y, ECPoint a1, ECPoint a2) {
+        return FiatShamirTranscript.start(ctx, "dleq")
+                .appendPoint("G", ctx.getGenerator())
+                .appendPoint("x", x)
+                .appendPoint("h", h)
+                .appendPoint("y", y)
+                .appendPoint("a1", a1)
+                .appendPoint("a2", a2)
+                .challengeScalar("e");
+    }
 
-        // 3) e' ← PRG(H')
+    /**
+     * v1, v2: e ← PRG(H), H = Hash(G, x, h, y, a₁, a₂) mod p, e ∈ [1, p−1].
+     * All points must be normalized.
+     */
+    static BigInteger challengeV1(DkgContext ctx, ECPoint x, ECPoint h, ECPoint y, ECPoint a1, ECPoint a2) {
+        BigInteger p = ctx.getOrder();
+        BigInteger H = HashingTools
+                .hashElements(ctx, ctx.getGenerator(), x, h, y, a1, a2)
+                .mod(p);
         SecureRandom prg;
         try {
             prg = SecureRandom.getInstance("SHA1PRNG");
         } catch (NoSuchAlgorithmException ex) {
             throw new RuntimeException("SHA1PRNG unavailable", ex);
         }
-        prg.setSeed(Hp.toByteArray());
-        BigInteger e2;
+        prg.setSeed(H.toByteArray());
+        BigInteger e;
         do {
-            e2 = new BigInteger(p.bitLength(), prg);
-        } while (e2.signum() == 0 || e2.compareTo(p) >= 0);
-        // System.out.println(" [DLEQ.verify] e′ recomputed = " + e2);
-        // 4) accept iff e2 == e
-        return e2.equals(e);
-
+            e = new BigInteger(p.bitLength(), prg);
+        } while (e.signum() == 0 || e.compareTo(p) >= 0);
+        return e;
     }
 
 }
@@ -6,14 +6,26 @@ import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.FiatShamirTranscript;
 import org.example.napdkg.util.HashingTools;
+import org.example.napdkg.util.MultiScalarMul;
 
 /**
  * A simple representation of a non-interactive zero-knowledge (NIZK) proof
  * for a discrete-logarithm relation on an elliptic curve.
  * It carries a challenge and a response.
+ *
+ * Wire form (EphemeralKeyDTO.schnorrProof):
+ * • v1: "e|z" — e ← SHA1PRNG(Hash(G, pub, A))
+ * • v2: "v2|e|z" — e = transcript("schnorr"; G, pub, A) mod p
  */
 public class NizkDlProof {
+    public static final int V1 = 1;
+    public static final int V2 = 2;
+    /** Format produced by {@link #generateProof(DkgContext, DhKeyPair)}. */
+    public static final int DEFAULT_VERSION = V2;
+
+    private final int version;
     private final BigInteger challenge;
     private final BigInteger response;
 
@@ -22,10 +34,21 @@ public class NizkDlProof {
      * @param response  the response z = r - e·x mod p
      */
     public NizkDlProof(BigInteger challenge, BigInteger response) {
+        this(V1, challenge, response);
+    }
+
+    public NizkDlProof(int version, BigInteger challenge, BigInteger response) {
+        if (version != V1 && version != V2)
+            throw new IllegalArgumentException("unknown DL proof version " + version);
+        this.version = version;
         this.challenge = challenge;
         this.response = response;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     public BigInteger getChallenge() {
         return challenge;
     }
@@ -34,10 +57,27 @@ public class NizkDlProof {
         return response;
     }
 
+    /** @return "e|z" (v1) or "v2|e|z" (v2), hex */
+    public String encode() {
+        String ez = challenge.toString(16) + "|" + response.toString(16);
+        return version == V1 ? ez : "v" + version + "|" + ez;
+    }
+
+    /** Inverse of {@link #encode()}. */
+    public static NizkDlProof decode(String s) {
+        String[] parts = s.split("\\|");
+        if (parts.length == 2)
+            return new NizkDlProof(V1, new BigInteger(parts[0], 16), new BigInteger(parts[1], 16));
+        if (parts.length == 3 && parts[0].equals("v2"))
+            return new NizkDlProof(V2, new BigInteger(parts[1], 16), new BigInteger(parts[2], 16));
+        throw new IllegalStateException("Bad schnorrProof format");
+    }
+
     @Override
     public String toString() {
         return "NizkDlProof{" +
-                "challenge=" + challenge +
+                "v=" + version +
+                ", challenge=" + challenge +
                 ", response=" + response +
                 '}';
     }
@@ -48,13 +88,17 @@ public class NizkDlProof {
      * Generates a NIZK proof of knowledge of x in pub = x·G via Fiat–Shamir:
      * 1) r ←R [1,p-1]
      * 2) A = r·G
-     * 3) e = Hash(G,pub,A) mod p → seed PRG
+     * 3) e = Hash(G,pub,A) mod p → seed PRG (v1) / transcript (v2)
      * 4) z = r - e·x mod p
      */
     public static NizkDlProof generateProof(DkgContext ctx, DhKeyPair keyPair)
             throws NoSuchAlgorithmException {
+        return generateProof(ctx, keyPair, DEFAULT_VERSION);
+    }
+
+    public static NizkDlProof generateProof(DkgContext ctx, DhKeyPair keyPair, int version)
+            throws NoSuchAlgorithmException {
         BigInteger p = ctx.getOrder();
-        ECPoint G = ctx.getGenerator();
         ECPoint pub = keyPair.getPublic();
         BigInteger x = keyPair.getSecretKey();
 
@@ -63,43 +107,48 @@ public class NizkDlProof {
             r = new BigInteger(p.bitLength(), random);
         } while (r.signum() <= 0 || r.compareTo(p) >= 0);
 
-        ECPoint A = G.multiply(r);
-
-        BigInteger seed = HashingTools.hashElements(ctx, pub, A).mod(p);
-        SecureRandom prg = SecureRandom.getInstance("SHA1PRNG");
-        prg.setSeed(seed.toByteArray());
-
-        BigInteger e;
-        do {
-            e = new BigInteger(p.bitLength(), prg);
-        } while (e.signum() <= 0 || e.compareTo(p) >= 0);
+        ECPoint A = ctx.multiplyG(r);
 
+        BigInteger e = challenge(ctx, version, pub, A);
         BigInteger z = r.subtract(e.multiply(x)).mod(p);
-        return new NizkDlProof(e, z);
+        return new NizkDlProof(version, e, z);
     }
 
     /**
      * Verifies the NIZKDL proof:
-     * A' = z·G + e·pub, then recompute e' = PRG( Hash(G,pub,A') )
+     * A' = z·G + e·pub, then recompute e' from (G,pub,A')
      * and check e' == e.
      */
     public static boolean verifyProof(DkgContext ctx, ECPoint pub, NizkDlProof proof)
             throws NoSuchAlgorithmException {
-        BigInteger p = ctx.getOrder();
-        ECPoint G = ctx.getGenerator();
         BigInteger e = proof.getChallenge();
         BigInteger z = proof.getResponse();
 
-        ECPoint Aprime = G.multiply(z).add(pub.multiply(e));
-        BigInteger seed = HashingTools.hashElements(ctx, pub, Aprime).mod(p);
+        ECPoint Aprime = MultiScalarMul.sumOfTwo(ctx.getGenerator(), z, pub, e);
+        BigInteger e2 = challenge(ctx, proof.getVersion(), pub, Aprime);
+
+        return e2.equals(e);
+    }
+
+    private static BigInteger challenge(DkgContext ctx, int version, ECPoint pub, ECPoint A)
+            throws NoSuchAlgorithmException {
+        BigInteger p = ctx.getOrder();
+        if (version == V2) {
+            return FiatShamirTranscript.start(ctx, "schnorr")
+                    .appendPoint("G", ctx.getGenerator())
+                    .appendPoint("pub", pub)
+                    .appendPoint("A", A)
+                    .challengeScalar("e");
+        }
+
+        BigInteger seed = HashingTools.hashElements(ctx, pub, A).mod(p);
         SecureRandom prg = SecureRandom.getInstance("SHA1PRNG");
         prg.setSeed(seed.toByteArray());
 
-        BigInteger e2;
+        BigInteger e;
         do {
-            e2 = new BigInteger(p.bitLength(), prg);
-        } while (e2.signum() <= 0 || e2.compareTo(p) >= 0);
-
-        return e2.equals(e);
+            e = new BigInteger(p.bitLength(), prg);
+        } while (e.signum() <= 0 || e.compareTo(p) >= 0);
+        return e;
     }
 }
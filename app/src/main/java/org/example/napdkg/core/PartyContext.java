@@ -1,5 +1,8 @@
 package org.example.napdkg.core;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
 import org.example.napdkg.client.PbbClient;
 import org.example.napdkg.util.DkgContext;
 
@@ -8,6 +11,8 @@ public class PartyContext {
     public final int id, n, t, fa;
     public final DkgContext ctx;
     public final PbbClient pbb;
+    // where this party's EC work runs; null runs it on the caller's thread
+    private final PartyRuntime runtime;
 
     // YOUR OWN keypair:
     public DhKeyPair ephKey;
@@ -16,7 +21,14 @@ public class PartyContext {
     // (you only store the public ECPoint + proof part, not their secrets)
     public PublicKeysWithProofs[] allEphPubs;
 
+    // the verified directory allEphPubs is a view of (set once keys are in)
+    private volatile EphemeralKeyDirectory ephKeys;
+
     public PartyContext(int id, DkgContext ctx, PbbClient pbb, int n, int t, int fa) {
+        this(id, ctx, pbb, n, t, fa, null);
+    }
+
+    public PartyContext(int id, DkgContext ctx, PbbClient pbb, int n, int t, int fa, PartyRuntime runtime) {
         this.id = id;
         this.ctx = ctx;
         this.n = n;
@@ -24,6 +36,39 @@ public class PartyContext {
 
         this.fa = fa;
         this.pbb = pbb;
+        this.runtime = runtime;
         this.allEphPubs = new PublicKeysWithProofs[n];
     }
+
+    /** Adopts a verified directory; allEphPubs becomes its by-party array. */
+    public void useEphemeralKeys(EphemeralKeyDirectory dir) {
+        this.ephKeys = dir;
+        this.allEphPubs = dir.partyArray();
+    }
+
+    /**
+     * @return the session's verified ephemeral keys; reloaded from the PBB
+     *         while fewer than n are known
+     */
+    public EphemeralKeyDirectory ephemeralKeys() throws Exception {
+        EphemeralKeyDirectory dir = ephKeys;
+        if (dir == null || dir.size() < n) {
+            dir = EphemeralKeyDirectory.fetch(ctx, pbb);
+            useEphemeralKeys(dir);
+        }
+        return dir;
+    }
+
+    /**
+     * Runs a stretch of EC work for this party: on the runtime's compute pool
+     * if there is one, else right here. Keep PBB waits out of it.
+     */
+    public <T> T compute(Callable<T> work) throws Exception {
+        return runtime == null ? work.call() : runtime.compute(work);
+    }
+
+    /** @return where to run this party's EC work concurrently; the caller's thread if there is no runtime */
+    public Executor computeExecutor() {
+        return runtime == null ? Runnable::run : runtime.computeExecutor();
+    }
 }
@@ -0,0 +1,133 @@
+package org.example.napdkg.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where simulated parties run. Each party is a task on {@link #waiters()},
+ * which may block on the PBB for as long as it likes; the EC work in
+ * between goes through {@link #compute} to a ForkJoinPool with one thread
+ * per core, so n parties never mean n threads doing math at once.
+ *
+ * Waiters are virtual threads where the JDK has them (21+, found
+ * reflectively since the build targets 17); otherwise one small-stack
+ * daemon thread per task, which still reaches thousands of parties since
+ * a waiting party holds only its stack.
+ */
+public final class PartyRuntime implements AutoCloseable {
+    private static final MethodHandle VIRTUAL_PER_TASK = lookupVirtual();
+    private static final long PLATFORM_STACK = 256 * 1024;
+
+    private final ExecutorService waiters;
+    private final ForkJoinPool compute;
+    private final boolean virtual;
+
+    public PartyRuntime() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param computeThreads parallelism of the EC pool */
+    public PartyRuntime(int computeThreads) {
+        ExecutorService v = virtualPerTask();
+        this.virtual = v != null;
+        this.waiters = v != null ? v : Executors.newCachedThreadPool(platformWaiters());
+        this.compute = new ForkJoinPool(computeThreads);
+    }
+
+    private static MethodHandle lookupVirtual() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (ReflectiveOperationException e) {
+            return null; // before JDK 21
+        }
+    }
+
+    private static ExecutorService virtualPerTask() {
+        if (VIRTUAL_PER_TASK == null)
+            return null;
+        try {
+            return (ExecutorService) VIRTUAL_PER_TASK.invoke();
+        } catch (Throwable e) {
+            return null; // e.g. a preview-only JDK run without --enable-preview
+        }
+    }
+
+    private static ThreadFactory platformWaiters() {
+        AtomicInteger next = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(null, r, "party-" + next.getAndIncrement(), PLATFORM_STACK);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** Runs the parties' blocking tasks, one thread (virtual if possible) each. */
+    public ExecutorService waiters() {
+        return waiters;
+    }
+
+    public boolean virtualWaiters() {
+        return virtual;
+    }
+
+    /** The compute pool itself, for work a caller does not wait on right away. */
+    public Executor computeExecutor() {
+        return compute;
+    }
+
+    public int computeThreads() {
+        return compute.getParallelism();
+    }
+
+    /**
+     * Runs work on the compute pool and waits for it; inline if already
+     * there. Exceptions reach the caller as thrown.
+     */
+    public <T> T compute(Callable<T> work) throws Exception {
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == compute)
+            return work.call();
+        // not compute.submit(work): its adapter wraps checked exceptions
+        CompletableFuture<T> done = new CompletableFuture<>();
+        compute.execute(() -> {
+            try {
+                done.complete(work.call());
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        });
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause); // neither: a foreign Throwable
+        }
+    }
+
+    @Override
+    public void close() {
+        waiters.shutdownNow();
+        compute.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s waiters, %d compute threads", virtual ? "virtual" : "platform",
+                compute.getParallelism());
+    }
+}
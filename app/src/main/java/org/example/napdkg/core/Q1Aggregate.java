@@ -0,0 +1,149 @@
+package org.example.napdkg.core;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.PointAccumulator;
+
+/**
+ * Sums over a finalized Q1, computed once:
+ *
+ * EQ1 = Σ_{j∈Q1} E_j
+ * W_c = Σ_{j∈Q1} C_{j,c} for every column c = 0 … n−1
+ *
+ * Threshold publication (W_me), Q2 pruning (W_j for each Θ_j) and
+ * reconstruction all read from here instead of re-adding |Q1| points per
+ * column per call. The columns are summed in parallel and normalized with a
+ * single shared inversion.
+ *
+ * Instances are shared through {@link #of(DkgContext, List)}: every party of a
+ * session that finalizes the same Q1 gets the same aggregate, memoized on the
+ * session's context.
+ */
+public final class Q1Aggregate {
+
+    private final int[] dealers; // sorted dealer indices
+    private final ECPoint EQ1;
+    private final ECPoint[] W; // W[c], affine
+
+    private Q1Aggregate(int[] dealers, ECPoint EQ1, ECPoint[] W) {
+        this.dealers = dealers;
+        this.EQ1 = EQ1;
+        this.W = W;
+    }
+
+    /**
+     * @param ctx session parameters (cache scope, see {@link DkgContext#memo})
+     * @param q1  finalized Q1 (any order)
+     * @return the shared aggregate for this Q1, computed on first request
+     */
+    public static Q1Aggregate of(DkgContext ctx, List<SharingOutput> q1) {
+        return ctx.memo(keyOf(q1), () -> compute(ctx, q1));
+    }
+
+    /** Uncached: one pass over Q1 × columns. */
+    public static Q1Aggregate compute(DkgContext ctx, List<SharingOutput> q1) {
+        List<SharingOutput> sorted = new ArrayList<>(q1);
+        sorted.sort(Comparator.comparingInt(SharingOutput::getDealerIndex));
+        int[] dealers = new int[sorted.size()];
+        for (int k = 0; k < dealers.length; k++)
+            dealers[k] = sorted.get(k).getDealerIndex();
+
+        ECCurve curve = ctx.getCurve();
+        PointAccumulator eq1 = new PointAccumulator(curve);
+        for (SharingOutput sh : sorted)
+            eq1.add(sh.getDealerPub());
+
+        int columns = sorted.isEmpty() ? 0 : sorted.get(0).getCij().length;
+        ECPoint[] W = new ECPoint[columns];
+        IntStream.range(0, columns).parallel().forEach(c -> {
+            ECPoint acc = curve.getInfinity();
+            for (SharingOutput sh : sorted)
+                acc = acc.add(sh.getCij()[c]);
+            W[c] = acc;
+        });
+        DkgUtils.normalizeAll(W);
+
+        return new Q1Aggregate(dealers, eq1.sum(), W);
+    }
+
+    /** @return EQ1 = Σ_{j∈Q1} E_j */
+    public ECPoint getEQ1() {
+        return EQ1;
+    }
+
+    /** @return W_c = Σ_{j∈Q1} C_{j,c} */
+    public ECPoint getW(int column) {
+        return W[column];
+    }
+
+    /** @return number of columns (n) */
+    public int columns() {
+        return W.length;
+    }
+
+    /** @return |Q1| */
+    public int size() {
+        return dealers.length;
+    }
+
+    /** @return Q1's dealer indices, ascending */
+    public List<Integer> getDealerIndices() {
+        List<Integer> out = new ArrayList<>(dealers.length);
+        for (int d : dealers)
+            out.add(d);
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Identifies a Q1 by a SHA-256 over its full contents, in dealer order:
+     * index, E_j, every C_{j,c} and ĉ_{j,c}, and the whole proof. A dealer
+     * picks the proof's nonce, so a matching response alone says nothing
+     * about the columns; only equal contents may share an aggregate.
+     */
+    private static String keyOf(List<SharingOutput> q1) {
+        List<SharingOutput> sorted = new ArrayList<>(q1);
+        sorted.sort(Comparator.comparingInt(SharingOutput::getDealerIndex));
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+        for (SharingOutput sh : sorted) {
+            update(digest, BigInteger.valueOf(sh.getDealerIndex()).toByteArray());
+            update(digest, sh.getDealerPub().getEncoded(true));
+            update(digest, BigInteger.valueOf(sh.getCij().length).toByteArray());
+            for (ECPoint C : sh.getCij())
+                update(digest, C.getEncoded(true));
+            update(digest, BigInteger.valueOf(sh.getCHat().length).toByteArray());
+            for (BigInteger c : sh.getCHat())
+                update(digest, c.toByteArray());
+            NizkDlEqProof pf = sh.getProof();
+            update(digest, BigInteger.valueOf(pf.getVersion()).toByteArray());
+            update(digest, pf.getChallenge() == null ? new byte[0] : pf.getChallenge().toByteArray());
+            update(digest, pf.getResponse().toByteArray());
+            update(digest, pf.getA1() == null ? new byte[0] : pf.getA1().getEncoded(true));
+            update(digest, pf.getA2() == null ? new byte[0] : pf.getA2().getEncoded(true));
+        }
+        return "Q1Aggregate/" + Hex.toHexString(digest.digest());
+    }
+
+    /** Length-prefixed, so field boundaries are unambiguous. */
+    private static void update(MessageDigest digest, byte[] field) {
+        int len = field.length;
+        digest.update(new byte[] { (byte) (len >>> 24), (byte) (len >>> 16), (byte) (len >>> 8), (byte) len });
+        digest.update(field);
+    }
+}
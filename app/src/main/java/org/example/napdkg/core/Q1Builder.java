@@ -0,0 +1,53 @@
+package org.example.napdkg.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Q1 while dealers are still being verified, possibly several at once: the
+ * dealers that passed, as a bitset over dealer indices plus one slot per
+ * dealer. Adding, dropping and membership are O(1); listing walks the set
+ * bits, so Q1 comes out in dealer-index order.
+ */
+final class Q1Builder {
+    // guarded by this
+    private final SharingOutput[] slots;
+    private final BitSet passed;
+
+    Q1Builder(int n) {
+        this.slots = new SharingOutput[n];
+        this.passed = new BitSet(n);
+    }
+
+    /** @return false if the dealer was in already */
+    synchronized boolean add(SharingOutput so) {
+        int d = so.getDealerIndex();
+        if (passed.get(d))
+            return false;
+        passed.set(d);
+        slots[d] = so;
+        return true;
+    }
+
+    synchronized void remove(int dealer) {
+        passed.clear(dealer);
+        slots[dealer] = null;
+    }
+
+    synchronized boolean contains(int dealer) {
+        return passed.get(dealer);
+    }
+
+    synchronized int size() {
+        return passed.cardinality();
+    }
+
+    /** @return the dealers that passed, by dealer index */
+    synchronized List<SharingOutput> inIndexOrder() {
+        List<SharingOutput> out = new ArrayList<>(passed.cardinality());
+        for (int d = passed.nextSetBit(0); d >= 0; d = passed.nextSetBit(d + 1))
+            out.add(slots[d]);
+        return out;
+    }
+}
@@ -9,10 +9,10 @@ import java.util.Map;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.client.PbbClient;
-import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.util.DkgContext;
-import org.example.napdkg.util.DkgUtils;
 import org.example.napdkg.util.MaskedShareCHat;
+import org.example.napdkg.util.PointAccumulator;
+import org.example.napdkg.util.SameScalarMul;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,51 +44,30 @@ public class ReconstructionPhase {
         int needed = t + fa;
         DkgContext ctx = P.ctx;
         BigInteger p = ctx.getOrder();
-        ECPoint G = ctx.getGenerator();
 
         // 5) Collect first t+fa threshold outputs Θ_i
-        Map<Integer, ShareVerificationPublish> received = new HashMap<>();
-        while (received.size() < needed) {
-            Thread.sleep(VerificationPhase.POLL_MS);
-            List<ShareVerificationOutputDTO> dtoList = pbb.fetch("ShareVerificationOutput",
-                    ShareVerificationOutputDTO.class);
-            for (ShareVerificationOutputDTO dto : dtoList) {
-                int pi = dto.verifierIndex;
-                if (!received.containsKey(pi)) {
-                    ShareVerificationPublish out = ShareVerificationPublish.fromDTO(dto, P.ctx);
-                    received.put(pi, out);
-                    log.info("Collected Θ_{} ({}/{})", pi, received.size(), needed);
-                }
-                if (received.size() >= needed)
-                    break;
-            }
-        }
-        List<ShareVerificationPublish> Q2 = new ArrayList<>(received.values());
+        List<ShareVerificationPublish> Q2 = VerificationPhase.awaitThresholdOutputs(pbb, ctx, needed);
         log.info("✅ Q2 is formed");
 
+        // EQ1 and W_j for this Q1, shared with the other phases
+        Q1Aggregate agg = Q1Aggregate.of(ctx, Q1);
+        ECPoint EQ1 = agg.getEQ1();
+        EphemeralKeyDirectory keys = P.ephemeralKeys();
+
         Iterator<ShareVerificationPublish> it = Q2.iterator();
         while (it.hasNext()) {
             ShareVerificationPublish out = it.next();
             int j = out.verifierIndex;
 
-            // 6.a) recompute W_j = Σ_{k∈Q1} C_{k,j}
-            ECPoint Wj = G.getCurve().getInfinity();
-            for (SharingOutput shDealer : Q1) {
-                Wj = Wj.add(shDealer.Cij[j]).normalize();
-            }
+            // 6.a) W_j = Σ_{k∈Q1} C_{k,j} (precomputed)
+            ECPoint Wj = agg.getW(j);
 
             // 6.b) recompute delta_j = W_j − τ_{pk_j}
             ECPoint deltaJ = Wj.subtract(out.tpki).normalize();
 
-            // 6.c) fetch X_j = the ephemeral pub of party j
-            ECPoint Ej = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n)
-                    .get(j)
-                    .getPublicKey();
+            // 6.c) X_j = the ephemeral pub of party j
+            ECPoint Ej = keys.getEByPartyIndex()[j];
 
-            ECPoint EQ1 = G.getCurve().getInfinity();
-            for (SharingOutput shj : Q1) {
-                EQ1 = EQ1.add(shj.getDealerPub()).normalize();
-            }
             // 6.d) verify DLEQ proof tying (G,X_j) to (EQ1, deltaJ)
             boolean ok = NizkDlEqProof.verifyProof(
                     ctx,
@@ -107,14 +86,18 @@ public class ReconstructionPhase {
             Map<Integer, ECPoint> Aij = new HashMap<>();
             Map<Integer, BigInteger> aij = new HashMap<>();
             BigInteger sk_i = P.ephKey.getSecretKey();
+            ECPoint[] E = new ECPoint[Q1.size()]; // E_j
+            for (int q = 0; q < E.length; q++)
+                E[q] = Q1.get(q).dealerPub;
+            ECPoint[] skE = SameScalarMul.multiply(E, sk_i);
 
-            for (SharingOutput shj : Q1) {
+            for (int q = 0; q < E.length; q++) {
+                SharingOutput shj = Q1.get(q);
                 int index = shj.dealerIndex;
                 ECPoint Cji = shj.Cij[me]; // C_{j,i}
-                ECPoint E = shj.dealerPub; // E_j
 
                 // A_{j,i} = C_{j,i} − sk_i·E_j
-                ECPoint Aji = Cji.subtract(E.multiply(sk_i)).normalize();
+                ECPoint Aji = Cji.subtract(skE[q]).normalize();
                 Aij.put(index, Aji);
 
                 // a_{j,i} = unmask( A_{j,i} , Ŝ_{j,i} )
@@ -145,10 +128,10 @@ public class ReconstructionPhase {
             log.info("🎉 Reconstructed my final secret‐share x_i = {}", tpk.toString());
 
             // 7c) Compute the joint public key Y = Σ_{j∈Q2} τ_{pk_j}
-            ECPoint Y = ctx.getGenerator().getCurve().getInfinity();
-            for (ShareVerificationPublish outs : Q2) {
-                Y = Y.add(outs.tpki).normalize();
-            }
+            PointAccumulator y = new PointAccumulator(ctx.getCurve());
+            for (ShareVerificationPublish outs : Q2)
+                y.add(outs.tpki);
+            ECPoint Y = y.sum();
             log.info("🎉 Group public key Y = {}", Y);
 
         }
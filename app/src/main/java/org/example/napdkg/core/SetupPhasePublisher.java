@@ -11,16 +11,17 @@ public class SetupPhasePublisher {
 
     public static void publishEphemeralKey(PartyContext P) throws Exception {
         // generate & store this party’s ephemeral keypair
-        DhKeyPair kp = DhKeyPair.generate(P.ctx);
-        P.ephKey = kp;
+        EphemeralKeyDTO dto = P.compute(() -> {
+            DhKeyPair kp = DhKeyPair.generate(P.ctx);
+            P.ephKey = kp;
 
-        String id = "id" + P.id;
-        String Phex = DkgUtils.encodePoint(kp.getPublic());
-        NizkDlProof proof = NizkDlProof.generateProof(P.ctx, kp);
-        String proofHex = proof.getChallenge().toString(16)
-                + "|" + proof.getResponse().toString(16);
+            String id = "id" + P.id;
+            String Phex = DkgUtils.encodePoint(kp.getPublic());
+            NizkDlProof proof = NizkDlProof.generateProof(P.ctx, kp);
+            String proofHex = proof.encode();
 
-        EphemeralKeyDTO dto = new EphemeralKeyDTO(id, P.id, Phex, proofHex);
+            return new EphemeralKeyDTO(id, P.id, Phex, proofHex);
+        });
 
         try {
             P.pbb.publish("ephemeralKeys", dto);
@@ -1,8 +1,6 @@
 // src/main/java/org/example/napdkg/core/domain/ShareVerificationOutput.java
 package org.example.napdkg.core;
 
-import java.math.BigInteger;
-
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.dto.ShareVerificationOutputDTO;
@@ -24,6 +22,10 @@ public class ShareVerificationPublish {
   }
 
   public static ShareVerificationPublish fromDTO(ShareVerificationOutputDTO dto, DkgContext ctx) {
+    // already decoded from the binary wire form
+    if (dto.getDecoded() != null)
+      return dto.getDecoded();
+
     // decode τ_{pk_i}
     ECPoint tpki = ctx.getGenerator()
         .getCurve()
@@ -31,9 +33,7 @@ public class ShareVerificationPublish {
         .normalize();
 
     // reconstruct proof
-    BigInteger e = new BigInteger(dto.proof.getChallenge(), 16);
-    BigInteger z = new BigInteger(dto.proof.getResponse(), 16);
-    NizkDlEqProof proof = new NizkDlEqProof(e, z);
+    NizkDlEqProof proof = dto.proof.toProof(ctx);
 
     return new ShareVerificationPublish(
         dto.verifierIndex,
@@ -55,6 +55,10 @@ public class SharingOutput {
      * Convert from the wire‐DTO into your domain object
      */
     public static SharingOutput fromDTO(SharingOutputDTO dto, DkgContext ctx) {
+        // 0) already decoded from the binary wire form
+        if (dto.getDecoded() != null)
+            return dto.getDecoded();
+
         // 1) dealer’s public point
         ECPoint dealerPub = ctx.getGenerator()
                 .getCurve()
@@ -77,9 +81,7 @@ public class SharingOutput {
             CHat[i] = new BigInteger(dto.CHat[i], 16);
         }
         // reconstruct the DLEQ proof from the actual DTO fields:
-        BigInteger e = new BigInteger(dto.proof.getChallenge(), 16);
-        BigInteger z = new BigInteger(dto.proof.getResponse(), 16);
-        NizkDlEqProof proof = new NizkDlEqProof(e, z);
+        NizkDlEqProof proof = dto.proof.toProof(ctx);
         // 4) DLEQ proof
 
         return new SharingOutput(
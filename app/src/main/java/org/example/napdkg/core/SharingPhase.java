@@ -2,17 +2,19 @@ package org.example.napdkg.core;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.bouncycastle.math.ec.ECPoint;
-import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.client.PbbClient;
-import org.example.napdkg.dto.EphemeralKeyDTO;
 import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.util.ChunkedRange;
 import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
 import org.example.napdkg.util.HashingTools;
 import org.example.napdkg.util.MaskedShareCHat;
+import org.example.napdkg.util.MultiScalarMul;
+import org.example.napdkg.util.SameScalarMul;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,10 +25,17 @@ import org.slf4j.LoggerFactory;
 
 public class SharingPhase {
   private static final Logger log = LoggerFactory.getLogger(SharingPhase.class);
+
+  /** Recipients per fork-join work unit when a dealer splits its range. */
+  public static final int RECIPIENT_CHUNK = 64;
+  // n from which one dealer splits its recipients across the pool
+  private static volatile int parallelMinN = 1024;
   protected final DkgContext ctx;
   protected final PbbClient pbb;
   protected final int me;
 
+  private final PartyContext P;
+
   protected final int n;
 
   protected final int t;
@@ -35,6 +44,7 @@ public class SharingPhase {
   protected DhKeyPair myEphKey;
 
   public SharingPhase(PartyContext P, int t) {
+    this.P = P;
     this.ctx = P.ctx;
     this.pbb = P.pbb;
     this.me = P.id;
@@ -43,29 +53,43 @@ public class SharingPhase {
     this.myEphKey = P.ephKey;
   }
 
+  /**
+   * Sets the n from which a single dealer splits its per-recipient work
+   * (A_ij, E_j·sk, Ĉ_ij, the V sum) into chunks of {@link #RECIPIENT_CHUNK}
+   * on the fork-join pool it runs in. Worth it when few dealers are live
+   * at once; when every core already has a dealer it only adds splitting.
+   * Integer.MAX_VALUE turns it off. The output is the same either way.
+   */
+  public static void setParallelMinN(int n) {
+    parallelMinN = n;
+  }
+
+  /** @return the chunk size this dealer uses: n when it stays sequential */
+  int recipientChunk() {
+    return n >= parallelMinN ? RECIPIENT_CHUNK : n;
+  }
+
   public BigInteger getSecretShare() {
     return secretShare;
   }
 
-  /** Fetch all public keys with proof and decode them from the DTO. */
+  /** All verified public keys with proof, in PBB arrival order. */
   public List<PublicKeysWithProofs> fetchEph() throws Exception {
-    List<EphemeralKeyDTO> dtos = pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class);
-    List<PublicKeysWithProofs> pubs = new ArrayList<>();
-    for (EphemeralKeyDTO dto : dtos) {
-      byte[] raw = Hex.decode(dto.publicKey);
-      ECPoint P = ctx.getGenerator().getCurve().decodePoint(raw).normalize();
-      String[] parts = dto.schnorrProof.split("\\|");
-      BigInteger challenge = new BigInteger(parts[0], 16);
-      BigInteger response = new BigInteger(parts[1], 16);
-      NizkDlProof proof = new NizkDlProof(challenge, response);
-      pubs.add(new PublicKeysWithProofs(dto.partyIndex, P, proof));
-    }
-    return pubs;
+    return P.ephemeralKeys().inArrivalOrder();
   }
 
   public void runSharingAsDealer() throws Exception {
+    // ephemeral public keys of all parties, PBB order (shared, verified once)
+    ECPoint[] E = P.ephemeralKeys().getE();
+    SharingOutputDTO dto = P.compute(() -> deal(E));
+
+    log.info("pk_i for PBB dealer {} = (dto){}", me, dto.dealerPub);
+    pbb.publish("DealerPublish", dto);
+  }
+
+  /** Steps 1–6: the dealing itself, all EC work. */
+  private SharingOutputDTO deal(ECPoint[] E) throws Exception {
     BigInteger p = ctx.getOrder();
-    ECPoint G = ctx.getGenerator();
 
     // --------------------------------------------
     // 1) Dealer picks random secret s ∈ Z_p Using SecureRandom: cryptographically
@@ -79,7 +103,8 @@ public class SharingPhase {
     // 2) Shamir-share “s” among n parties
     // --------------------------------------------
 
-    GShamirShareDKG.ShamirSharingResult res = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, s);
+    int chunk = recipientChunk();
+    GShamirShareDKG.ShamirSharingResult res = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, s, chunk);
 
     // Each 'Share' has getai() = scalar share, getAiPoint() = G^(ai).
     Share[] shares = res.shares; // length n
@@ -96,22 +121,11 @@ public class SharingPhase {
     // 3.1) Gather Aij = G^{aij} and scalars aij
     // --------------------------------------------
 
-    ECPoint[] Aij = new ECPoint[n];
-    BigInteger[] aijScalars = new BigInteger[n];
-    for (int j = 0; j < n; j++) {
-      aijScalars[j] = shares[j].getai().mod(p);
-      Aij[j] = shares[j].getAiPoint(); // G^(aij)
-    }
+    // (read per recipient in step 3.3: shares[j].getai(), shares[j].getAiPoint())
 
     // --------------------------------------------
-    // 3.2) Fetch ephemeral keys E[1..n], own ephemeral secret key
+    // 3.2) Ephemeral keys E[1..n] (the parameter E), own ephemeral secret key
     // --------------------------------------------
-    List<PublicKeysWithProofs> eph = fetchEph(); // e.g. from PBB
-    ECPoint[] E = new ECPoint[n];
-    for (int j = 0; j < n; j++) {
-      // ephemeral public keys from others
-      E[j] = eph.get(j).getPublicKey().normalize();
-    }
 
     // ephemeral secret key for "this" dealer
     BigInteger ski = myEphKey.getSecretKey();
@@ -125,14 +139,21 @@ public class SharingPhase {
     ECPoint[] Cij = new ECPoint[n];
     BigInteger[] CHat = new BigInteger[n];
 
-    for (int j = 0; j < n; j++) {
-      // C_ij = E[j]*ski + Aij
-      Cij[j] = E[j].multiply(ski).add(Aij[j]).normalize();
-
-      // CHat might be something
-      CHat[j] = MaskedShareCHat.maskShare(Aij[j], aijScalars[j], p);
+    // recipients j ∈ [lo, hi) per work unit, each writing only its own slots
+    ChunkedRange.forEach(n, chunk, (lo, hi) -> {
+      // E[j]*ski for the whole range at once: one scalar, many points
+      ECPoint[] skE = SameScalarMul.multiply(Arrays.copyOfRange(E, lo, hi), ski);
+      for (int j = lo; j < hi; j++) {
+        ECPoint Aij = shares[j].getAiPoint(); // G^(aij)
+        // C_ij = E[j]*ski + Aij
+        Cij[j] = skE[j - lo].add(Aij);
+
+        // CHat might be something
+        CHat[j] = MaskedShareCHat.maskShare(Aij, shares[j].getai().mod(p), p);
+      }
+      ctx.getCurve().normalizeAll(Cij, lo, hi - lo, null);
+    });
 
-    }
     // ------------------------------------------
     // 4) Derive aggregator polynomial m*(X)
     // For NAP-DKG, hashed from all pk_i, Cij, CHat, e
@@ -148,17 +169,16 @@ public class SharingPhase {
     // Then check if V == U^ski (or do a DLEQ proof).
     // =========================================================================
 
-    ECPoint U = G.getCurve().getInfinity();
-    ECPoint V = G.getCurve().getInfinity();
+    BigInteger[] mStarAt = DkgUtils.evalAll(mStar, alpha, p); // m*(α₁ … αₙ) in one pass
+    BigInteger[] factors = new BigInteger[n];
     for (int j = 1; j <= n; j++) {
-      BigInteger evalMj = evaluatePolynomial(mStar, alpha[j], p);
-      BigInteger factor = v[j - 1].multiply(evalMj).mod(p);
-
-      // Debug prints:
-
-      U = U.add(E[j - 1].multiply(factor)).normalize();
-      V = V.add(Cij[j - 1].multiply(factor)).normalize();
+      factors[j - 1] = v[j - 1].multiply(mStarAt[j]).mod(p);
     }
+    // U only depends on m* over the session's fixed E: Σ_d m*_d·P_d
+    ECPoint U = ctx.getEphemeralBasis(E).aggregate(mStar).normalize();
+    // V in slices of a chunk per core, so a split dealer splits its largest sum too
+    ECPoint V = MultiScalarMul.sum(Cij, factors,
+        Math.max(chunk, ChunkedRange.chunks(n, ChunkedRange.parallelism()))).normalize();
 
     System.out.println("Final aggregator U=" + U + "\nFinal aggregator V=" + V);
 
@@ -200,8 +220,9 @@ public class SharingPhase {
     // Evaluate polynomial at alpha[i] and compare.
     // --------------------------------------------
 
+    BigInteger[] expectedShares = DkgUtils.evalAll(coeffs, alpha, p);
     for (int i = 1; i <= n; i++) {
-      BigInteger expected = evaluatePolynomial(coeffs, alpha[i], p);
+      BigInteger expected = expectedShares[i];
       BigInteger actual = shares[i - 1].getai();
       if (!expected.equals(actual)) {
         System.err.printf("Share mismatch at i=%d: expected=%s actual=%s\n",
@@ -220,13 +241,10 @@ public class SharingPhase {
         Cij,
         CHat,
         proof);
-    SharingOutputDTO dto = SharingOutputDTO.from(out);
     // if (dto.id == null || dto.id.isEmpty()) {
     // dto.id = java.util.UUID.randomUUID().toString();
     // }
-
-    log.info("pk_i for PBB dealer {} = (dto){}", me, dto.dealerPub);
-    pbb.publish("DealerPublish", dto);
+    return SharingOutputDTO.from(out);
   }
 
   // Correct polynomial evaluation method
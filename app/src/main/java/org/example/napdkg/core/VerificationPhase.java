@@ -1,20 +1,22 @@
 package org.example.napdkg.core;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.example.napdkg.client.PbbClient;
 import org.example.napdkg.client.TopicPoller;
-import org.example.napdkg.dto.EphemeralKeyDTO;
 import org.example.napdkg.dto.ShareVerificationOutputDTO;
 import org.example.napdkg.dto.SharingOutputDTO;
 import org.example.napdkg.util.DkgContext;
@@ -22,6 +24,9 @@ import org.example.napdkg.util.DkgRef;
 import org.example.napdkg.util.DkgUtils;
 import org.example.napdkg.util.HashingTools;
 import org.example.napdkg.util.MaskedShareCHat;
+import org.example.napdkg.util.MultiScalarMul;
+import org.example.napdkg.util.PointAccumulator;
+import org.example.napdkg.util.SameScalarMul;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,9 +47,12 @@ public class VerificationPhase {
     private final PbbClient pbb;
     private final int me, n, t, fa;
     private final ECPoint G;
-    private List<SharingOutput> Q1 = new ArrayList<>();
-    private Map<Integer, ECPoint> Aij = new HashMap<>();
-    private Map<Integer, BigInteger> aij = new HashMap<>();
+    // dealers that passed so far; Q1 is fixed from it by finalizeQ1Deterministically()
+    private final Q1Builder q1;
+    private volatile List<SharingOutput> Q1;
+    // dealers may be verified concurrently (verifyInArrivalOrder)
+    private Map<Integer, ECPoint> Aij = new ConcurrentHashMap<>();
+    private Map<Integer, BigInteger> aij = new ConcurrentHashMap<>();
 
     // 2) setter
 
@@ -54,7 +62,8 @@ public class VerificationPhase {
 
     public List<SharingOutput> getQ1() {
         // return a copy to avoid external mutation
-        return Collections.unmodifiableList(Q1);
+        List<SharingOutput> fixed = Q1;
+        return Collections.unmodifiableList(fixed != null ? fixed : q1.inIndexOrder());
     }
 
     // Once per‐party: your reconstructed x_i & τ_pki
@@ -71,22 +80,21 @@ public class VerificationPhase {
         this.t = P.t;
         this.fa = P.fa;
         this.G = ctx.getGenerator();
+        this.q1 = new Q1Builder(n);
     }
 
-    private boolean q1Finalized = false;
-
     public int q1Size() {
-        return Q1.size();
+        List<SharingOutput> fixed = Q1;
+        return fixed != null ? fixed.size() : q1.size();
     }
 
-    public void finalizeQ1Deterministically() {
-        if (q1Finalized)
+    public synchronized void finalizeQ1Deterministically() {
+        if (Q1 != null)
             return;
-        // Sort by dealer index for a stable, global order
-        Q1.sort(Comparator.comparingInt(SharingOutput::getDealerIndex));
-        int keep = Math.min(Q1.size(), t + fa);
-        Q1 = new ArrayList<>(Q1.subList(0, keep));
-        q1Finalized = true;
+        // dealer-index order: a stable, global order
+        List<SharingOutput> passed = q1.inIndexOrder();
+        int keep = Math.min(passed.size(), t + fa);
+        Q1 = new ArrayList<>(passed.subList(0, keep));
     }
 
     // Optional background snapshot source for "DealerPublish" (shared by all
@@ -97,28 +105,51 @@ public class VerificationPhase {
         dealerPoller = p;
     }
 
-    private List<SharingOutputDTO> dealerSnapshotOrFetch() throws Exception {
+    /**
+     * Waits until dealer d's Sh_d is on the board: from the shared poller if
+     * one is set, else via a subscription of our own. Either way the wait
+     * ends when the entry arrives.
+     */
+    private SharingOutputDTO awaitDealer(int d) throws Exception {
         TopicPoller<SharingOutputDTO> p = dealerPoller;
-        if (p != null)
-            return p.snapshot(); // non-blocking, in-memory snapshot
-        return pbb.fetch("DealerPublish", SharingOutputDTO.class); // normal path
+        if (p == null)
+            return DkgUtils.waitForAndDecode(pbb, "DealerPublish", SharingOutputDTO.class,
+                    dto -> dto.dealerIndexDTO == d, dto -> dto);
+        SharingOutputDTO dto;
+        while ((dto = p.awaitFirst(x -> x.dealerIndexDTO == d, 10_000)) == null)
+            log.info("party {} still waiting for Sh_{}", me, d);
+        return dto;
     }
 
-    private void ensureAijForFinalQ1() {
+    /** EQ1 and the column sums W_c of the finalized Q1, shared across parties. */
+    private Q1Aggregate q1Aggregate() {
+        finalizeQ1Deterministically();
+        return Q1Aggregate.of(ctx, Q1);
+    }
 
-        BigInteger sk = P.ephKey.getSecretKey();
-        for (SharingOutput shj : Q1) {
+    private void ensureAijForFinalQ1() {
+        // sk_i·E_j for every Q1 dealer not cached yet, as one batch
+        List<SharingOutput> missing = new ArrayList<>();
+        for (SharingOutput shj : Q1)
+            if (!Aij.containsKey(shj.getDealerIndex()))
+                missing.add(shj);
+        if (missing.isEmpty())
+            return;
+        ECPoint[] E = new ECPoint[missing.size()];
+        for (int q = 0; q < E.length; q++)
+            E[q] = missing.get(q).getDealerPub();
+        ECPoint[] skE = SameScalarMul.multiply(E, P.ephKey.getSecretKey());
+        for (int q = 0; q < E.length; q++) {
+            SharingOutput shj = missing.get(q);
             int j = shj.getDealerIndex();
-            if (!Aij.containsKey(j)) {
-                ECPoint Aji = shj.getCij()[me].subtract(shj.getDealerPub().multiply(sk)).normalize();
-                if (Aji.isInfinity())
-                    throw new IllegalStateException("INF A in τ recompute (dealer " + j + ")");
-                BigInteger aji = shj.getCHat()[me];
-                if (!G.multiply(aji).normalize().equals(Aji))
-                    throw new IllegalStateException("A != G·a in τ recompute (dealer " + j + ")");
-                Aij.put(j, Aji);
-                aij.put(j, aji);
-            }
+            ECPoint Aji = shj.getCij()[me].subtract(skE[q]).normalize();
+            if (Aji.isInfinity())
+                throw new IllegalStateException("INF A in τ recompute (dealer " + j + ")");
+            BigInteger aji = shj.getCHat()[me];
+            if (!ctx.multiplyG(aji).normalize().equals(Aji))
+                throw new IllegalStateException("A != G·a in τ recompute (dealer " + j + ")");
+            Aij.put(j, Aji);
+            aij.put(j, aji);
         }
     }
 
@@ -126,34 +157,264 @@ public class VerificationPhase {
      * Round 2 (Share Verification) Threshold Key Computation (optimistic).
      * 
      * @param dealerToVerify index for the dealer we are currently verifying.
-     * @return the reconstructed Share S_i = (s, G^s)
-     * @throws Exception
-     * @throws IOException
+     * @param dto            its Sh_j as posted
+     * @return the decoded Sh_j
      */
-
-    private SharingOutput fetchAndCollectDealer(int dealerToVerify) throws IOException, Exception {
-        SharingOutput so = null;
-        while (so == null) {
-            Thread.sleep(POLL_MS);
-            for (SharingOutputDTO dto : dealerSnapshotOrFetch()) {
-                if (dto.dealerIndexDTO != dealerToVerify)
-                    continue;
-                so = SharingOutput.fromDTO(dto, ctx);
-                System.out.printf("✔ Collected Sh_%d%n", dealerToVerify);
-                break;
-            }
-        }
+    private SharingOutput collectDealer(int dealerToVerify, SharingOutputDTO dto) {
+        SharingOutput so = SharingOutput.fromDTO(dto, ctx);
+        System.out.printf("✔ Collected Sh_%d%n", dealerToVerify);
         return so;
     }
 
     // ------------Share Verification (2nd round or after t fa parties post Shi
     // PBB.)----------------------------------------------------
     public void VerifySharesFor(int dealerToVerify) throws Exception {
+        DealerCheck c = prepareDealer(dealerToVerify);
+
+        P.compute(() -> {
+            // ---- 3) DLEQ ----
+            if (!NizkDlEqProof.verifyProof(ctx, c.so.dealerPub, c.U, c.V, c.so.proof)) {
+                rejectDealer(dealerToVerify);
+                // Skipping step 4, 5, 6
+                return null;
+            }
+            acceptDealer(dealerToVerify, c);
+            return null;
+        });
+    }
+
+    /**
+     * Same as calling {@link #VerifySharesFor(int)} for every dealer in the
+     * list, but all dealer DLEQ proofs are checked together by
+     * {@link BatchDleqVerifier}. A dealer whose data cannot be collected or
+     * decoded is skipped with a warning.
+     *
+     * @param dealersToVerify dealer indices
+     */
+    public void verifySharesForBatch(List<Integer> dealersToVerify) throws Exception {
+        List<DealerCheck> checks = new ArrayList<>(dealersToVerify.size());
+        List<Integer> dealers = new ArrayList<>(dealersToVerify.size());
+        for (int d : dealersToVerify) {
+            try {
+                checks.add(prepareDealer(d));
+            } catch (Exception e) {
+                log.warn("Party {}: collecting dealer {} failed: {}", me, d, e.toString());
+                continue;
+            }
+            dealers.add(d);
+        }
+        P.compute(() -> checkDealers(dealers, checks));
+    }
+
+    /**
+     * Step 3 for a group of dealers: one {@link BatchDleqVerifier} run over
+     * their DLEQ proofs, then steps 4–5 for each one that passes. A null
+     * check (its data could not be decoded) rejects the dealer.
+     *
+     * @return how many of them joined Q1
+     */
+    private int checkDealers(List<Integer> dealers, List<DealerCheck> checks) {
+        List<BatchDleqVerifier.Statement> stmts = new ArrayList<>(checks.size());
+        for (DealerCheck c : checks)
+            if (c != null)
+                stmts.add(new BatchDleqVerifier.Statement(c.so.dealerPub, c.U, c.V, c.so.proof));
+        boolean[] ok = BatchDleqVerifier.verify(ctx, stmts);
+        int passed = 0;
+        for (int k = 0, s = 0; k < checks.size(); k++) {
+            DealerCheck c = checks.get(k);
+            int d = dealers.get(k);
+            if (c == null || !ok[s++]) {
+                rejectDealer(d);
+                continue;
+            }
+            try {
+                if (acceptDealer(d, c))
+                    passed++;
+            } catch (Exception e) {
+                log.warn("Party {}: verifying dealer {} failed: {}", me, d, e.toString());
+                q1.remove(d);
+            }
+        }
+        return passed;
+    }
+
+    /** Default for {@link #setBoardWaitMs}. */
+    public static final long BOARD_WAIT_MS = 60_000;
+
+    // how long verifyInArrivalOrder waits for a new dealer on the board
+    private volatile long boardWaitMs = BOARD_WAIT_MS;
+
+    /**
+     * Sets how long {@link #verifyInArrivalOrder} waits for a dealer without
+     * any progress before it settles for the dealers that passed.
+     */
+    public void setBoardWaitMs(long ms) {
+        boardWaitMs = ms;
+    }
+
+    // dealers verifyInArrivalOrder started checking (read by tests)
+    private volatile int launched;
+
+    int dealersLaunched() {
+        return launched;
+    }
+
+    /**
+     * Builds Q1 from the dealers in PBB order, verifying them concurrently on
+     * the party's compute pool. New checks start only while the passed plus
+     * the running ones are short of t+fa, so Q1 ends up as the first t+fa
+     * valid dealers in PBB order, whatever order the checks finish in, and no
+     * dealer beyond them is looked at.
+     *
+     * Whenever more dealers are needed, every new one on the board (up to the
+     * shortfall) is launched as a group: their aggregates are recomputed in
+     * parallel and their DLEQ proofs checked in one batch. While more dealers
+     * are needed but none is on the board, neither a new entry nor a finished
+     * group for {@link #setBoardWaitMs} ms ends the wait (fewer than t+fa
+     * valid dealers ever publish): Q1 is then fixed from the dealers that
+     * passed. Q1 is final on return.
+     *
+     * Call it from the party's own thread, not from inside
+     * {@link PartyContext#compute}: it waits for the checks it starts there.
+     */
+    public void verifyInArrivalOrder() throws Exception {
+        int target = t + fa;
+        TopicPoller<SharingOutputDTO> shared = dealerPoller;
+        TopicPoller<SharingOutputDTO> dealers = shared != null ? shared
+                : new TopicPoller<>(pbb, "DealerPublish", SharingOutputDTO.class, dto -> dto.id, 0);
+        try {
+            dealers.start();
+            EphemeralKeyDirectory keys = P.ephemeralKeys();
+            Executor pool = P.computeExecutor();
+            // one {checked, passed} per finished group
+            BlockingQueue<int[]> done = new LinkedBlockingQueue<>();
+            boolean[] taken = new boolean[n];
+            int passed = 0, running = 0, started = 0, next = 0;
+            boolean boardOpen = true;
+            int seen = 0;
+            long lastProgress = System.currentTimeMillis(), lastLog = lastProgress;
+            while (passed < target) {
+                int[] r = done.poll();
+                if (r == null && target - passed - running > 0 && started < n && boardOpen) {
+                    List<SharingOutputDTO> board = dealers.snapshot();
+                    if (board.size() > seen) {
+                        seen = board.size();
+                        lastProgress = System.currentTimeMillis();
+                    }
+                    int need = target - passed - running;
+                    List<Integer> ds = new ArrayList<>(need);
+                    List<SharingOutputDTO> dtos = new ArrayList<>(need);
+                    while (next < board.size() && ds.size() < need) {
+                        SharingOutputDTO dto = board.get(next++);
+                        int d = dto.dealerIndexDTO;
+                        if (d < 0 || d >= n || taken[d])
+                            continue; // a dealer counts once, with its first Sh_j
+                        taken[d] = true;
+                        ds.add(d);
+                        dtos.add(dto);
+                    }
+                    if (!ds.isEmpty()) {
+                        started += ds.size();
+                        running += ds.size();
+                        launched += ds.size();
+                        launchGroup(ds, dtos, keys, pool, done);
+                        continue;
+                    }
+                    long now = System.currentTimeMillis();
+                    if (now - lastProgress >= boardWaitMs) {
+                        log.warn("party {}: no new dealer for {} ms, fixing Q1 with {} passed + {} running of {}",
+                                me, now - lastProgress, passed, running, target);
+                        boardOpen = false;
+                        continue;
+                    }
+                    if (now - lastLog >= 10_000) {
+                        log.info("party {} waiting for dealer #{} ({} passed)", me, next + 1, passed);
+                        lastLog = now;
+                    }
+                    // wake on whichever comes first: a new entry or a finished group
+                    if (running == 0)
+                        dealers.awaitAtLeast(next + 1, POLL_MS);
+                    else
+                        r = done.poll(POLL_MS / 10, TimeUnit.MILLISECONDS);
+                } else if (r == null) {
+                    if (running == 0)
+                        break;
+                    r = done.take();
+                }
+                if (r != null) {
+                    running -= r[0];
+                    passed += r[1];
+                    lastProgress = System.currentTimeMillis();
+                }
+            }
+        } finally {
+            if (shared == null)
+                dealers.close();
+        }
+        finalizeQ1Deterministically();
+    }
+
+    /**
+     * Steps 1–5 for a group of dealers on the pool: aggregates per dealer in
+     * parallel, then {@link #checkDealers}; posts {checked, passed} to done.
+     */
+    private void launchGroup(List<Integer> ds, List<SharingOutputDTO> dtos, EphemeralKeyDirectory keys,
+            Executor pool, BlockingQueue<int[]> done) {
+        List<CompletableFuture<DealerCheck>> prep = new ArrayList<>(ds.size());
+        for (int k = 0; k < ds.size(); k++) {
+            int d = ds.get(k);
+            SharingOutputDTO dto = dtos.get(k);
+            prep.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return recomputeAggregates(d, dto, keys);
+                } catch (Exception e) {
+                    log.warn("Party {}: verifying dealer {} failed: {}", me, d, e.toString());
+                    return null;
+                }
+            }, pool));
+        }
+        CompletableFuture.allOf(prep.toArray(new CompletableFuture<?>[0])).whenCompleteAsync((v, e) -> {
+            int passed = 0;
+            try {
+                List<DealerCheck> checks = new ArrayList<>(prep.size());
+                for (CompletableFuture<DealerCheck> f : prep)
+                    checks.add(f.isCompletedExceptionally() ? null : f.join());
+                passed = checkDealers(ds, checks);
+            } finally {
+                done.add(new int[] { ds.size(), passed });
+            }
+        }, pool);
+    }
+
+    /** Dealer output plus the recomputed SCRAPE aggregates, before the DLEQ. */
+    private static final class DealerCheck {
+        final SharingOutput so;
+        final int posMe;
+        final ECPoint U;
+        final ECPoint V;
+
+        DealerCheck(SharingOutput so, int posMe, ECPoint U, ECPoint V) {
+            this.so = so;
+            this.posMe = posMe;
+            this.U = U;
+            this.V = V;
+        }
+    }
+
+    /** Steps 1–2: collect Sh_j and recompute m*, U and V. */
+    private DealerCheck prepareDealer(int dealerToVerify) throws Exception {
         // Let Q₁ be the set of indices j such that Pⱼ are the first t+fₐ
         // parties to publish Sᵢⱼ on the PBB.
-        // → here we spin until we see the dealer’s SharingOutput Sᵢ,*
+        // → here we wait until we see the dealer’s SharingOutput Sᵢ,*
+        SharingOutputDTO dto = awaitDealer(dealerToVerify);
+        // E in PBB order and my slot in it, from the verified directory
+        EphemeralKeyDirectory keys = P.ephemeralKeys();
+        return P.compute(() -> recomputeAggregates(dealerToVerify, dto, keys));
+    }
 
-        SharingOutput so = fetchAndCollectDealer(dealerToVerify);
+    private DealerCheck recomputeAggregates(int dealerToVerify, SharingOutputDTO dto, EphemeralKeyDirectory keys)
+            throws Exception {
+        SharingOutput so = collectDealer(dealerToVerify, dto);
         SharingOutput CurrentDealer = so;
         boolean samedealer = true;
         // quick sanity check
@@ -163,25 +424,10 @@ public class VerificationPhase {
 
         System.out.println("is CurrentDealer == dealterToVerify??" + samedealer);
 
-        List<PublicKeysWithProofs> pubs = DkgUtils.fetchAllEphemeralPubs(ctx, pbb, n);
-        ECPoint[] E = new ECPoint[n];
-
-        // Build an E-order index map
-        java.util.Map<String, Integer> posByEnc = new java.util.HashMap<>();
-        for (int k = 0; k < n; k++) {
-            ECPoint Ek = pubs.get(k).getPublicKey().normalize();
-            E[k] = Ek;
-            // put it on the HashMap as a HexString.
-            posByEnc.put(org.bouncycastle.util.encoders.Hex.toHexString(Ek.getEncoded(true)), k);
-        }
-        int posMe;
-
-        String myEnc = org.bouncycastle.util.encoders.Hex
-                .toHexString(P.ephKey.getPublic().normalize().getEncoded(true));
-        Integer pm = posByEnc.get(myEnc);
-        if (pm == null)
+        ECPoint[] E = keys.getE();
+        int posMe = keys.positionOf(P.ephKey.getPublic());
+        if (posMe < 0)
             throw new IllegalStateException("Can't find myself in E-list");
-        posMe = pm;
 
         // 1) RE-DERIVE m*(x) using the correct dealerPub seed
         BigInteger[] mStar = HashingTools.deriveMStar(
@@ -201,44 +447,41 @@ public class VerificationPhase {
         BigInteger[] alpha = ctx.getAlphas(); // convention: alpha[1..n] are valid, alpha[0] unused
         BigInteger[] lambda = ctx.getVs(); // v_k for k in [0..n-1]
 
-        ECPoint U = G.getCurve().getInfinity();
-        ECPoint V = G.getCurve().getInfinity();
-
         // Use a 0-based loop variable k for recipients; map to alpha[k+1]
+        BigInteger[] f = DkgUtils.evalAll(mStar, alpha, p); // m*(α₁ … αₙ) in one pass
+        BigInteger[] w = new BigInteger[n];
         for (int k = 0; k < n; k++) {
-            BigInteger f = DkgUtils.evaluatePolynomial(mStar, alpha[k + 1], p);
-            BigInteger w = lambda[k].multiply(f).mod(p);
-
-            // E_k and C_{j,k} must be in party-index order [0..n-1]
-            U = U.add(E[k].multiply(w)).normalize();
-            V = V.add(CurrentDealer.Cij[k].multiply(w)).normalize();
+            w[k] = lambda[k].multiply(f[k + 1]).mod(p);
         }
+        // E_k and C_{j,k} must be in party-index order [0..n-1]
+        // U = Σ_d m*_d·P_d over the session basis (same for every dealer's E)
+        ECPoint U = ctx.getEphemeralBasis(E).aggregate(mStar).normalize();
+        ECPoint V = MultiScalarMul.sum(CurrentDealer.Cij, w).normalize();
 
-        // ---- 3) DLEQ ----
-        if (!NizkDlEqProof.verifyProof(ctx, CurrentDealer.dealerPub, U, V, CurrentDealer.proof)) {
-            log.info("dealer DLEQ failed {}", dealerToVerify);
-            // remove dealer if DLEQ fails.
-            for (int q = 0; q < Q1.size(); q++) {
-                if (Q1.get(q).getDealerIndex() == dealerToVerify) {
-                    Q1.remove(q);
-                    break;
-                }
-            }
-            // Skipping step 4, 5, 6
-            return;
-        }
+        return new DealerCheck(CurrentDealer, posMe, U, V);
+    }
+
+    /** DLEQ failed: drop the dealer from Q1. */
+    private void rejectDealer(int dealerToVerify) {
+        log.info("dealer DLEQ failed {}", dealerToVerify);
+        // remove dealer if DLEQ fails.
+        q1.remove(dealerToVerify);
+    }
+
+    /**
+     * DLEQ passed: add the dealer to Q1, then steps 4–5 for my own share.
+     *
+     * @return whether the dealer is in Q1 now, and was not before
+     */
+    private boolean acceptDealer(int dealerToVerify, DealerCheck c) throws Exception {
+        SharingOutput CurrentDealer = c.so;
+        int posMe = c.posMe;
+        BigInteger p = ctx.getOrder();
         log.info("DLEQ SUCCESS for dealer {}", dealerToVerify);
 
         // add dealer once
-        boolean alreadyInQ1 = false;
-        for (int q = 0; q < Q1.size(); q++) {
-            if (Q1.get(q).getDealerIndex() == dealerToVerify) {
-                alreadyInQ1 = true;
-                break;
-            }
-        }
-        if (!alreadyInQ1)
-            Q1.add(CurrentDealer);
+        if (!q1.add(CurrentDealer))
+            return false;
 
         // ---- 4) decrypt & unmask ONLY your share for this dealer (i = me) ----
         BigInteger sk_i = P.ephKey.getSecretKey();
@@ -256,7 +499,7 @@ public class VerificationPhase {
 
         // ------5) Check that A'j,i <-- a'j,i * G and, if not, remove from Q1 (In
         // practice it should go to step 6, compute a DLEQ and publish complaint)
-        if (!G.multiply(aji).normalize().equals(Aji)) {
+        if (!ctx.multiplyG(aji).normalize().equals(Aji)) {
             log.warn("Bad masked share for dealer {} (me={})", dealerToVerify, posMe);
             // dump minimal bytes to compare
             byte[] Aenc = Aji.getEncoded(true);
@@ -267,14 +510,10 @@ public class VerificationPhase {
             log.debug("H(A)={}", org.bouncycastle.util.encoders.Hex.toHexString(H));
             log.debug("a={}", aji.toString(16));
             log.debug("G·a={}",
-                    org.bouncycastle.util.encoders.Hex.toHexString(G.multiply(aji).normalize().getEncoded(true)));
+                    org.bouncycastle.util.encoders.Hex.toHexString(ctx.multiplyG(aji).normalize().getEncoded(true)));
             // drop this dealer for me
-            for (int q = 0; q < Q1.size(); q++)
-                if (Q1.get(q).getDealerIndex() == dealerToVerify) {
-                    Q1.remove(q);
-                    break;
-                }
-            return;
+            q1.remove(dealerToVerify);
+            return false;
         }
         // iff this check passes put Aji and aji on there hashmaps on the in the
         // VerificationPhase container.
@@ -285,7 +524,7 @@ public class VerificationPhase {
         int matchK = -1;
         for (int k = 0; k < n; k++) {
             BigInteger a_k = MaskedShareCHat.unmaskShare(Aji, CurrentDealer.CHat[k], ctx.getOrder());
-            if (G.multiply(a_k).normalize().equals(Aji)) {
+            if (ctx.multiplyG(a_k).normalize().equals(Aji)) {
                 matchK = k;
                 break;
             }
@@ -297,59 +536,71 @@ public class VerificationPhase {
         // Now unmask with our own ĉ_{j,i
 
         log.info("A'j,i equals Cj,i - ski * Ej");
-
+        return true;
     }
 
     // Threshold Key Computation (Optimistic, as part of Share Verification)
 
     public void publishThresholdOutput() throws Exception {
+        ShareVerificationOutputDTO dto = P.compute(this::thresholdOutput);
+        if (dto == null)
+            return;
+        pbb.publish("ShareVerificationOutput", dto);
+        log.info("→ DLEQ Θ_{}", me);
+    }
+
+    /** τ_pk_i and its DLEQ proof; null if there is nothing to publish. */
+    private ShareVerificationOutputDTO thresholdOutput() throws Exception {
         finalizeQ1Deterministically();
         if (Q1.isEmpty()) {
             log.error("Refusing to publish Θ_{}: Q1 is empty.", me);
-            return;
+            return null;
         }
 
         // Build τ from fresh A_{j,i} computed from the SAME column C_{j,i} used for W_i
-        ECPoint tau = G.getCurve().getInfinity();
-        ECPoint Wi = G.getCurve().getInfinity();
+        Q1Aggregate agg = q1Aggregate();
+        PointAccumulator tau = new PointAccumulator(G.getCurve());
         BigInteger sk_i = P.ephKey.getSecretKey();
+        ECPoint[] AjiFresh = new ECPoint[Q1.size()];
+        ECPoint[] E = new ECPoint[Q1.size()];
+        for (int q = 0; q < E.length; q++)
+            E[q] = Q1.get(q).getDealerPub();
+        ECPoint[] skEs = SameScalarMul.multiply(E, sk_i); // sk_i·E_j for all of Q1
 
-        for (SharingOutput shj : Q1) {
+        for (int q = 0; q < Q1.size(); q++) {
+            SharingOutput shj = Q1.get(q);
             int j = shj.getDealerIndex();
-            ECPoint Ej = shj.getDealerPub();
-            ECPoint Cji = shj.getCij()[me]; // the column you use for W_i
-            Wi = Wi.add(Cji).normalize();
+            ECPoint Cji = shj.getCij()[me]; // the column W_i = agg.getW(me) sums
 
             // ALWAYS recompute A_{j,i} from this C_{j,i} and E_j
-            ECPoint AjiFresh = Cji.subtract(Ej.multiply(sk_i)).normalize();
+            ECPoint skE = skEs[q];
+            AjiFresh[q] = Cji.subtract(skE);
 
             // (Optional sanity: per-dealer identity must hold)
-            ECPoint chk = AjiFresh.add(Ej.multiply(sk_i)).normalize();
-            if (!chk.equals(Cji)) {
+            if (!AjiFresh[q].add(skE).equals(Cji)) {
                 log.error("Per-dealer mismatch for dealer {}: A+skE != C (should never happen)", j);
             }
 
-            // Use fresh A for τ and refresh the cache
-            tau = tau.add(AjiFresh).normalize();
-            Aij.put(j, AjiFresh);
+            // Use fresh A for τ
+            tau.add(AjiFresh[q]);
         }
-        this.tauPki = tau;
+        // refresh the cache with affine A_{j,i} (one shared inversion)
+        DkgUtils.normalizeAll(AjiFresh);
+        for (int q = 0; q < Q1.size(); q++)
+            Aij.put(Q1.get(q).getDealerIndex(), AjiFresh[q]);
+        this.tauPki = tau.sum();
 
         // EQ1 := Σ_{j∈Q1} E_j (unambiguous)
-        ECPoint EQ1 = G.getCurve().getInfinity();
-        for (SharingOutput shj : Q1)
-            EQ1 = EQ1.add(shj.getDealerPub()).normalize();
+        ECPoint EQ1 = agg.getEQ1();
 
         // Publish Δ = s_i · EQ1 (canonical) and warn if local (W_i − τ) disagrees
         ECPoint deltaCanonical = EQ1.multiply(sk_i).normalize();
-        ECPoint deltaLocal = Wi.subtract(tau).normalize();
+        ECPoint deltaLocal = agg.getW(me).subtract(tauPki).normalize();
         if (!deltaLocal.equals(deltaCanonical)) {
             log.warn("Δ mismatch: (W_i−τ) != s_i·EQ1 (likely a stale A_{j,i} cache or dealer-column mismatch). " +
                     "Publishing proof with Δ = s_i·EQ1.");
         }
-        ECPoint delta = Wi.subtract(tau).normalize();
-        boolean sane = EQ1.multiply(P.ephKey.getSecretKey()).normalize().equals(delta);
-        log.debug("publish sanity: (Wi-τ)==s_i·EQ1 ? {}", sane);
+        log.debug("publish sanity: (Wi-τ)==s_i·EQ1 ? {}", deltaLocal.equals(deltaCanonical));
 
         ECPoint Ei = P.ephKey.getPublic();
         this.thresholdProof = NizkDlEqProof.generateProof(ctx, Ei, EQ1, deltaCanonical, sk_i);
@@ -359,53 +610,70 @@ public class VerificationPhase {
                 thresholdProof.getResponse().toString(16),
                 ok);
 
-        pbb.publish("ShareVerificationOutput",
-                ShareVerificationOutputDTO.from(new ShareVerificationPublish(me, tauPki, thresholdProof)));
-        log.info("→ DLEQ Θ_{}", me);
+        return ShareVerificationOutputDTO.from(new ShareVerificationPublish(me, tauPki, thresholdProof));
     }
 
     public List<ShareVerificationPublish> collectAndPruneThresholdOutputs() throws Exception {
-        finalizeQ1Deterministically();
-        ensureAijForFinalQ1(); // must be filled by VerifySharesFor()
-
-        // Build E[0..n-1] by partyIndex (don’t rely on fetch order!)
-        List<EphemeralKeyDTO> dtos = pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class);
-        ECPoint[] E = new ECPoint[n];
-        for (EphemeralKeyDTO dto : dtos) {
-            ECPoint P = ctx.getGenerator().getCurve()
-                    .decodePoint(org.bouncycastle.util.encoders.Hex.decode(dto.publicKey))
-                    .normalize();
-            E[dto.partyIndex] = P;
-        }
+        P.compute(() -> {
+            finalizeQ1Deterministically();
+            ensureAijForFinalQ1(); // must be filled by VerifySharesFor()
+            return null;
+        });
+
+        // E[0..n-1] by partyIndex (don’t rely on fetch order!)
+        ECPoint[] E = P.ephemeralKeys().getEByPartyIndex();
 
         int needed = t + fa;
-        java.util.Map<Integer, ShareVerificationPublish> received = new java.util.HashMap<>();
-        while (received.size() < needed) {
-            Thread.sleep(POLL_MS);
-            for (ShareVerificationOutputDTO dto : pbb.fetch("ShareVerificationOutput",
-                    ShareVerificationOutputDTO.class)) {
-                int pi = dto.verifierIndex;
-                if (!received.containsKey(pi)) {
-                    ShareVerificationPublish out = ShareVerificationPublish.fromDTO(dto, P.ctx);
-                    received.put(pi, out);
-                    log.info("Collected Θ_{} ({}/{})", pi, received.size(), needed);
-                    if (received.size() >= needed)
-                        break;
-                }
-            }
-        }
-        List<ShareVerificationPublish> Q2 = new ArrayList<>(received.values());
+        List<ShareVerificationPublish> Q2 = awaitThresholdOutputs(pbb, ctx, needed);
         log.info("✅ Q2 formed ({} parties)", Q2.size());
 
-        // EQ1 := Σ_{k∈Q1} E_k
-        ECPoint EQ1 = ctx.getGenerator().getCurve().getInfinity();
-        for (SharingOutput shj : Q1)
-            EQ1 = EQ1.add(shj.getDealerPub()).normalize();
+        // EQ1 and W_j come from the shared Q1 aggregate
+        P.compute(() -> {
+            pruneQ2(Q2, E, q1Aggregate());
+            return null;
+        });
+
+        if (Q2.size() < t + 1) {
+            throw new IllegalStateException("Not enough valid Θ for reconstruction: " + Q2.size());
+        }
+        return Q2;
+    }
 
-        // Prune invalid Θ_j. For each publisher j:
-        // W_j := Σ_{k∈Q1} C_{k, slotOf(X_j)}
-        // Δ_j := W_j − τ_{pk_j}
-        // verify DLEQ(G, X_j ; EQ1, Δ_j)
+    /**
+     * Step 5: the first {@code needed} Θ_i on the board, one per verifier;
+     * wakes on each arrival instead of polling.
+     */
+    static List<ShareVerificationPublish> awaitThresholdOutputs(PbbClient pbb, DkgContext ctx, int needed)
+            throws InterruptedException {
+        List<ShareVerificationOutputDTO> first;
+        try (TopicPoller<ShareVerificationOutputDTO> thetas = new TopicPoller<>(pbb, "ShareVerificationOutput",
+                ShareVerificationOutputDTO.class, dto -> String.valueOf(dto.verifierIndex), 0)) {
+            thetas.start();
+            while (!thetas.awaitAtLeast(needed, 10_000))
+                log.info("waiting for Θ ({}/{})", thetas.size(), needed);
+            first = thetas.snapshot().subList(0, needed);
+        }
+        List<ShareVerificationPublish> Q2 = new ArrayList<>(needed);
+        for (ShareVerificationOutputDTO dto : first) {
+            Q2.add(ShareVerificationPublish.fromDTO(dto, ctx));
+            log.info("Collected Θ_{} ({}/{})", dto.verifierIndex, Q2.size(), needed);
+        }
+        return Q2;
+    }
+
+    /**
+     * Prune invalid Θ_j. For each publisher j:
+     * W_j := Σ_{k∈Q1} C_{k,j}
+     * Δ_j := W_j − τ_{pk_j}
+     * verify DLEQ(G, X_j ; EQ1, Δ_j)
+     *
+     * All proofs share the base EQ1 and are checked in one batch; only the ones
+     * that fail take the E-slot fallback below before being dropped.
+     */
+    private void pruneQ2(List<ShareVerificationPublish> Q2, ECPoint[] E, Q1Aggregate agg) {
+        ECPoint EQ1 = agg.getEQ1();
+        List<ShareVerificationPublish> candidates = new ArrayList<>(Q2.size());
+        List<BatchDleqVerifier.Statement> stmts = new ArrayList<>(Q2.size());
         for (Iterator<ShareVerificationPublish> it = Q2.iterator(); it.hasNext();) {
             ShareVerificationPublish out = it.next();
             int j = out.verifierIndex;
@@ -418,17 +686,22 @@ public class VerificationPhase {
             }
 
             // W_j = Σ_{k∈Q1} C_{k,j} (NOTE: column index == party index j)
-            ECPoint Wj = ctx.getGenerator().getCurve().getInfinity();
-            for (SharingOutput shk : Q1) {
-                Wj = Wj.add(shk.getCij()[j]).normalize();
-            }
-            ECPoint deltaJ = Wj.subtract(out.tpki).normalize();
+            ECPoint deltaJ = agg.getW(j).subtract(out.tpki).normalize();
 
-            boolean ok = NizkDlEqProof.verifyProof(ctx, Xj, EQ1, deltaJ, out.Pftpki);
+            candidates.add(out);
+            stmts.add(new BatchDleqVerifier.Statement(Xj, EQ1, deltaJ, out.Pftpki));
+        }
+
+        boolean[] ok = BatchDleqVerifier.verify(ctx, stmts);
+
+        for (int c = 0; c < candidates.size(); c++) {
+            ShareVerificationPublish out = candidates.get(c);
+            int j = out.verifierIndex;
+            ECPoint Xj = E[j];
 
             // Optional one-shot fallback: if your dealers actually used an E-order column,
             // try the slot of Xj in E before dropping.
-            if (!ok) {
+            if (!ok[c]) {
                 int pos = -1;
                 for (int s = 0; s < n; s++) {
                     if (E[s] != null && E[s].equals(Xj)) {
@@ -437,87 +710,36 @@ public class VerificationPhase {
                     }
                 }
                 if (pos >= 0 && pos != j) {
-                    ECPoint Wj2 = ctx.getGenerator().getCurve().getInfinity();
-                    for (SharingOutput shk : Q1)
-                        Wj2 = Wj2.add(shk.getCij()[pos]).normalize();
-                    ECPoint deltaJ2 = Wj2.subtract(out.tpki).normalize();
-                    ok = NizkDlEqProof.verifyProof(ctx, Xj, EQ1, deltaJ2, out.Pftpki);
+                    ECPoint deltaJ2 = agg.getW(pos).subtract(out.tpki).normalize();
+                    ok[c] = NizkDlEqProof.verifyProof(ctx, Xj, EQ1, deltaJ2, out.Pftpki);
                 }
             }
 
-            if (!ok) {
+            if (!ok[c]) {
                 log.warn("↪ Threshold proof invalid for party {}, dropping from Q2", j);
-                it.remove();
+                Q2.remove(out);
             } else {
                 log.info("↪ Threshold proof OK for party {}", j);
             }
         }
-
-        if (Q2.size() < t + 1) {
-            throw new IllegalStateException("Not enough valid Θ for reconstruction: " + Q2.size());
-        }
-        return Q2;
     }
 
     public void finalReconstruction(List<SharingOutput> Q1, List<ShareVerificationPublish> Q2) throws Exception {
-        // Build E by party index again
-        List<EphemeralKeyDTO> dtos = pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class);
-        ECPoint[] E = new ECPoint[n];
-        for (EphemeralKeyDTO dto : dtos) {
-            ECPoint P = ctx.getGenerator().getCurve()
-                    .decodePoint(org.bouncycastle.util.encoders.Hex.decode(dto.publicKey))
-                    .normalize();
-            E[dto.partyIndex] = P;
-        }
-        // EQ1 := Σ_{k∈Q1} E_k
-        ECPoint EQ1 = ctx.getGenerator().getCurve().getInfinity();
-        for (SharingOutput shj : Q1)
-            EQ1 = EQ1.add(shj.getDealerPub()).normalize();
-
-        for (Iterator<ShareVerificationPublish> it = Q2.iterator(); it.hasNext();) {
-            ShareVerificationPublish out = it.next();
-            int j = out.verifierIndex;
-            ECPoint Xj = E[j];
-            if (Xj == null) {
-                it.remove();
-                continue;
-            }
-
-            ECPoint Wj = ctx.getGenerator().getCurve().getInfinity();
-            for (SharingOutput sh : Q1)
-                Wj = Wj.add(sh.getCij()[j]).normalize();
-            ECPoint deltaJ = Wj.subtract(out.tpki).normalize();
-
-            boolean ok = NizkDlEqProof.verifyProof(ctx, Xj, EQ1, deltaJ, out.Pftpki);
-            if (!ok) {
-                // Same optional fallback as above
-                int pos = -1;
-                for (int s = 0; s < n; s++) {
-                    if (E[s] != null && E[s].equals(Xj)) {
-                        pos = s;
-                        break;
-                    }
-                }
-                if (pos >= 0 && pos != j) {
-                    ECPoint Wj2 = ctx.getGenerator().getCurve().getInfinity();
-                    for (SharingOutput sh : Q1)
-                        Wj2 = Wj2.add(sh.getCij()[pos]).normalize();
-                    ECPoint deltaJ2 = Wj2.subtract(out.tpki).normalize();
-                    ok = NizkDlEqProof.verifyProof(ctx, Xj, EQ1, deltaJ2, out.Pftpki);
-                }
-            }
+        // E by party index again
+        ECPoint[] E = P.ephemeralKeys().getEByPartyIndex();
+        P.compute(() -> {
+            reconstruct(Q2, E);
+            return null;
+        });
+    }
 
-            // ---- Step 7: Reconstruct the group public key G^x from τ_pk_j (j ∈ Q2) ----
-            // Do NOT re-decrypt or re-unmask here; that was done in VerifySharesFor().
-            // We only need τ_pk_j (out.tpki) and the evaluation points.
+    private void reconstruct(List<ShareVerificationPublish> Q2, ECPoint[] E) {
+        // EQ1 and W_j come from the shared Q1 aggregate
+        pruneQ2(Q2, E, q1Aggregate());
 
-            if (!ok) {
-                log.warn("↪ Threshold proof invalid for party {}, dropping from Q2", j);
-                it.remove();
-            } else {
-                log.info("↪ Threshold proof OK for party {}", j);
-            }
-        }
+        // ---- Step 7: Reconstruct the group public key G^x from τ_pk_j (j ∈ Q2) ----
+        // Do NOT re-decrypt or re-unmask here; that was done in VerifySharesFor().
+        // We only need τ_pk_j (out.tpki) and the evaluation points.
 
         // Reconstruct G^x from the remaining τ_pk_j (unchanged)
         int m2 = Q2.size();
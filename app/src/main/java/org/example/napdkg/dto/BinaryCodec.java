@@ -0,0 +1,311 @@
+package org.example.napdkg.dto;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.encoders.Hex;
+import org.example.napdkg.client.GsonFactory;
+import org.example.napdkg.client.WireCodec;
+import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.core.NizkDlProof;
+import org.example.napdkg.core.ShareVerificationPublish;
+import org.example.napdkg.core.SharingOutput;
+
+import com.google.gson.Gson;
+
+/**
+ * Compact binary form of the DKG messages, under half the size of their JSON.
+ *
+ * Frame: version (u8) | type (u8) | id length (u16, 0xFFFF = null) | id
+ * (UTF-8) | body. Points are 33-byte compressed encodings, scalars 32-byte
+ * unsigned big-endian, arrays an i32 count followed by the elements.
+ * <ul>
+ * <li>EphemeralKeyDTO: partyIndex (i32) | pk | Schnorr version (u8) | e | z</li>
+ * <li>SharingOutputDTO: dealer (i32) | publisher (i32) | pk | C[] | Ĉ[] | π</li>
+ * <li>ShareVerificationOutputDTO: verifier (i32) | τ | π</li>
+ * <li>π: version (u8) | v1: e | z, v2 and v3: a1 | a2 | z</li>
+ * </ul>
+ * Any other type is carried as a JSON body.
+ *
+ * Encoding copies the hex fields' bytes into the frame: no point of a DTO
+ * built for publishing is decoded. Decoding reads straight from the buffer
+ * into points and scalars. A decoded
+ * SharingOutputDTO / ShareVerificationOutputDTO holds its domain form (see
+ * {@code getDecoded()}) and leaves the hex fields null; an EphemeralKeyDTO
+ * gets its hex fields, which EphemeralKeyDirectory keys its cache on.
+ */
+public final class BinaryCodec implements WireCodec {
+    public static final int VERSION = 1;
+
+    static final int JSON = 0;
+    static final int EPHEMERAL_KEY = 1;
+    static final int SHARING_OUTPUT = 2;
+    static final int SHARE_VERIFICATION = 3;
+
+    static final int POINT_LEN = 33;
+    static final int SCALAR_LEN = 32;
+    private static final int NULL_ID = 0xFFFF;
+
+    private final ECCurve curve;
+    private final Gson gson;
+
+    /** For secp256r1, the curve of GroupGenerator. */
+    public BinaryCodec() {
+        this(CustomNamedCurves.getByName("secp256r1").getCurve());
+    }
+
+    public BinaryCodec(ECCurve curve) {
+        this.curve = curve;
+        this.gson = GsonFactory.createGson();
+    }
+
+    // ---------------- encode ----------------
+
+    @Override
+    public ByteBuffer encode(Object msg) {
+        if (msg instanceof EphemeralKeyDTO) {
+            EphemeralKeyDTO e = (EphemeralKeyDTO) msg;
+            NizkDlProof prf = NizkDlProof.decode(e.schnorrProof);
+            ByteBuffer out = header(EPHEMERAL_KEY, e.id, 4 + POINT_LEN + 1 + 2 * SCALAR_LEN);
+            out.putInt(e.partyIndex);
+            putPoint(out, e.publicKey);
+            out.put((byte) prf.getVersion());
+            putScalar(out, prf.getChallenge());
+            putScalar(out, prf.getResponse());
+            return out.flip();
+        }
+        if (msg instanceof SharingOutputDTO) {
+            SharingOutputDTO dto = (SharingOutputDTO) msg;
+            if (dto.decoded != null)
+                return sharingOutput(dto.id, dto.decoded);
+            ByteBuffer out = header(SHARING_OUTPUT, dto.id,
+                    8 + POINT_LEN + 4 + dto.Cij.length * POINT_LEN + 4 + dto.CHat.length * SCALAR_LEN
+                            + proofSize(dto.proof.getVersion()));
+            out.putInt(dto.dealerIndexDTO).putInt(dto.publisherindexDTO);
+            putPoint(out, dto.dealerPub);
+            out.putInt(dto.Cij.length);
+            for (String c : dto.Cij)
+                putPoint(out, c);
+            out.putInt(dto.CHat.length);
+            for (String c : dto.CHat)
+                putScalar(out, new BigInteger(c, 16));
+            putProof(out, dto.proof);
+            return out.flip();
+        }
+        if (msg instanceof ShareVerificationOutputDTO) {
+            ShareVerificationOutputDTO dto = (ShareVerificationOutputDTO) msg;
+            if (dto.decoded != null)
+                return shareVerification(dto.id, dto.decoded);
+            ByteBuffer out = header(SHARE_VERIFICATION, dto.id, 4 + POINT_LEN + proofSize(dto.proof.getVersion()));
+            out.putInt(dto.verifierIndex);
+            putPoint(out, dto.tauPki);
+            putProof(out, dto.proof);
+            return out.flip();
+        }
+        byte[] json = gson.toJson(msg).getBytes(StandardCharsets.UTF_8);
+        return header(JSON, null, json.length).put(json).flip();
+    }
+
+    /** @return a buffer of the exact frame size, filled up to the body */
+    private static ByteBuffer header(int type, String id, int bodyLen) {
+        byte[] b = id == null ? null : id.getBytes(StandardCharsets.UTF_8);
+        if (b != null && b.length >= NULL_ID)
+            throw new IllegalArgumentException("id too long");
+        ByteBuffer out = ByteBuffer.allocate(4 + (b == null ? 0 : b.length) + bodyLen);
+        out.put((byte) VERSION).put((byte) type);
+        if (b == null)
+            return out.putShort((short) NULL_ID);
+        return out.putShort((short) b.length).put(b);
+    }
+
+    /** A DTO that was itself read by this codec: written from its domain form. */
+    private static ByteBuffer sharingOutput(String id, SharingOutput so) {
+        ByteBuffer out = header(SHARING_OUTPUT, id,
+                8 + POINT_LEN + 4 + so.Cij.length * POINT_LEN + 4 + so.CHat.length * SCALAR_LEN
+                        + proofSize(so.proof.getVersion()));
+        out.putInt(so.dealerIndex).putInt(so.publisherIndex);
+        putPoint(out, so.dealerPub);
+        out.putInt(so.Cij.length);
+        for (ECPoint c : so.Cij)
+            putPoint(out, c);
+        out.putInt(so.CHat.length);
+        for (BigInteger c : so.CHat)
+            putScalar(out, c);
+        putProof(out, so.proof);
+        return out.flip();
+    }
+
+    private static ByteBuffer shareVerification(String id, ShareVerificationPublish sv) {
+        ByteBuffer out = header(SHARE_VERIFICATION, id, 4 + POINT_LEN + proofSize(sv.Pftpki.getVersion()));
+        out.putInt(sv.verifierIndex);
+        putPoint(out, sv.tpki);
+        putProof(out, sv.Pftpki);
+        return out.flip();
+    }
+
+    private static int proofSize(int version) {
+        return 1 + (NizkDlEqProof.carriesCommitments(version) ? 2 * POINT_LEN : SCALAR_LEN) + SCALAR_LEN;
+    }
+
+    /** The hex fields as they are: commitments are compressed points already. */
+    private void putProof(ByteBuffer out, DleqProofDTO dto) {
+        int version = dto.getVersion();
+        if (!NizkDlEqProof.carriesCommitments(version)) {
+            putProof(out, dto.toProof()); // v1's challenge may be hex or decimal
+            return;
+        }
+        out.put((byte) version);
+        putPoint(out, dto.a1);
+        putPoint(out, dto.a2);
+        putScalar(out, new BigInteger(dto.response, 16));
+    }
+
+    private static void putProof(ByteBuffer out, NizkDlEqProof prf) {
+        out.put((byte) prf.getVersion());
+        if (NizkDlEqProof.carriesCommitments(prf.getVersion())) {
+            putPoint(out, prf.getA1());
+            putPoint(out, prf.getA2());
+        } else {
+            putScalar(out, prf.getChallenge());
+        }
+        putScalar(out, prf.getResponse());
+    }
+
+    private static void putPoint(ByteBuffer out, ECPoint p) {
+        putPoint(out, p.getEncoded(true));
+    }
+
+    /** A hex point field: copied if compressed (the usual case), else re-encoded. */
+    private void putPoint(ByteBuffer out, String hex) {
+        byte[] b = Hex.decode(hex);
+        if (b.length == POINT_LEN)
+            out.put(b);
+        else
+            putPoint(out, curve.decodePoint(b));
+    }
+
+    private static void putPoint(ByteBuffer out, byte[] compressed) {
+        if (compressed.length != POINT_LEN)
+            throw new IllegalArgumentException("not a compressed point (" + compressed.length + " bytes)");
+        out.put(compressed);
+    }
+
+    /** @throws IllegalArgumentException if x is negative or wider than 32 bytes */
+    private static void putScalar(ByteBuffer out, BigInteger x) {
+        if (x.signum() < 0)
+            throw new IllegalArgumentException("negative scalar");
+        out.put(BigIntegers.asUnsignedByteArray(SCALAR_LEN, x));
+    }
+
+    // ---------------- decode ----------------
+
+    @Override
+    public <T> T decode(ByteBuffer buf, Class<T> clazz) {
+        ByteBuffer in = buf.slice();
+        int version = in.get() & 0xFF;
+        if (version != VERSION)
+            throw new IllegalArgumentException("unsupported wire version " + version);
+        int type = in.get() & 0xFF;
+        int idLen = in.getShort() & 0xFFFF;
+        String id = null;
+        if (idLen != NULL_ID) {
+            byte[] b = new byte[idLen];
+            in.get(b);
+            id = new String(b, StandardCharsets.UTF_8);
+        }
+
+        Object msg;
+        switch (type) {
+            case EPHEMERAL_KEY:
+                msg = readEphemeralKey(in, id);
+                break;
+            case SHARING_OUTPUT:
+                msg = readSharingOutput(in, id);
+                break;
+            case SHARE_VERIFICATION:
+                msg = readShareVerification(in, id);
+                break;
+            case JSON:
+                return gson.fromJson(StandardCharsets.UTF_8.decode(in).toString(), clazz);
+            default:
+                throw new IllegalArgumentException("unknown message type " + type);
+        }
+        if (!clazz.isInstance(msg))
+            throw new IllegalArgumentException(
+                    msg.getClass().getSimpleName() + " cannot be read as " + clazz.getName());
+        return clazz.cast(msg);
+    }
+
+    private EphemeralKeyDTO readEphemeralKey(ByteBuffer in, String id) {
+        int partyIndex = in.getInt();
+        byte[] pk = new byte[POINT_LEN];
+        in.get(pk);
+        int version = in.get() & 0xFF;
+        NizkDlProof prf = new NizkDlProof(version, readScalar(in), readScalar(in));
+        return new EphemeralKeyDTO(id, partyIndex, Hex.toHexString(pk), prf.encode());
+    }
+
+    private SharingOutputDTO readSharingOutput(ByteBuffer in, String id) {
+        SharingOutputDTO dto = new SharingOutputDTO();
+        dto.id = id;
+        dto.dealerIndexDTO = in.getInt();
+        dto.publisherindexDTO = in.getInt();
+        ECPoint dealerPub = readPoint(in);
+        ECPoint[] cij = new ECPoint[count(in, POINT_LEN)];
+        for (int i = 0; i < cij.length; i++)
+            cij[i] = readPoint(in);
+        BigInteger[] cHat = new BigInteger[count(in, SCALAR_LEN)];
+        for (int i = 0; i < cHat.length; i++)
+            cHat[i] = readScalar(in);
+        dto.decoded = new SharingOutput(dto.dealerIndexDTO, dto.publisherindexDTO, dealerPub, cij, cHat,
+                readProof(in));
+        return dto;
+    }
+
+    private ShareVerificationOutputDTO readShareVerification(ByteBuffer in, String id) {
+        ShareVerificationOutputDTO dto = new ShareVerificationOutputDTO();
+        dto.id = id;
+        dto.verifierIndex = in.getInt();
+        ECPoint tau = readPoint(in);
+        dto.decoded = new ShareVerificationPublish(dto.verifierIndex, tau, readProof(in));
+        return dto;
+    }
+
+    private NizkDlEqProof readProof(ByteBuffer in) {
+        int version = in.get() & 0xFF;
+        switch (version) {
+            case NizkDlEqProof.V1_CHALLENGE:
+                return new NizkDlEqProof(readScalar(in), readScalar(in));
+            case NizkDlEqProof.V2_COMMITMENT:
+            case NizkDlEqProof.V3_TRANSCRIPT:
+                return new NizkDlEqProof(version, readPoint(in), readPoint(in), readScalar(in));
+            default:
+                throw new IllegalArgumentException("unknown DLEQ proof version " + version);
+        }
+    }
+
+    private ECPoint readPoint(ByteBuffer in) {
+        byte[] b = new byte[POINT_LEN];
+        in.get(b);
+        return curve.decodePoint(b).normalize();
+    }
+
+    private static BigInteger readScalar(ByteBuffer in) {
+        byte[] b = new byte[SCALAR_LEN];
+        in.get(b);
+        return new BigInteger(1, b);
+    }
+
+    /** An array count, checked against the bytes left so a bad frame cannot over-allocate. */
+    private static int count(ByteBuffer in, int elementLen) {
+        int n = in.getInt();
+        if (n < 0 || (long) n * elementLen > in.remaining())
+            throw new IllegalArgumentException("bad array length " + n);
+        return n;
+    }
+}
@@ -3,15 +3,58 @@ package org.example.napdkg.dto;
 
 import java.math.BigInteger;
 
+import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.util.DkgContext;
 
+/**
+ * Wire form of a DLEQ proof.
+ *
+ * version 1 (or absent, pre-versioning payloads): challenge + response
+ * version 2, 3: a1 + a2 (compressed points) + response, challenge omitted
+ * (the two differ in how the verifier recomputes the challenge)
+ */
 public class DleqProofDTO {
-    public final String challenge; // hex or decimal
+    public final int version;
+    public final String challenge; // hex or decimal (v1)
     public final String response;
+    public final String a1; // hex, compressed (v2/v3)
+    public final String a2; // hex, compressed (v2/v3)
 
     public DleqProofDTO(BigInteger e, BigInteger z) {
+        this.version = NizkDlEqProof.V1_CHALLENGE;
         this.challenge = e.toString(16);
         this.response = z.toString(16);
+        this.a1 = null;
+        this.a2 = null;
+    }
+
+    private DleqProofDTO(NizkDlEqProof prf) {
+        this.version = prf.getVersion();
+        this.challenge = null;
+        this.response = prf.getResponse().toString(16);
+        this.a1 = Hex.toHexString(prf.getA1().normalize().getEncoded(true));
+        this.a2 = Hex.toHexString(prf.getA2().normalize().getEncoded(true));
+    }
+
+    /** As read back from JSON, see {@link DtoTypeAdapters}. */
+    DleqProofDTO(int version, String challenge, String response, String a1, String a2) {
+        this.version = version;
+        this.challenge = challenge;
+        this.response = response;
+        this.a1 = a1;
+        this.a2 = a2;
+    }
+
+    public static DleqProofDTO from(NizkDlEqProof prf) {
+        if (NizkDlEqProof.carriesCommitments(prf.getVersion()))
+            return new DleqProofDTO(prf);
+        return new DleqProofDTO(prf.getChallenge(), prf.getResponse());
+    }
+
+    /** @return the format version, treating untagged payloads as v1 */
+    public int getVersion() {
+        return version == 0 ? NizkDlEqProof.V1_CHALLENGE : version;
     }
 
     public String getChallenge() {
@@ -22,10 +65,28 @@ public class DleqProofDTO {
         return response;
     }
 
+    /** v1 only; v2/v3 proofs need the curve, see {@link #toProof(DkgContext)}. */
     public NizkDlEqProof toProof() {
+        if (getVersion() != NizkDlEqProof.V1_CHALLENGE)
+            throw new IllegalStateException("v" + getVersion() + " proof needs a DkgContext to decode");
         // parse the stored hex‐strings back into BigIntegers
         BigInteger eBI = new BigInteger(this.challenge, 16);
         BigInteger zBI = new BigInteger(this.response, 16);
         return new NizkDlEqProof(eBI, zBI);
     }
+
+    public NizkDlEqProof toProof(DkgContext ctx) {
+        switch (getVersion()) {
+            case NizkDlEqProof.V1_CHALLENGE:
+                return toProof();
+            case NizkDlEqProof.V2_COMMITMENT:
+            case NizkDlEqProof.V3_TRANSCRIPT:
+                return new NizkDlEqProof(version,
+                        ctx.getCurve().decodePoint(Hex.decode(a1)).normalize(),
+                        ctx.getCurve().decodePoint(Hex.decode(a2)).normalize(),
+                        new BigInteger(response, 16));
+            default:
+                throw new IllegalArgumentException("unknown DLEQ proof version " + version);
+        }
+    }
 }
@@ -0,0 +1,274 @@
+package org.example.napdkg.dto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming Gson adapters for the DTOs, in place of reflection. They write
+ * the same JSON the reflective adapters did (same names, same order, nulls
+ * as the writer is configured) and read it back in any field order, skipping
+ * unknown fields such as ones json-server adds. Registered by GsonFactory.
+ */
+public final class DtoTypeAdapters implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == EphemeralKeyDTO.class)
+            return (TypeAdapter<T>) EPHEMERAL_KEY;
+        if (raw == SharingOutputDTO.class)
+            return (TypeAdapter<T>) SHARING_OUTPUT;
+        if (raw == ShareVerificationOutputDTO.class)
+            return (TypeAdapter<T>) SHARE_VERIFICATION;
+        if (raw == DleqProofDTO.class)
+            return (TypeAdapter<T>) DLEQ_PROOF;
+        return null;
+    }
+
+    static final TypeAdapter<EphemeralKeyDTO> EPHEMERAL_KEY = new TypeAdapter<EphemeralKeyDTO>() {
+        @Override
+        public void write(JsonWriter out, EphemeralKeyDTO v) throws IOException {
+            if (v == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(v.id);
+            out.name("partyIndex").value(v.partyIndex);
+            out.name("publicKey").value(v.publicKey);
+            out.name("schnorrProof").value(v.schnorrProof);
+            out.endObject();
+        }
+
+        @Override
+        public EphemeralKeyDTO read(JsonReader in) throws IOException {
+            if (skipNull(in))
+                return null;
+            EphemeralKeyDTO v = new EphemeralKeyDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in))
+                    continue;
+                switch (name) {
+                    case "id":
+                        v.id = in.nextString();
+                        break;
+                    case "partyIndex":
+                        v.partyIndex = in.nextInt();
+                        break;
+                    case "publicKey":
+                        v.publicKey = in.nextString();
+                        break;
+                    case "schnorrProof":
+                        v.schnorrProof = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return v;
+        }
+    };
+
+    static final TypeAdapter<SharingOutputDTO> SHARING_OUTPUT = new TypeAdapter<SharingOutputDTO>() {
+        @Override
+        public void write(JsonWriter out, SharingOutputDTO v) throws IOException {
+            if (v == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(v.id);
+            out.name("dealerIndexDTO").value(v.dealerIndexDTO);
+            out.name("publisherindexDTO").value(v.publisherindexDTO);
+            out.name("dealerPub").value(v.dealerPub);
+            out.name("Cij");
+            writeStrings(out, v.Cij);
+            out.name("CHat");
+            writeStrings(out, v.CHat);
+            out.name("proof");
+            DLEQ_PROOF.write(out, v.proof);
+            out.endObject();
+        }
+
+        @Override
+        public SharingOutputDTO read(JsonReader in) throws IOException {
+            if (skipNull(in))
+                return null;
+            SharingOutputDTO v = new SharingOutputDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in))
+                    continue;
+                switch (name) {
+                    case "id":
+                        v.id = in.nextString();
+                        break;
+                    case "dealerIndexDTO":
+                        v.dealerIndexDTO = in.nextInt();
+                        break;
+                    case "publisherindexDTO":
+                        v.publisherindexDTO = in.nextInt();
+                        break;
+                    case "dealerPub":
+                        v.dealerPub = in.nextString();
+                        break;
+                    case "Cij":
+                        v.Cij = readStrings(in);
+                        break;
+                    case "CHat":
+                        v.CHat = readStrings(in);
+                        break;
+                    case "proof":
+                        v.proof = DLEQ_PROOF.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return v;
+        }
+    };
+
+    static final TypeAdapter<ShareVerificationOutputDTO> SHARE_VERIFICATION = new TypeAdapter<ShareVerificationOutputDTO>() {
+        @Override
+        public void write(JsonWriter out, ShareVerificationOutputDTO v) throws IOException {
+            if (v == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(v.id);
+            out.name("verifierIndex").value(v.verifierIndex);
+            out.name("tauPki").value(v.tauPki);
+            out.name("proof");
+            DLEQ_PROOF.write(out, v.proof);
+            out.endObject();
+        }
+
+        @Override
+        public ShareVerificationOutputDTO read(JsonReader in) throws IOException {
+            if (skipNull(in))
+                return null;
+            ShareVerificationOutputDTO v = new ShareVerificationOutputDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in))
+                    continue;
+                switch (name) {
+                    case "id":
+                        v.id = in.nextString();
+                        break;
+                    case "verifierIndex":
+                        v.verifierIndex = in.nextInt();
+                        break;
+                    case "tauPki":
+                        v.tauPki = in.nextString();
+                        break;
+                    case "proof":
+                        v.proof = DLEQ_PROOF.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return v;
+        }
+    };
+
+    static final TypeAdapter<DleqProofDTO> DLEQ_PROOF = new TypeAdapter<DleqProofDTO>() {
+        @Override
+        public void write(JsonWriter out, DleqProofDTO v) throws IOException {
+            if (v == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("version").value(v.version);
+            out.name("challenge").value(v.challenge);
+            out.name("response").value(v.response);
+            out.name("a1").value(v.a1);
+            out.name("a2").value(v.a2);
+            out.endObject();
+        }
+
+        @Override
+        public DleqProofDTO read(JsonReader in) throws IOException {
+            if (skipNull(in))
+                return null;
+            int version = 0;
+            String challenge = null, response = null, a1 = null, a2 = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (skipNull(in))
+                    continue;
+                switch (name) {
+                    case "version":
+                        version = in.nextInt();
+                        break;
+                    case "challenge":
+                        challenge = in.nextString();
+                        break;
+                    case "response":
+                        response = in.nextString();
+                        break;
+                    case "a1":
+                        a1 = in.nextString();
+                        break;
+                    case "a2":
+                        a2 = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DleqProofDTO(version, challenge, response, a1, a2);
+        }
+    };
+
+    /** Consumes a JSON null. @return whether there was one */
+    private static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.NULL)
+            return false;
+        in.nextNull();
+        return true;
+    }
+
+    private static void writeStrings(JsonWriter out, String[] a) throws IOException {
+        if (a == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String s : a)
+            out.value(s);
+        out.endArray();
+    }
+
+    private static String[] readStrings(JsonReader in) throws IOException {
+        List<String> out = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext())
+            out.add(skipNull(in) ? null : in.nextString());
+        in.endArray();
+        return out.toArray(new String[0]);
+    }
+}
@@ -10,6 +10,9 @@ public class ShareVerificationOutputDTO {
     public String tauPki; // hex-encoded τ_{pk_i}
     public DleqProofDTO proof; // the final threshold DLEQ proof
 
+    // set by BinaryCodec, which skips tauPki and proof (they stay null)
+    transient ShareVerificationPublish decoded;
+
     /** no-arg for Gson */
     public ShareVerificationOutputDTO() {
     }
@@ -20,9 +23,12 @@ public class ShareVerificationOutputDTO {
                 in.tpki
                         .normalize()
                         .getEncoded(false));
-        this.proof = new DleqProofDTO(
-                in.Pftpki.getChallenge(),
-                in.Pftpki.getResponse());
+        this.proof = DleqProofDTO.from(in.Pftpki);
+    }
+
+    /** @return the domain form if this DTO was read by {@link BinaryCodec}, else null */
+    public ShareVerificationPublish getDecoded() {
+        return decoded;
     }
 
     /** factory for publishing */
@@ -2,6 +2,7 @@ package org.example.napdkg.dto;
 
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.core.SharingOutput;
+import org.example.napdkg.util.DkgUtils;
 
 public class SharingOutputDTO {
     // make id non-final, provide a no-arg ctor
@@ -12,6 +13,9 @@ public class SharingOutputDTO {
     public String[] CHat; // hex[]
     public DleqProofDTO proof;
 
+    // set by BinaryCodec, which skips the hex fields (they stay null)
+    transient SharingOutput decoded;
+
     // needed so Gson can do `new SharingOutputDTO()` and then set fields by
     // reflection
     public SharingOutputDTO() {
@@ -22,15 +26,16 @@ public class SharingOutputDTO {
         this.dealerIndexDTO = in.dealerIndex;
         this.publisherindexDTO = in.publisherIndex;
         this.dealerPub = Hex.toHexString(in.dealerPub.normalize().getEncoded(true));
-        this.Cij = new String[in.Cij.length];
+        this.Cij = DkgUtils.encodePoints(in.Cij);
         this.CHat = new String[in.CHat.length];
-        for (int i = 0; i < in.Cij.length; i++)
-            this.Cij[i] = Hex.toHexString(in.Cij[i].normalize().getEncoded(true));
         for (int i = 0; i < in.CHat.length; i++)
             this.CHat[i] = in.CHat[i].toString(16);
-        this.proof = new DleqProofDTO(
-                in.proof.getChallenge(),
-                in.proof.getResponse());
+        this.proof = DleqProofDTO.from(in.proof);
+    }
+
+    /** @return the domain form if this DTO was read by {@link BinaryCodec}, else null */
+    public SharingOutput getDecoded() {
+        return decoded;
     }
 
     public DleqProofDTO getProof() {
@@ -0,0 +1,90 @@
+package org.example.napdkg.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link TopicStore} on the heap. Same layout as InMemoryPbbClient's topics:
+ * writers serialize on the topic, readers take no lock.
+ */
+public class InMemoryTopicStore implements TopicStore {
+
+    private static final class Topic {
+        final Map<String, Long> seqById = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, Entry> log = new ConcurrentSkipListMap<>();
+        volatile long lastSeq; // written under this
+    }
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    @Override
+    public long append(String topic, String id, ByteBuffer json) {
+        Topic tp = topics.computeIfAbsent(topic, k -> new Topic());
+        synchronized (tp) {
+            long seq = tp.lastSeq + 1;
+            tp.log.put(seq, new Entry(id, seq, json));
+            Long old = tp.seqById.put(id, seq);
+            if (old != null)
+                tp.log.remove(old);
+            tp.lastSeq = seq;
+            return seq;
+        }
+    }
+
+    @Override
+    public List<Entry> since(String topic, long cursor) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return new ArrayList<>();
+        return new ArrayList<>(tp.log.tailMap(cursor, false).values());
+    }
+
+    @Override
+    public Entry get(String topic, String id) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return null;
+        Long seq = tp.seqById.get(id);
+        return seq == null ? null : tp.log.get(seq);
+    }
+
+    @Override
+    public Entry delete(String topic, String id) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return null;
+        synchronized (tp) {
+            Long seq = tp.seqById.remove(id);
+            return seq == null ? null : tp.log.remove(seq);
+        }
+    }
+
+    @Override
+    public List<String> ids(String topic) {
+        List<String> ids = new ArrayList<>();
+        for (Entry e : since(topic, 0L))
+            ids.add(e.id());
+        return ids;
+    }
+
+    @Override
+    public void truncate(String topic) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return;
+        synchronized (tp) {
+            tp.log.clear();
+            tp.seqById.clear();
+        }
+    }
+
+    @Override
+    public long lastSeq(String topic) {
+        Topic tp = topics.get(topic);
+        return tp == null ? 0L : tp.lastSeq;
+    }
+}
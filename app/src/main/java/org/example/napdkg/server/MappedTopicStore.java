@@ -0,0 +1,356 @@
+package org.example.napdkg.server;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durable {@link TopicStore}: each topic is one append-only segment file,
+ * written and read through a {@link MappedByteBuffer}.
+ *
+ * File {@code <topic>.<epoch>.seg}:
+ * header magic "PBB1" | epoch (8) | base seq (8)
+ * record len (4) | crc32 (4) | type (1) | seq (8) | id len (2) | id | body
+ *
+ * len counts the bytes after the crc and is written last, so a record torn
+ * by a crash reads as len 0 or fails its crc; the scan on open stops there
+ * and the next append overwrites it. A DELETE appends a tombstone.
+ *
+ * The offset index (seq → entry, id → seq) is rebuilt by that scan, without
+ * parsing any JSON, and entry bodies are read-only slices of the mapping, so
+ * reads copy nothing. {@link #truncate} starts the next epoch in a fresh
+ * file and drops the old one; sequence numbers continue from the old epoch,
+ * so cursors stay valid.
+ *
+ * Appends go to the page cache; pass {@code syncEachAppend} to force every
+ * record to disk as well.
+ */
+public class MappedTopicStore implements TopicStore {
+    private static final Logger log = LoggerFactory.getLogger(MappedTopicStore.class);
+
+    private static final int MAGIC = 0x50424231; // "PBB1"
+    private static final int FILE_HEADER = 4 + 8 + 8;
+    private static final int RECORD_PREFIX = 4 + 4; // len, crc
+    private static final int RECORD_FIXED = 1 + 8 + 2; // type, seq, id len
+    private static final byte PUT = 1;
+    private static final byte DEL = 2;
+    private static final String SUFFIX = ".seg";
+
+    static final int INITIAL_SIZE = 1 << 20;
+
+    private final Path dir;
+    private final boolean syncEachAppend;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    /** One topic's live segment and its index; writers hold the monitor. */
+    private static final class Topic {
+        final Map<String, Long> seqById = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, Entry> log = new ConcurrentSkipListMap<>();
+        volatile long lastSeq;
+
+        long epoch;
+        Path file;
+        FileChannel ch;
+        MappedByteBuffer map;
+        int writePos;
+    }
+
+    public MappedTopicStore(Path dir) throws IOException {
+        this(dir, false);
+    }
+
+    /**
+     * Opens (or creates) a store in {@code dir}, recovering every topic found
+     * there.
+     */
+    public MappedTopicStore(Path dir, boolean syncEachAppend) throws IOException {
+        this.dir = dir;
+        this.syncEachAppend = syncEachAppend;
+        Files.createDirectories(dir);
+
+        // newest epoch per topic wins; older ones are leftovers of a truncate
+        Map<String, Path> newest = new HashMap<>();
+        Map<String, Long> newestEpoch = new HashMap<>();
+        List<Path> stale = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path p : ds) {
+                String name = p.getFileName().toString();
+                String stem = name.substring(0, name.length() - SUFFIX.length());
+                int dot = stem.lastIndexOf('.');
+                if (dot <= 0)
+                    continue;
+                String topic = URLDecoder.decode(stem.substring(0, dot), StandardCharsets.UTF_8);
+                long epoch = Long.parseLong(stem.substring(dot + 1));
+                Long prev = newestEpoch.get(topic);
+                if (prev == null || epoch > prev) {
+                    if (prev != null)
+                        stale.add(newest.get(topic));
+                    newest.put(topic, p);
+                    newestEpoch.put(topic, epoch);
+                } else {
+                    stale.add(p);
+                }
+            }
+        }
+        for (Path p : stale)
+            Files.deleteIfExists(p);
+        for (Map.Entry<String, Path> e : newest.entrySet())
+            topics.put(e.getKey(), recover(e.getValue()));
+    }
+
+    @Override
+    public long append(String topic, String id, ByteBuffer json) {
+        byte[] idb = id.getBytes(StandardCharsets.UTF_8);
+        if (idb.length > 0xFFFF)
+            throw new IllegalArgumentException("id longer than 65535 bytes");
+        Topic tp = topics.computeIfAbsent(topic, this::create);
+        synchronized (tp) {
+            long seq = tp.lastSeq + 1;
+            int bodyPos = write(tp, PUT, seq, idb, json.duplicate());
+            Entry e = new Entry(id, seq, tp.map.slice(bodyPos, json.remaining()));
+            tp.log.put(seq, e);
+            Long old = tp.seqById.put(id, seq);
+            if (old != null)
+                tp.log.remove(old);
+            tp.lastSeq = seq;
+            return seq;
+        }
+    }
+
+    @Override
+    public List<Entry> since(String topic, long cursor) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return new ArrayList<>();
+        return new ArrayList<>(tp.log.tailMap(cursor, false).values());
+    }
+
+    @Override
+    public Entry get(String topic, String id) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return null;
+        Long seq = tp.seqById.get(id);
+        return seq == null ? null : tp.log.get(seq);
+    }
+
+    @Override
+    public Entry delete(String topic, String id) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return null;
+        synchronized (tp) {
+            Long seq = tp.seqById.get(id);
+            if (seq == null)
+                return null;
+            write(tp, DEL, seq, id.getBytes(StandardCharsets.UTF_8), ByteBuffer.allocate(0));
+            tp.seqById.remove(id);
+            return tp.log.remove(seq);
+        }
+    }
+
+    @Override
+    public List<String> ids(String topic) {
+        List<String> ids = new ArrayList<>();
+        for (Entry e : since(topic, 0L))
+            ids.add(e.id());
+        return ids;
+    }
+
+    @Override
+    public long lastSeq(String topic) {
+        Topic tp = topics.get(topic);
+        return tp == null ? 0L : tp.lastSeq;
+    }
+
+    /**
+     * Drops every entry of {@code topic} by starting epoch+1 in a new segment
+     * and deleting the old file. Bodies already handed out stay readable.
+     */
+    @Override
+    public void truncate(String topic) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return;
+        synchronized (tp) {
+            Path oldFile = tp.file;
+            FileChannel oldCh = tp.ch;
+            try {
+                openSegment(tp, topic, tp.epoch + 1, tp.lastSeq);
+                tp.log.clear();
+                tp.seqById.clear();
+                oldCh.close();
+                Files.deleteIfExists(oldFile);
+            } catch (IOException e) {
+                throw new IllegalStateException("truncate of topic " + topic + " failed", e);
+            }
+        }
+    }
+
+    /** @return the current epoch of topic, or −1 if it has never been written */
+    public long epoch(String topic) {
+        Topic tp = topics.get(topic);
+        if (tp == null)
+            return -1;
+        synchronized (tp) {
+            return tp.epoch;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Topic tp : topics.values()) {
+            synchronized (tp) {
+                tp.map.force();
+                tp.ch.close();
+            }
+        }
+    }
+
+    private Topic create(String topic) {
+        Topic tp = new Topic();
+        try {
+            openSegment(tp, topic, 0, 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot create segment for topic " + topic, e);
+        }
+        return tp;
+    }
+
+    /** Creates segment {@code epoch} for tp and makes it the live one. */
+    private void openSegment(Topic tp, String topic, long epoch, long baseSeq) throws IOException {
+        Path file = dir.resolve(URLEncoder.encode(topic, StandardCharsets.UTF_8) + "." + epoch + SUFFIX);
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_SIZE);
+        map.putInt(0, MAGIC).putLong(4, epoch).putLong(12, baseSeq);
+        map.force(0, FILE_HEADER);
+        tp.epoch = epoch;
+        tp.file = file;
+        tp.ch = ch;
+        tp.map = map;
+        tp.writePos = FILE_HEADER;
+        tp.lastSeq = Math.max(tp.lastSeq, baseSeq);
+    }
+
+    /** Maps an existing segment and replays its records into a new Topic. */
+    private Topic recover(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(ch.size(), INITIAL_SIZE);
+        if (size > Integer.MAX_VALUE)
+            throw new IOException(file + ": segment larger than 2 GiB");
+        MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (map.getInt(0) != MAGIC)
+            throw new IOException(file + ": not a PBB segment");
+
+        Topic tp = new Topic();
+        tp.file = file;
+        tp.ch = ch;
+        tp.map = map;
+        tp.epoch = map.getLong(4);
+        tp.lastSeq = map.getLong(12);
+
+        int pos = FILE_HEADER;
+        CRC32 crc = new CRC32();
+        while (pos + RECORD_PREFIX + RECORD_FIXED <= map.capacity()) {
+            int len = map.getInt(pos);
+            if (len == 0)
+                break;
+            if (len < RECORD_FIXED || pos + RECORD_PREFIX + len > map.capacity() || !crcMatches(map, pos, len, crc)) {
+                log.warn("{}: torn record at offset {}, dropping the tail", file, pos);
+                clear(map, pos);
+                break;
+            }
+            int p = pos + RECORD_PREFIX;
+            byte type = map.get(p);
+            long seq = map.getLong(p + 1);
+            int idLen = map.getShort(p + 9) & 0xFFFF;
+            byte[] idb = new byte[idLen];
+            map.get(p + RECORD_FIXED, idb);
+            String id = new String(idb, StandardCharsets.UTF_8);
+            int bodyPos = p + RECORD_FIXED + idLen;
+            int bodyLen = len - RECORD_FIXED - idLen;
+
+            if (type == PUT) {
+                tp.log.put(seq, new Entry(id, seq, map.slice(bodyPos, bodyLen)));
+                Long old = tp.seqById.put(id, seq);
+                if (old != null)
+                    tp.log.remove(old);
+            } else if (tp.seqById.remove(id, seq)) {
+                tp.log.remove(seq);
+            }
+            tp.lastSeq = Math.max(tp.lastSeq, seq);
+            pos += RECORD_PREFIX + len;
+        }
+        tp.writePos = pos;
+        return tp;
+    }
+
+    /**
+     * Appends one record and returns the offset of its body. Grows the
+     * mapping when full; earlier slices keep pointing at the old mapping of
+     * the same pages.
+     */
+    private int write(Topic tp, byte type, long seq, byte[] idb, ByteBuffer body) {
+        int len = RECORD_FIXED + idb.length + body.remaining();
+        int need = tp.writePos + RECORD_PREFIX + len + 4; // + the next record's zero len
+        try {
+            if (need > tp.map.capacity()) {
+                long size = Math.max(2L * tp.map.capacity(), need);
+                if (size > Integer.MAX_VALUE)
+                    throw new IllegalStateException("segment " + tp.file + " would exceed 2 GiB");
+                tp.map = tp.ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot grow segment " + tp.file, e);
+        }
+
+        MappedByteBuffer m = tp.map;
+        int pos = tp.writePos;
+        int p = pos + RECORD_PREFIX;
+        m.put(p, type).putLong(p + 1, seq).putShort(p + 9, (short) idb.length);
+        m.put(p + RECORD_FIXED, idb);
+        int bodyPos = p + RECORD_FIXED + idb.length;
+        m.put(bodyPos, body, body.position(), body.remaining());
+
+        CRC32 crc = new CRC32();
+        crc.update(m.slice(p, len));
+        m.putInt(pos + 4, (int) crc.getValue());
+        m.putInt(pos, len); // last: publishes the record
+        if (syncEachAppend)
+            m.force(pos, RECORD_PREFIX + len);
+        tp.writePos = pos + RECORD_PREFIX + len;
+        return bodyPos;
+    }
+
+    private static boolean crcMatches(MappedByteBuffer map, int pos, int len, CRC32 crc) {
+        crc.reset();
+        crc.update(map.slice(pos + RECORD_PREFIX, len));
+        return (int) crc.getValue() == map.getInt(pos + 4);
+    }
+
+    private static void clear(MappedByteBuffer map, int from) {
+        for (int i = from; i < map.capacity(); i++) {
+            if (map.get(i) != 0)
+                map.put(i, (byte) 0);
+        }
+    }
+}
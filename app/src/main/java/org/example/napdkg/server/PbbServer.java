@@ -0,0 +1,422 @@
+package org.example.napdkg.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Bulletin board over HTTP on the JDK's {@link HttpServer}, backed by a
+ * {@link TopicStore}. Speaks the subset of json-server's REST shape the
+ * clients use, so {@code HttpPbbClient} works against it unchanged:
+ *
+ * GET /{topic} all entries in publication order; ?_start, ?_end and
+ * ?_limit slice by position
+ * GET /{topic}/{id} one entry
+ * POST /{topic} append one JSON object; an "id" is assigned if absent
+ * DELETE /{topic}/{id}
+ *
+ * and adds endpoints json-server lacks (AsyncHttpPbbClient.Builder#extendedApi):
+ *
+ * GET /{topic}?_since=c entries with seq > c; the X-Pbb-Cursor response
+ * header carries the next cursor
+ * GET /{topic}?_since=c&_wait=ms as _since, but if nothing newer is there
+ * yet the request is held until an entry is appended or ms pass (long-poll)
+ * GET /{topic}/_ids ids only, in publication order
+ * POST /{topic}/_bulk append a JSON array in one request; returns the ids
+ * DELETE /{topic} drop every entry (TopicStore#truncate)
+ *
+ * Unlike json-server, topics need not be declared: an unknown topic is empty.
+ * Entries are stored as the bytes posted (plus an assigned id), so GETs write
+ * stored bytes straight to the socket without re-serializing.
+ *
+ * A held long-poll does not occupy a server thread: its exchange is parked
+ * per topic and answered from the pool by the next append, or by a timer
+ * once its wait is up.
+ */
+public final class PbbServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(PbbServer.class);
+
+    public static final String CURSOR_HEADER = "X-Pbb-Cursor";
+    public static final int DEFAULT_PORT = 3003;
+    /** Upper bound on a long-poll's ?_wait. */
+    public static final long MAX_WAIT_MS = 60_000;
+
+    /**
+     * JVM property that turns Nagle off on the JDK server's sockets. The
+     * server flushes headers and body separately; with Nagle on, each small
+     * response then waits out the peer's delayed ACK (~40 ms). It is read
+     * once, when the JVM's first HttpServer is created, so set it on the
+     * command line ({@code -Dsun.net.httpserver.nodelay=true}) or before
+     * that; {@link #main} and runPbbServer do.
+     */
+    public static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private static final byte[] COMMA = { ',' };
+    private static final byte[] OPEN = { '[' };
+    private static final byte[] CLOSE = { ']' };
+
+    private final HttpServer http;
+    private final ExecutorService pool;
+    private final TopicStore store;
+    private final Gson gson = new Gson();
+
+    /** Parked long-polls per topic; guarded by itself. */
+    private final Map<String, List<Waiter>> waiting = new HashMap<>();
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread th = new Thread(r, "pbb-server-timer");
+        th.setDaemon(true);
+        return th;
+    });
+
+    /** A held ?_since&_wait request; answered once, by an append or the timer. */
+    private static final class Waiter {
+        final HttpExchange ex;
+        final String topic;
+        final Map<String, String> query;
+        final AtomicBoolean answered = new AtomicBoolean();
+        volatile ScheduledFuture<?> timeout;
+
+        Waiter(HttpExchange ex, String topic, Map<String, String> query) {
+            this.ex = ex;
+            this.topic = topic;
+            this.query = query;
+        }
+    }
+
+    private PbbServer(HttpServer http, ExecutorService pool, TopicStore store) {
+        this.http = http;
+        this.pool = pool;
+        this.store = store;
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /** Starts an in-memory board on 127.0.0.1; port 0 picks a free one. */
+    public static PbbServer start(int port) throws IOException {
+        return start(new InetSocketAddress("127.0.0.1", port), new InMemoryTopicStore(),
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+    public static PbbServer start(InetSocketAddress addr, TopicStore store, int threads) throws IOException {
+        HttpServer http = HttpServer.create(addr, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread th = new Thread(r, "pbb-server");
+            th.setDaemon(true);
+            return th;
+        });
+        PbbServer server = new PbbServer(http, pool, store);
+        http.createContext("/", server::handle);
+        http.setExecutor(pool);
+        http.start();
+        log.info("PBB server listening on {}", server.url());
+        return server;
+    }
+
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    /** @return base URL for HttpPbbClient, e.g. http://127.0.0.1:3003/ */
+    public String url() {
+        return "http://" + http.getAddress().getHostString() + ":" + port() + "/";
+    }
+
+    @Override
+    public void close() throws IOException {
+        timer.shutdownNow();
+        http.stop(0);
+        pool.shutdown();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        store.close();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        boolean parked = false;
+        try {
+            URI uri = ex.getRequestURI();
+            String[] seg = uri.getPath().replaceAll("^/+|/+$", "").split("/");
+            if (seg.length == 0 || seg[0].isEmpty() || seg.length > 2) {
+                send(ex, 404, "Not Found");
+                return;
+            }
+            String topic = seg[0];
+            String sub = seg.length == 2 ? URLDecoder.decode(seg[1], StandardCharsets.UTF_8) : null;
+            String method = ex.getRequestMethod();
+
+            if (method.equals("GET") && sub == null) {
+                Map<String, String> q = query(uri);
+                parked = park(ex, topic, q);
+                if (!parked)
+                    list(ex, topic, q);
+            }
+            else if (method.equals("GET") && sub.equals("_ids"))
+                sendJson(ex, 200, gson.toJson(store.ids(topic)));
+            else if (method.equals("GET"))
+                one(ex, store.get(topic, sub));
+            else if (method.equals("POST") && sub == null) {
+                String json = append(topic, JsonParser.parseString(body(ex)).getAsJsonObject());
+                wake(topic);
+                sendJson(ex, 201, json);
+            }
+            else if (method.equals("POST") && sub.equals("_bulk"))
+                bulk(ex, topic);
+            else if (method.equals("DELETE") && sub != null)
+                one(ex, store.delete(topic, sub));
+            else if (method.equals("DELETE")) {
+                store.truncate(topic);
+                sendJson(ex, 200, "[]");
+            }
+            else
+                send(ex, 405, "Method Not Allowed");
+        } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+            send(ex, 400, "Bad Request: " + e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("PBB request {} {} failed", ex.getRequestMethod(), ex.getRequestURI(), e);
+            send(ex, 500, "Internal Server Error");
+        } finally {
+            if (!parked)
+                ex.close();
+        }
+    }
+
+    /**
+     * Parks a ?_since&_wait request that has nothing to return yet.
+     *
+     * @return false if the request should be answered now
+     */
+    private boolean park(HttpExchange ex, String topic, Map<String, String> q) {
+        if (!q.containsKey("_since") || !q.containsKey("_wait"))
+            return false;
+        long cursor = Long.parseLong(q.get("_since"));
+        long waitMs = Math.min(Long.parseLong(q.get("_wait")), MAX_WAIT_MS);
+        if (waitMs <= 0)
+            return false;
+        Waiter w = new Waiter(ex, topic, q);
+        // an append stores before it takes this lock, so either it is seen
+        // here or it finds w registered
+        synchronized (waiting) {
+            if (!store.since(topic, cursor).isEmpty())
+                return false;
+            waiting.computeIfAbsent(topic, k -> new ArrayList<>()).add(w);
+        }
+        w.timeout = timer.schedule(() -> {
+            synchronized (waiting) {
+                List<Waiter> ws = waiting.get(topic);
+                if (ws != null)
+                    ws.remove(w);
+            }
+            answer(w);
+        }, waitMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /** Answers every long-poll parked on topic. */
+    private void wake(String topic) {
+        List<Waiter> ws;
+        synchronized (waiting) {
+            ws = waiting.remove(topic);
+        }
+        if (ws != null)
+            for (Waiter w : ws)
+                answer(w);
+    }
+
+    private void answer(Waiter w) {
+        if (!w.answered.compareAndSet(false, true))
+            return;
+        ScheduledFuture<?> t = w.timeout;
+        if (t != null)
+            t.cancel(false);
+        try {
+            pool.execute(() -> {
+                try {
+                    list(w.ex, w.topic, w.query);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("PBB long-poll on {} not answered", w.topic, e);
+                } finally {
+                    w.ex.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            w.ex.close(); // shutting down
+        }
+    }
+
+    private void list(HttpExchange ex, String topic, Map<String, String> q) throws IOException {
+        List<TopicStore.Entry> entries;
+        if (q.containsKey("_since")) {
+            long cursor = Long.parseLong(q.get("_since"));
+            entries = store.since(topic, cursor);
+            long next = entries.isEmpty() ? cursor : entries.get(entries.size() - 1).seq();
+            ex.getResponseHeaders().set(CURSOR_HEADER, Long.toString(next));
+        } else {
+            entries = store.since(topic, 0L);
+        }
+        if (q.containsKey("_start") || q.containsKey("_end") || q.containsKey("_limit")) {
+            int size = entries.size();
+            int from = clamp(q.containsKey("_start") ? Long.parseLong(q.get("_start")) : 0, size);
+            int to = q.containsKey("_end") ? clamp(Long.parseLong(q.get("_end")), size)
+                    : q.containsKey("_limit") ? clamp((long) from + Long.parseLong(q.get("_limit")), size)
+                            : size;
+            entries = entries.subList(from, Math.max(from, to));
+        }
+
+        long len = 2 + Math.max(0, entries.size() - 1);
+        for (TopicStore.Entry e : entries)
+            len += e.length();
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, len);
+        try (OutputStream os = ex.getResponseBody()) {
+            WritableByteChannel ch = Channels.newChannel(os);
+            os.write(OPEN);
+            for (int i = 0; i < entries.size(); i++) {
+                if (i > 0)
+                    os.write(COMMA);
+                ByteBuffer b = entries.get(i).body();
+                while (b.hasRemaining())
+                    ch.write(b);
+            }
+            os.write(CLOSE);
+        }
+    }
+
+    private void one(HttpExchange ex, TopicStore.Entry e) throws IOException {
+        if (e == null) {
+            send(ex, 404, "Not Found");
+            return;
+        }
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, e.length());
+        try (OutputStream os = ex.getResponseBody()) {
+            ByteBuffer b = e.body();
+            WritableByteChannel ch = Channels.newChannel(os);
+            while (b.hasRemaining())
+                ch.write(b);
+        }
+    }
+
+    private void bulk(HttpExchange ex, String topic) throws IOException {
+        JsonArray in = JsonParser.parseString(body(ex)).getAsJsonArray();
+        JsonArray ids = new JsonArray();
+        for (JsonElement el : in) {
+            JsonObject obj = el.getAsJsonObject();
+            append(topic, obj);
+            ids.add(obj.get("id"));
+        }
+        wake(topic);
+        sendJson(ex, 201, gson.toJson(ids));
+    }
+
+    /** Stores obj (assigning an id if it has none) and returns the stored JSON. */
+    private String append(String topic, JsonObject obj) {
+        String id = ensureId(obj);
+        String json = gson.toJson(obj);
+        store.append(topic, id, ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+        return json;
+    }
+
+    /** @return obj's "id", after assigning a random one if it has none */
+    static String ensureId(JsonObject obj) {
+        JsonElement id = obj.get("id");
+        if (id == null || id.isJsonNull()) {
+            String fresh = Long.toHexString(ThreadLocalRandom.current().nextLong());
+            obj.addProperty("id", fresh);
+            return fresh;
+        }
+        return id.getAsString();
+    }
+
+    private static int clamp(long i, int size) {
+        return (int) Math.max(0, Math.min(i, size));
+    }
+
+    private static String body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> q = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null)
+            return q;
+        for (String kv : raw.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq > 0)
+                q.put(URLDecoder.decode(kv.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(kv.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return q;
+    }
+
+    private static void sendJson(HttpExchange ex, int code, String json) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        send(ex, code, json);
+    }
+
+    private static void send(HttpExchange ex, int code, String body) throws IOException {
+        byte[] b = body.getBytes(StandardCharsets.UTF_8);
+        ex.sendResponseHeaders(code, b.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(b);
+        }
+    }
+
+    /**
+     * Standalone board: {@code PbbServer [port] [dataDir]}, default 3003. With
+     * a dataDir the board is a {@link MappedTopicStore} there and survives
+     * restarts; otherwise it lives in memory.
+     */
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty(NODELAY_PROPERTY) == null)
+            System.setProperty(NODELAY_PROPERTY, "true");
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        TopicStore store = args.length > 1 ? new MappedTopicStore(Paths.get(args[1])) : new InMemoryTopicStore();
+        PbbServer server = start(new InetSocketAddress(port), store,
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                log.warn("PBB server shutdown failed", e);
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.napdkg.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Storage behind {@link PbbServer}: per topic, an append log of JSON entries
+ * keyed by a per-topic sequence number, plus an id index. Entries are kept as
+ * the UTF-8 bytes the server sends back, so reads never re-serialize.
+ *
+ * Sequence numbers start at 1 and only grow; deleting an entry never shifts
+ * the others, so a cursor (the last seq seen) stays valid across deletes.
+ * Re-appending an id replaces the entry and moves it to the end.
+ */
+public interface TopicStore extends Closeable {
+
+    /** One stored entry. {@link #body()} is a read-only view of the JSON. */
+    final class Entry {
+        private final String id;
+        private final long seq;
+        private final ByteBuffer body;
+
+        public Entry(String id, long seq, ByteBuffer body) {
+            this.id = id;
+            this.seq = seq;
+            this.body = body.asReadOnlyBuffer();
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public long seq() {
+            return seq;
+        }
+
+        /** @return a fresh read-only view (position 0, limit = length) */
+        public ByteBuffer body() {
+            return body.duplicate();
+        }
+
+        public int length() {
+            return body.remaining();
+        }
+    }
+
+    /**
+     * Appends {@code json} under {@code id}.
+     *
+     * @return the entry's sequence number
+     */
+    long append(String topic, String id, ByteBuffer json);
+
+    /** @return entries with seq > cursor, in publication order (empty if none) */
+    List<Entry> since(String topic, long cursor);
+
+    /** @return the entry stored under id, or null */
+    Entry get(String topic, String id);
+
+    /** @return the removed entry, or null if (topic, id) is absent */
+    Entry delete(String topic, String id);
+
+    /** @return ids in publication order */
+    List<String> ids(String topic);
+
+    /** @return the highest seq ever assigned in topic (0 if none) */
+    long lastSeq(String topic);
+
+    /** Drops every entry of topic; later appends continue the seq numbering. */
+    void truncate(String topic);
+
+    @Override
+    default void close() throws IOException {
+    }
+}
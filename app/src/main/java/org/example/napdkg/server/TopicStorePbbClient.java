@@ -0,0 +1,127 @@
+package org.example.napdkg.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.napdkg.client.FetchResult;
+import org.example.napdkg.client.GsonFactory;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.TrafficListener;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * {@link PbbClient} straight on a {@link TopicStore}, without HTTP: the same
+ * JSON a {@link PbbServer} would store, so a {@link MappedTopicStore} written
+ * by one can be read by the other. Cursors are the store's sequence numbers.
+ */
+public class TopicStorePbbClient implements PbbClient, AutoCloseable {
+    private final TopicStore store;
+    private final Gson gson;
+    private volatile TrafficListener traffic;
+
+    public TopicStorePbbClient(TopicStore store) {
+        this.store = store;
+        this.gson = GsonFactory.createGson();
+    }
+
+    @Override
+    public void publish(String topic, Object msg) {
+        JsonObject obj = gson.toJsonTree(msg).getAsJsonObject();
+        String id = PbbServer.ensureId(obj);
+        byte[] json = gson.toJson(obj).getBytes(StandardCharsets.UTF_8);
+        store.append(topic, id, ByteBuffer.wrap(json));
+        TrafficListener tl = traffic;
+        if (tl != null)
+            tl.sent(topic, json.length, 1);
+    }
+
+    @Override
+    public <T> List<T> fetch(String topic, Class<T> clazz) {
+        return fetchSince(topic, START, clazz).getItems();
+    }
+
+    @Override
+    public <T> FetchResult<T> fetchSince(String topic, long cursor, Class<T> clazz) {
+        List<TopicStore.Entry> entries = store.since(topic, cursor);
+        List<T> items = new ArrayList<>(entries.size());
+        long last = cursor;
+        long bytes = 0;
+        for (TopicStore.Entry e : entries) {
+            items.add(decode(e.body(), clazz));
+            last = e.seq();
+            bytes += e.length();
+        }
+        TrafficListener tl = traffic;
+        if (tl != null)
+            tl.received(topic, bytes, items.size());
+        return new FetchResult<>(items, last);
+    }
+
+    @Override
+    public List<String> fetchIds(String topic) {
+        return store.ids(topic);
+    }
+
+    /** @throws IllegalArgumentException if (topic, id) is absent, as InMemoryPbbClient */
+    @Override
+    public void delete(String topic, String id) {
+        if (store.delete(topic, id) == null)
+            throw new IllegalArgumentException("No such ID '" + id + "' in topic '" + topic + "'");
+    }
+
+    /** Stored JSON bytes, written and read. */
+    @Override
+    public boolean reportTraffic(TrafficListener listener) {
+        traffic = listener;
+        return listener != null;
+    }
+
+    /** Drops every entry of topic (a new epoch for a MappedTopicStore). */
+    public void truncate(String topic) {
+        store.truncate(topic);
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private <T> T decode(ByteBuffer body, Class<T> clazz) {
+        try (Reader r = new InputStreamReader(new ByteBufferInputStream(body), StandardCharsets.UTF_8)) {
+            return gson.fromJson(r, clazz);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Streams a body into Gson without first building a String. */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buf.hasRemaining())
+                return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.napdkg.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits an index range [0, n) into fixed-size chunks and runs them on a
+ * fork-join pool: the pool the caller is already in (e.g. a party's compute
+ * pool), else the common pool.
+ *
+ * Each chunk [lo, hi) writes only its own slots of arrays the caller
+ * allocated up front, so the output order is the index order whatever the
+ * schedule, and a chunk's scratch space is bounded by the chunk size.
+ */
+public final class ChunkedRange {
+
+    private ChunkedRange() {
+        /* no-op */ }
+
+    /** Work on one chunk [lo, hi). */
+    @FunctionalInterface
+    public interface Body {
+        void run(int lo, int hi);
+    }
+
+    /**
+     * Runs body over [0, n) in chunks of at most chunk indices and waits for
+     * all of them; inline when one chunk covers the range. An exception in
+     * a chunk reaches the caller with its type kept (ForkJoinTask may throw
+     * a copy that has the original as its cause).
+     */
+    public static void forEach(int n, int chunk, Body body) {
+        if (chunk < 1)
+            throw new IllegalArgumentException("chunk must be ≥ 1");
+        if (n <= chunk) {
+            if (n > 0)
+                body.run(0, n);
+            return;
+        }
+        new Split(0, n, chunk, body).invoke();
+    }
+
+    /** @return number of chunks forEach(n, chunk, …) runs */
+    public static int chunks(int n, int chunk) {
+        return (n + chunk - 1) / chunk;
+    }
+
+    /** @return parallelism of the pool forEach would run on from here */
+    public static int parallelism() {
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        return pool.getParallelism();
+    }
+
+    private static final class Split extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo, hi, chunk;
+        private final Body body;
+
+        Split(int lo, int hi, int chunk, Body body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.chunk = chunk;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= chunk) {
+                body.run(lo, hi);
+                return;
+            }
+            // split on a chunk boundary so the chunks are the same for every schedule
+            int mid = lo + chunks(hi - lo, chunk) / 2 * chunk;
+            invokeAll(new Split(lo, mid, chunk, body), new Split(mid, hi, chunk, body));
+        }
+    }
+}
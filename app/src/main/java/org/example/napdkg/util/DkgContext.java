@@ -1,6 +1,10 @@
 package org.example.napdkg.util;
 
 import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
@@ -25,6 +29,10 @@ public class DkgContext {
     private final int n; // number of participants n
     private final BigInteger[] alphas; // evaluation points α₀ … αₙ
     private final BigInteger[] v; // dual‐code weights v₁ … vₙ
+    private volatile FixedBaseTable gTable; // built on first use, see getGeneratorTable()
+    private volatile EphemeralKeyBasis ephBasis; // per-session, see getEphemeralBasis()
+    private volatile LagrangeEngine lagrange; // memoized λ sets, see getLagrange()
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> memo = new ConcurrentHashMap<>(); // see memo()
 
     public DkgContext(
             GroupGenerator.GroupParameters groupParams,
@@ -58,6 +66,115 @@ public class DkgContext {
         return groupParams.getG();
     }
 
+    /**
+     * Lazily builds (once, thread-safe) the fixed-base table for G. Every party
+     * sharing this context shares the table.
+     *
+     * @return the fixed-base table for G
+     */
+    public FixedBaseTable getGeneratorTable() {
+        FixedBaseTable tbl = gTable;
+        if (tbl == null) {
+            synchronized (this) {
+                tbl = gTable;
+                if (tbl == null) {
+                    tbl = FixedBaseTable.build(getGenerator(), getOrder());
+                    gTable = tbl;
+                }
+            }
+        }
+        return tbl;
+    }
+
+    /**
+     * @param k scalar in ℤₚ
+     * @return k·G via the fixed-base table (not normalized)
+     */
+    public ECPoint multiplyG(BigInteger k) {
+        return getGeneratorTable().multiply(k);
+    }
+
+    /**
+     * Returns the Vandermonde-weighted basis P_d = Σₖ vₖ·αₖᵈ·Eₖ over the
+     * session's ephemeral keys, building it on first use. Rebuilt only if E
+     * changes (new session or different PBB order).
+     *
+     * @param E ephemeral keys in PBB order
+     * @return the shared basis for E
+     */
+    public EphemeralKeyBasis getEphemeralBasis(ECPoint[] E) {
+        EphemeralKeyBasis basis = ephBasis;
+        if (basis == null || !basis.matches(E)) {
+            synchronized (this) {
+                basis = ephBasis;
+                if (basis == null || !basis.matches(E)) {
+                    basis = EphemeralKeyBasis.build(this, E);
+                    ephBasis = basis;
+                }
+            }
+        }
+        return basis;
+    }
+
+    /**
+     * Lazily creates the session's Lagrange engine; interpolation weights are
+     * memoized per index set, so repeated reconstructions over the same QUAL
+     * reuse them.
+     *
+     * @return the shared engine over α₀ … αₙ
+     */
+    public LagrangeEngine getLagrange() {
+        LagrangeEngine eng = lagrange;
+        if (eng == null) {
+            synchronized (this) {
+                eng = lagrange;
+                if (eng == null) {
+                    eng = new LagrangeEngine(getOrder(), alphas);
+                    lagrange = eng;
+                }
+            }
+        }
+        return eng;
+    }
+
+    /**
+     * Session-scoped memo for values derived from this session's messages
+     * (e.g. the sums over a finalized Q1), shared by every party on this
+     * context and dropped with it. The first caller for a key computes the
+     * value outside any lock; concurrent callers for the same key wait for
+     * it, callers for other keys do not. A failed computation is not cached.
+     *
+     * @param key     identifies the value; equal keys share one value
+     * @param compute builds the value on first request
+     * @return the value for key
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V memo(Object key, Supplier<? extends V> compute) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> f = memo.putIfAbsent(key, mine);
+        if (f == null) {
+            try {
+                V v = compute.get();
+                mine.complete(v);
+                return v;
+            } catch (RuntimeException | Error e) {
+                memo.remove(key, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return (V) f.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+
     /** @return underlying EC group parameters (curve, generator, order, etc.) */
     public GroupGenerator.GroupParameters getGroupParameters() {
         return groupParams;
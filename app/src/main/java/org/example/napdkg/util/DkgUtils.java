@@ -2,18 +2,18 @@
 package org.example.napdkg.util;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Hex;
 import org.example.napdkg.client.PbbClient;
-import org.example.napdkg.core.NizkDlProof;
+import org.example.napdkg.client.Subscription;
+import org.example.napdkg.core.EphemeralKeyDirectory;
 import org.example.napdkg.core.PublicKeysWithProofs;
 import org.example.napdkg.core.Share;
-import org.example.napdkg.dto.EphemeralKeyDTO;
 
 public final class DkgUtils {
     public static final int POLL_MS = 100;
@@ -31,7 +31,34 @@ public final class DkgUtils {
         return x.toString(16);
     }
 
+    /**
+     * Normalizes every point in place with one shared field inversion
+     * (Montgomery's trick, ECCurve.normalizeAll). Each slot keeps the same
+     * group element, only its representation becomes affine. For arrays the
+     * caller owns; see {@link #normalized} for anyone else's.
+     *
+     * @return pts
+     */
+    public static ECPoint[] normalizeAll(ECPoint[] pts) {
+        if (pts.length > 0)
+            pts[0].getCurve().normalizeAll(pts);
+        return pts;
+    }
+
+    /**
+     * As {@link #normalizeAll}, but leaves pts untouched: pts itself if it is
+     * already affine, else a normalized copy. For arrays that belong to the
+     * caller's caller or are shared (e.g. EphemeralKeyDirectory's E).
+     */
+    public static ECPoint[] normalized(ECPoint[] pts) {
+        for (ECPoint p : pts)
+            if (!p.isNormalized())
+                return normalizeAll(pts.clone());
+        return pts;
+    }
+
     public static String[] encodePoints(ECPoint[] pts) {
+        pts = normalized(pts);
         String[] out = new String[pts.length];
         for (int i = 0; i < pts.length; i++) {
             out[i] = encodePoint(pts[i]);
@@ -48,8 +75,8 @@ public final class DkgUtils {
     }
 
     /**
-     * Polls the PBB every DEFAULT_POLL_MS until one DTO matching
-     * `selector` appears, then applies `decoder` and returns the result.
+     * Subscribes to `topic` until one DTO matching `selector` arrives (or is
+     * already there), then applies `decoder` and returns the result.
      */
     // in DkgUtils.java
     public static <D, T> T waitForAndDecode(
@@ -58,13 +85,15 @@ public final class DkgUtils {
             Class<D> dtoClass,
             Predicate<D> selector,
             Function<D, T> decoder) throws Exception {
-        while (true) {
-            Thread.sleep(POLL_MS);
-            for (D dto : pbb.fetch(topic, dtoClass)) {
-                if (!selector.test(dto))
-                    continue;
-                return decoder.apply(dto);
-            }
+        CompletableFuture<D> hit = new CompletableFuture<>();
+        Subscription sub = pbb.subscribe(topic, dtoClass, dto -> {
+            if (!hit.isDone() && selector.test(dto))
+                hit.complete(dto);
+        });
+        try {
+            return decoder.apply(hit.get());
+        } finally {
+            sub.close();
         }
     }
 
@@ -74,13 +103,13 @@ public final class DkgUtils {
             List<PublicKeysWithProofs> pubs,
             BigInteger ski) {
         int n = shares.length;
-        ECPoint[] Cij = new ECPoint[n];
-        for (int j = 0; j < n; j++) {
-            ECPoint Ej = pubs.get(j).getPublicKey();
-            ECPoint Aij = shares[j].getAiPoint();
-            Cij[j] = Ej.multiply(ski).add(Aij).normalize();
-        }
-        return Cij;
+        ECPoint[] E = new ECPoint[n];
+        for (int j = 0; j < n; j++)
+            E[j] = pubs.get(j).getPublicKey();
+        ECPoint[] Cij = SameScalarMul.multiply(E, ski); // ski·E_j, batched
+        for (int j = 0; j < n; j++)
+            Cij[j] = Cij[j].add(shares[j].getAiPoint());
+        return normalizeAll(Cij);
     }
 
     /** compute Ĉᵢⱼ = H′(Aᵢⱼ) ⊕ aᵢⱼ for all j */
@@ -111,80 +140,23 @@ public final class DkgUtils {
     // 1) Arrival-order list (exactly what dealers used when constructing E[])
     public static List<PublicKeysWithProofs> fetchEphemeralPubsByArrival(
             DkgContext ctx, PbbClient pbb) throws Exception {
-        List<EphemeralKeyDTO> dtos = pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class);
-
-        List<PublicKeysWithProofs> pubs = new ArrayList<>(dtos.size());
-        for (EphemeralKeyDTO dto : dtos) {
-            ECPoint P = ctx.getGenerator().getCurve()
-                    .decodePoint(org.bouncycastle.util.encoders.Hex.decode(dto.publicKey))
-                    .normalize();
-
-            String[] parts = dto.schnorrProof.split("\\|");
-            if (parts.length != 2)
-                throw new IllegalStateException("Bad schnorrProof format");
-            BigInteger c = new BigInteger(parts[0], 16);
-            BigInteger z = new BigInteger(parts[1], 16);
-            NizkDlProof prf = new NizkDlProof(c, z);
-
-            if (!NizkDlProof.verifyProof(ctx, P, prf))
-                throw new IllegalStateException("Invalid Schnorr proof for partyIndex=" + dto.partyIndex);
-
-            pubs.add(new PublicKeysWithProofs(dto.partyIndex, P, prf));
-        }
-        // IMPORTANT: do NOT sort here; preserve PBB arrival order
-        return pubs;
+        // IMPORTANT: preserves PBB arrival order; proofs checked once per key
+        return EphemeralKeyDirectory.fetch(ctx, pbb).inArrivalOrder();
     }
 
     // 2) Direct lookup by party index (for Θ verification)
     public static ECPoint getEphemeralPubByIndex(
             DkgContext ctx, PbbClient pbb, int partyIndex) throws Exception {
-        for (EphemeralKeyDTO dto : pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class)) {
-            if (dto.partyIndex == partyIndex) {
-                ECPoint P = ctx.getGenerator().getCurve()
-                        .decodePoint(org.bouncycastle.util.encoders.Hex.decode(dto.publicKey))
-                        .normalize();
-
-                String[] parts = dto.schnorrProof.split("\\|");
-                if (parts.length != 2)
-                    throw new IllegalStateException("Bad schnorrProof format");
-                BigInteger c = new BigInteger(parts[0], 16);
-                BigInteger z = new BigInteger(parts[1], 16);
-                NizkDlProof prf = new NizkDlProof(c, z);
-
-                if (!NizkDlProof.verifyProof(ctx, P, prf))
-                    throw new IllegalStateException("Invalid Schnorr proof for partyIndex=" + partyIndex);
-
-                return P;
-            }
-        }
-        throw new IllegalStateException("Missing ephemeral key for partyIndex=" + partyIndex);
+        PublicKeysWithProofs pk = EphemeralKeyDirectory.fetch(ctx, pbb).get(partyIndex);
+        if (pk == null)
+            throw new IllegalStateException("Missing ephemeral key for partyIndex=" + partyIndex);
+        return pk.getPublicKey();
     }
 
     public static List<PublicKeysWithProofs> fetchAllEphemeralPubs(
             DkgContext ctx, PbbClient pbb, int n) throws Exception {
-        List<EphemeralKeyDTO> dtos = pbb.fetch("ephemeralKeys",
-                EphemeralKeyDTO.class);
-        List<PublicKeysWithProofs> pubs = new ArrayList<>(dtos.size());
-        for (EphemeralKeyDTO dto : dtos) {
-            byte[] raw = Hex.decode(dto.publicKey);
-            ECPoint P = ctx.getGenerator()
-                    .getCurve()
-                    .decodePoint(raw)
-                    .normalize();
-
-            String[] parts = dto.schnorrProof.split("\\|");
-            BigInteger challenge = new BigInteger(parts[0], 16);
-            BigInteger response = new BigInteger(parts[1], 16);
-            NizkDlProof proof = new NizkDlProof(challenge, response);
-            Boolean verify = NizkDlProof.verifyProof(ctx, P, proof);
-            if (verify == true) {
-                pubs.add(new PublicKeysWithProofs(dto.partyIndex, P, proof));
-            } else {
-                throw new IllegalStateException("DL proof " + verify);
-            }
-        }
-        // if you really want to _block_ until you have n, you can loop here
-        return pubs;
+        // prefer PartyContext.ephemeralKeys(), which skips the fetch too
+        return EphemeralKeyDirectory.fetch(ctx, pbb).inArrivalOrder();
     }
 
     // * Simple SCRAPE dual‐code weights:
@@ -202,21 +174,8 @@ public final class DkgUtils {
             BigInteger p,
             BigInteger[] alphas,
             int n) {
-        BigInteger[] v = new BigInteger[n];
-        for (int j = 1; j <= n; j++) {
-            BigInteger prod = BigInteger.ONE;
-            for (int k = 1; k <= n; k++) {
-                if (j == k)
-                    continue;
-                // diff = α[j] - α[k] (mod p)
-                BigInteger diff = alphas[j].subtract(alphas[k]).mod(p);
-                // invert mod p
-                BigInteger inv = diff.modInverse(p);
-                prod = prod.multiply(inv).mod(p);
-            }
-            v[j - 1] = prod; // store into zero‐based array slot
-        }
-        return v;
+        // factorial closed form for αᵢ = i, else one batch inversion
+        return LagrangeEngine.scrapeWeights(p, alphas, n);
     }
 
     /**
@@ -245,14 +204,11 @@ public final class DkgUtils {
      * @param c polynomial coefficients [c₀…c_d]
      * @param α evaluation points [0…n]
      * @param p subgroup order (prime modulus)
-     * @return array evals[0…n] with evals[i] = m*(α[i]) (note index 0 is unused)
+     * @return array evals[0…n] with evals[i] = m*(α[i]) (callers use 1…n)
      */
     public static BigInteger[] evalAll(BigInteger[] c, BigInteger[] α, BigInteger p) {
-        BigInteger[] out = new BigInteger[α.length];
-        for (int i = 1; i < α.length; i++) {
-            out[i] = evaluatePolynomial(c, α[i], p);
-        }
-        return out;
+        // forward differences when the α are consecutive integers
+        return PolynomialEvaluator.evaluateAll(c, α, p);
     }
 
 }
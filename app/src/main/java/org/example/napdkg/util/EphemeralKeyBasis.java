@@ -0,0 +1,123 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Vandermonde-weighted basis over the session's ephemeral keys E₁…Eₙ:
+ *
+ * P_d = Σₖ vₖ·αₖᵈ·Eₖ, d = 0 … n−t−2
+ *
+ * The SCRAPE aggregate of every dealer is then
+ *
+ * U = Σₖ vₖ·m*(αₖ)·Eₖ = Σ_d m*_d·P_d
+ *
+ * i.e. an (n−t−1)-term MSM instead of an n-term one. E, v and α are fixed for
+ * the session, so the basis is built once and shared by all (verifier, dealer)
+ * pairs; see {@link DkgContext#getEphemeralBasis(ECPoint[])}.
+ *
+ * Build cost: n full multiplications for Rₖ = vₖ·Eₖ, then n−t−2 layers of
+ * Rₖ ← αₖ·Rₖ. With αₖ = k each layer step is a ~log₂(n)-bit double-and-add,
+ * so the table takes O(n·(n−t)·log n) point operations: quadratic in n, paid
+ * once per session, against one n-term MSM saved per (verifier, dealer)
+ * aggregate.
+ */
+public final class EphemeralKeyBasis {
+    private final ECPoint[] E; // the key order this basis was built for
+    private final ECPoint[] P; // P₀ … P_deg, affine
+
+    private EphemeralKeyBasis(ECPoint[] E, ECPoint[] P) {
+        this.E = E;
+        this.P = P;
+    }
+
+    /**
+     * @param ctx public parameters (supplies αₖ = alphas[k+1] and vₖ = v[k])
+     * @param E   ephemeral keys in PBB order, E[k] ↔ α_{k+1}, v_k
+     * @return the basis P₀ … P_{n−t−2}
+     */
+    public static EphemeralKeyBasis build(DkgContext ctx, ECPoint[] E) {
+        int n = ctx.getNumParticipants();
+        int numCoeffs = n - ctx.getThreshold() - 1; // = deg(m*) + 1
+        if (E.length != n)
+            throw new IllegalArgumentException("expected " + n + " ephemeral keys, got " + E.length);
+        if (numCoeffs < 1)
+            throw new IllegalArgumentException("n − t − 1 must be ≥ 1");
+
+        BigInteger p = ctx.getOrder();
+        BigInteger[] alpha = ctx.getAlphas();
+        BigInteger[] v = ctx.getVs();
+        ECCurve curve = ctx.getCurve();
+
+        // layer 0: Rₖ = vₖ·Eₖ
+        ECPoint[] R = new ECPoint[n];
+        IntStream.range(0, n).parallel()
+                .forEach(k -> R[k] = E[k].multiply(v[k].mod(p)));
+        curve.normalizeAll(R);
+
+        ECPoint[] P = new ECPoint[numCoeffs];
+        P[0] = sumAll(curve, R);
+
+        // layer d: Rₖ ← αₖ·Rₖ = vₖ·αₖᵈ·Eₖ
+        for (int d = 1; d < numCoeffs; d++) {
+            IntStream.range(0, n).parallel()
+                    .forEach(k -> R[k] = timesAlpha(R[k], alpha[k + 1], p));
+            curve.normalizeAll(R);
+            P[d] = sumAll(curve, R);
+        }
+        curve.normalizeAll(P);
+
+        return new EphemeralKeyBasis(E.clone(), P);
+    }
+
+    /**
+     * @param mStar the dealer's m* coefficients (length n−t−1)
+     * @return U = Σ_d mStar[d]·P_d, NOT normalized
+     */
+    public ECPoint aggregate(BigInteger[] mStar) {
+        if (mStar.length != P.length)
+            throw new IllegalArgumentException("m* has " + mStar.length + " coefficients, basis has " + P.length);
+        return MultiScalarMul.sum(P, mStar);
+    }
+
+    /** @return true iff this basis was built over exactly these keys, in this order */
+    public boolean matches(ECPoint[] keys) {
+        return E == keys || Arrays.equals(E, keys);
+    }
+
+    /** @return deg(m*) + 1 = n − t − 1 */
+    public int size() {
+        return P.length;
+    }
+
+    /** @return P_d */
+    public ECPoint get(int d) {
+        return P[d];
+    }
+
+    private static ECPoint sumAll(ECCurve curve, ECPoint[] pts) {
+        ECPoint acc = curve.getInfinity();
+        for (ECPoint pt : pts)
+            acc = acc.add(pt);
+        return acc;
+    }
+
+    /** α·R; α is a small party index in practice, so skip BigInteger's wNAF. */
+    private static ECPoint timesAlpha(ECPoint R, BigInteger alpha, BigInteger p) {
+        if (alpha.signum() <= 0 || alpha.bitLength() > 31)
+            return R.multiply(alpha.mod(p));
+        int m = alpha.intValue();
+        int top = 31 - Integer.numberOfLeadingZeros(m);
+        ECPoint acc = R;
+        for (int b = top - 1; b >= 0; b--) {
+            acc = acc.twice();
+            if (((m >>> b) & 1) != 0)
+                acc = acc.add(R);
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Fiat–Shamir transcript for the v3 DLEQ and v2 Schnorr proof formats.
+ *
+ * transcript = SHA-512( "NAP-DKG/FS/v2" ∥ domain ∥ (label ∥ value)* )
+ * e = transcript mod p
+ *
+ * • every label and value is length-prefixed, so (label, value) boundaries
+ * cannot be shifted between fields
+ * • the domain string separates proof types (DLEQ vs. Schnorr DL)
+ * • 512 hash bits reduced mod a 256-bit p: bias ≤ 2⁻²⁵⁶, no rejection loop
+ * • every {@link #start} clones a prototype digest that has already absorbed
+ * the protocol tag, so a proof costs no SecureRandom/MessageDigest lookups
+ *
+ * Each {@link #start} returns a transcript of its own, so proofs nested on
+ * one thread (e.g. PartyRuntime.compute running inline) cannot interleave.
+ * A transcript is not thread-safe.
+ */
+public final class FiatShamirTranscript {
+    private static final String PROTOCOL = "NAP-DKG/FS/v2";
+
+    // SHA-512 after the protocol label; only ever cloned, never updated again
+    private static final MessageDigest PROTOTYPE = prototype();
+
+    private final MessageDigest md;
+    private final BigInteger order;
+
+    private FiatShamirTranscript(MessageDigest md, BigInteger order) {
+        this.md = md;
+        this.order = order;
+    }
+
+    private static MessageDigest sha512() {
+        try {
+            return MessageDigest.getInstance("SHA-512");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("SHA-512 algorithm not available", ex);
+        }
+    }
+
+    private static MessageDigest prototype() {
+        FiatShamirTranscript tr = new FiatShamirTranscript(sha512(), null);
+        tr.absorbLabel(PROTOCOL);
+        return tr.md;
+    }
+
+    private static MessageDigest freshDigest() {
+        try {
+            return (MessageDigest) PROTOTYPE.clone();
+        } catch (CloneNotSupportedException ex) {
+            FiatShamirTranscript tr = new FiatShamirTranscript(sha512(), null);
+            tr.absorbLabel(PROTOCOL);
+            return tr.md;
+        }
+    }
+
+    /**
+     * @param ctx    supplies the challenge modulus p
+     * @param domain proof type, e.g. "dleq" or "schnorr"
+     * @return a new transcript, bound to the domain
+     */
+    public static FiatShamirTranscript start(DkgContext ctx, String domain) {
+        FiatShamirTranscript tr = new FiatShamirTranscript(freshDigest(), ctx.getOrder());
+        tr.absorbLabel(domain);
+        return tr;
+    }
+
+    /** Absorb label ∥ compressed(P) (a single 0x00 byte for 𝒪). */
+    public FiatShamirTranscript appendPoint(String label, ECPoint point) {
+        absorbLabel(label);
+        byte[] enc = point.getEncoded(true);
+        absorbLength(enc.length);
+        md.update(enc);
+        return this;
+    }
+
+    /**
+     * Absorb label ∥ k.toByteArray(): big-endian two's complement, so a
+     * non-negative k may carry a leading 0x00 sign byte.
+     */
+    public FiatShamirTranscript appendScalar(String label, BigInteger k) {
+        absorbLabel(label);
+        byte[] enc = k.toByteArray();
+        absorbLength(enc.length);
+        md.update(enc);
+        return this;
+    }
+
+    /**
+     * Squeeze a challenge e ∈ ℤₚ. The digest output is fed back in, so further
+     * appends and challenges continue the same transcript.
+     */
+    public BigInteger challengeScalar(String label) {
+        absorbLabel(label);
+        byte[] out = md.digest();
+        md.update(out);
+        return new BigInteger(1, out).mod(order);
+    }
+
+    private void absorbLabel(String label) {
+        int len = label.length();
+        absorbLength(len);
+        for (int i = 0; i < len; i++)
+            md.update((byte) label.charAt(i)); // labels are ASCII constants
+    }
+
+    private void absorbLength(int len) {
+        md.update((byte) (len >>> 8));
+        md.update((byte) len);
+    }
+}
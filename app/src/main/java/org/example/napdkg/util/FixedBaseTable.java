@@ -0,0 +1,89 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Fixed-base windowed table for a point B of prime order p.
+ *
+ * Writing k = Σᵢ kᵢ·2⁸ⁱ with 8-bit digits kᵢ, we precompute
+ *
+ * T[i][d] = d·2⁸ⁱ·B for i = 0…⌈|p|/8⌉−1, d = 1…255
+ *
+ * (all affine), so k·B = Σᵢ T[i][kᵢ] costs at most ⌈|p|/8⌉ mixed additions
+ * and no doublings. For secp256r1 that is 32 rows × 255 points, built once.
+ *
+ * Note: the row lookup is indexed by the scalar digits, so this is not
+ * constant-time. Fine for the simulation/benchmark setting of this repo.
+ */
+public final class FixedBaseTable {
+    private static final int WINDOW_BITS = 8;
+    private static final int ROW_SIZE = 1 << WINDOW_BITS;
+
+    private final ECPoint base;
+    private final BigInteger order;
+    private final ECPoint[][] rows; // rows[i][d] = d·2⁸ⁱ·B, rows[i][0] unused
+
+    private FixedBaseTable(ECPoint base, BigInteger order, ECPoint[][] rows) {
+        this.base = base;
+        this.order = order;
+        this.rows = rows;
+    }
+
+    /**
+     * Precomputes the table for B.
+     *
+     * @param base  the fixed base B
+     * @param order the prime order p of B (scalars are reduced mod p)
+     * @return the table
+     */
+    public static FixedBaseTable build(ECPoint base, BigInteger order) {
+        ECCurve curve = base.getCurve();
+        int numRows = (order.bitLength() + WINDOW_BITS - 1) / WINDOW_BITS;
+        ECPoint[][] rows = new ECPoint[numRows][];
+
+        ECPoint rowBase = base.normalize(); // 2⁸ⁱ·B
+        for (int i = 0; i < numRows; i++) {
+            ECPoint[] row = new ECPoint[ROW_SIZE];
+            row[1] = rowBase;
+            for (int d = 2; d < ROW_SIZE; d++) {
+                row[d] = row[d - 1].add(rowBase);
+            }
+            // one inversion for the whole row (Montgomery's trick)
+            curve.normalizeAll(row, 1, ROW_SIZE - 1, null);
+            rows[i] = row;
+            rowBase = row[ROW_SIZE - 1].add(rowBase).normalize();
+        }
+        return new FixedBaseTable(base, order, rows);
+    }
+
+    /** @return B — the base this table was built for */
+    public ECPoint getBase() {
+        return base;
+    }
+
+    /**
+     * Computes k·B from the table.
+     *
+     * @param k any scalar (reduced mod p first, so negative/oversized k is fine)
+     * @return k·B, NOT normalized (callers normalize when they need affine)
+     */
+    public ECPoint multiply(BigInteger k) {
+        if (k.signum() < 0 || k.compareTo(order) >= 0) {
+            k = k.mod(order);
+        }
+        byte[] digits = k.toByteArray(); // big-endian, may carry a leading 0x00
+        ECPoint acc = base.getCurve().getInfinity();
+        int last = digits.length - 1;
+        int numRows = Math.min(rows.length, digits.length);
+        for (int i = 0; i < numRows; i++) {
+            int d = digits[last - i] & 0xff;
+            if (d != 0) {
+                acc = acc.add(rows[i][d]);
+            }
+        }
+        return acc;
+    }
+}
@@ -221,6 +221,11 @@ public class HashingTools {
             bos.write(pkComp, 0, pkComp.length);
         }
 
+        // affine inputs: one shared inversion instead of one per getEncoded
+        // (on copies; E and Cij are the caller's)
+        E = DkgUtils.normalized(E);
+        Cij = DkgUtils.normalized(Cij);
+
         // 2) E array: ephemeral pubkeys, each compressed => 33 bytes
         for (ECPoint e : E) {
             byte[] compE = e.getEncoded(true);
@@ -0,0 +1,213 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lagrange / SCRAPE coefficients over the evaluation points α₀ … αₙ.
+ *
+ * • SCRAPE dual-code weights vᵢ = ∏_{j≠i} 1/(αᵢ−αⱼ). For αᵢ = i this is
+ * vᵢ = (−1)ⁿ⁻ⁱ / ((i−1)!·(n−i)!), read off factorial tables: O(n)
+ * multiplications and a single modInverse.
+ * • Interpolation weights at α₀ for an index set I:
+ * λᵢ = ∏_{j∈I, j≠i} (α₀−αⱼ)/(αᵢ−αⱼ) = N / ((α₀−αᵢ)·Dᵢ)
+ * with N = ∏_{j∈I}(α₀−αⱼ) and Dᵢ = ∏_{j≠i}(αᵢ−αⱼ); all |I| denominators are
+ * inverted together (Montgomery's trick), so one modInverse per set instead
+ * of |I|². Small-integer differences are multiplied in a long before
+ * touching BigInteger. Results are memoized per index set.
+ *
+ * One engine per DkgContext, see {@link DkgContext#getLagrange()}.
+ */
+public final class LagrangeEngine {
+    private final BigInteger p;
+    private final BigInteger[] alphas;
+    private final long[] small; // αᵢ as long, or null if some αᵢ ∉ [0, 2²⁰)
+    private final Map<IndexSet, BigInteger[]> lambdaCache = new ConcurrentHashMap<>();
+
+    public LagrangeEngine(BigInteger p, BigInteger[] alphas) {
+        this.p = p;
+        this.alphas = alphas;
+        this.small = smallValues(alphas);
+    }
+
+    /**
+     * @param indices indices into α (|I| ≥ 1, distinct)
+     * @return λ[k] for αᵢ, i = indices[k], interpolating at α₀ (fresh copy)
+     */
+    public BigInteger[] lambdasAtZero(int[] indices) {
+        BigInteger[] lam = lambdaCache.computeIfAbsent(new IndexSet(indices), k -> computeLambdas(k.indices));
+        return lam.clone();
+    }
+
+    /**
+     * @return {v₁ … vₙ}, vᵢ = ∏_{j∈[1..n], j≠i} 1/(αᵢ−αⱼ) mod p (zero-based)
+     */
+    public static BigInteger[] scrapeWeights(BigInteger p, BigInteger[] alphas, int n) {
+        if (isConsecutive(alphas, n))
+            return scrapeWeightsConsecutive(p, n);
+
+        // general distinct α: Dᵢ = ∏_{j≠i}(αᵢ−αⱼ), then one batch inversion
+        BigInteger[] D = new BigInteger[n];
+        for (int i = 1; i <= n; i++) {
+            BigInteger prod = BigInteger.ONE;
+            for (int j = 1; j <= n; j++)
+                if (j != i)
+                    prod = prod.multiply(alphas[i].subtract(alphas[j])).mod(p);
+            D[i - 1] = prod;
+        }
+        return batchInverse(D, p);
+    }
+
+    /** αᵢ = i: vᵢ = (−1)ⁿ⁻ⁱ·invFact[i−1]·invFact[n−i]. */
+    private static BigInteger[] scrapeWeightsConsecutive(BigInteger p, int n) {
+        BigInteger[] fact = new BigInteger[n];
+        fact[0] = BigInteger.ONE;
+        for (int k = 1; k < n; k++)
+            fact[k] = fact[k - 1].multiply(BigInteger.valueOf(k)).mod(p);
+
+        BigInteger[] invFact = new BigInteger[n];
+        invFact[n - 1] = fact[n - 1].modInverse(p);
+        for (int k = n - 1; k > 0; k--)
+            invFact[k - 1] = invFact[k].multiply(BigInteger.valueOf(k)).mod(p);
+
+        BigInteger[] v = new BigInteger[n];
+        for (int i = 1; i <= n; i++) {
+            BigInteger w = invFact[i - 1].multiply(invFact[n - i]).mod(p);
+            v[i - 1] = ((n - i) & 1) == 0 ? w : p.subtract(w).mod(p);
+        }
+        return v;
+    }
+
+    /**
+     * Montgomery's trick: n inverses for 3(n−1) multiplications and one
+     * modInverse.
+     *
+     * @throws ArithmeticException if some element is 0 mod p
+     */
+    public static BigInteger[] batchInverse(BigInteger[] a, BigInteger p) {
+        int n = a.length;
+        BigInteger[] out = new BigInteger[n];
+        if (n == 0)
+            return out;
+        BigInteger[] prefix = new BigInteger[n];
+        BigInteger acc = BigInteger.ONE;
+        for (int i = 0; i < n; i++) {
+            acc = acc.multiply(a[i]).mod(p);
+            prefix[i] = acc;
+        }
+        BigInteger inv = acc.modInverse(p);
+        for (int i = n - 1; i > 0; i--) {
+            out[i] = inv.multiply(prefix[i - 1]).mod(p);
+            inv = inv.multiply(a[i]).mod(p);
+        }
+        out[0] = inv;
+        return out;
+    }
+
+    private BigInteger[] computeLambdas(int[] idx) {
+        int m = idx.length;
+        BigInteger[] lam = new BigInteger[m];
+
+        // α₀ itself in the set: the interpolant is just that share
+        for (int k = 0; k < m; k++) {
+            if (alphas[idx[k]].equals(alphas[0])) {
+                Arrays.fill(lam, BigInteger.ZERO);
+                lam[k] = BigInteger.ONE;
+                return lam;
+            }
+        }
+
+        BigInteger N = BigInteger.ONE;
+        BigInteger[] d = new BigInteger[m];
+        if (small != null) {
+            long[] a = new long[m];
+            for (int k = 0; k < m; k++)
+                a[k] = small[idx[k]];
+            long a0 = small[0];
+            N = productOfDifferences(a0, a, -1);
+            for (int k = 0; k < m; k++)
+                d[k] = productOfDifferences(a[k], a, k)
+                        .multiply(BigInteger.valueOf(a0 - a[k])).mod(p);
+        } else {
+            BigInteger x0 = alphas[0];
+            for (int k = 0; k < m; k++)
+                N = N.multiply(x0.subtract(alphas[idx[k]])).mod(p);
+            for (int k = 0; k < m; k++) {
+                BigInteger ak = alphas[idx[k]];
+                BigInteger D = x0.subtract(ak);
+                for (int j = 0; j < m; j++)
+                    if (j != k)
+                        D = D.multiply(ak.subtract(alphas[idx[j]])).mod(p);
+                d[k] = D;
+            }
+        }
+
+        BigInteger[] dInv = batchInverse(d, p);
+        for (int k = 0; k < m; k++)
+            lam[k] = N.multiply(dInv[k]).mod(p);
+        return lam;
+    }
+
+    /**
+     * ∏_{j≠skip} (x − a[j]) mod p. Each |x − a[j]| < 2²⁰, so three factors
+     * fit in a long before one BigInteger multiply/mod.
+     */
+    private BigInteger productOfDifferences(long x, long[] a, int skip) {
+        BigInteger prod = BigInteger.ONE;
+        long acc = 1;
+        int inAcc = 0;
+        for (int j = 0; j < a.length; j++) {
+            if (j == skip)
+                continue;
+            acc *= (x - a[j]);
+            if (++inAcc == 3) {
+                prod = prod.multiply(BigInteger.valueOf(acc)).mod(p);
+                acc = 1;
+                inAcc = 0;
+            }
+        }
+        if (inAcc > 0)
+            prod = prod.multiply(BigInteger.valueOf(acc)).mod(p);
+        return prod;
+    }
+
+    private static long[] smallValues(BigInteger[] alphas) {
+        long[] out = new long[alphas.length];
+        for (int i = 0; i < alphas.length; i++) {
+            if (alphas[i].signum() < 0 || alphas[i].bitLength() > 20)
+                return null;
+            out[i] = alphas[i].longValue();
+        }
+        return out;
+    }
+
+    private static boolean isConsecutive(BigInteger[] alphas, int n) {
+        for (int i = 1; i <= n; i++)
+            if (alphas[i].bitLength() > 31 || alphas[i].intValue() != i)
+                return false;
+        return true;
+    }
+
+    /** Hashable copy of an index array. */
+    private static final class IndexSet {
+        final int[] indices;
+        final int hash;
+
+        IndexSet(int[] indices) {
+            this.indices = indices.clone();
+            this.hash = Arrays.hashCode(this.indices);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IndexSet && Arrays.equals(indices, ((IndexSet) o).indices);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Multi-scalar multiplication Σᵢ kᵢ·Pᵢ.
+ *
+ * • small inputs: Straus (interleaved wNAF, shared doublings) via
+ * BouncyCastle's ECAlgorithms.sumOfMultiplies
+ * • large inputs: Pippenger buckets with c-bit windows, c ≈ ln(n), so each
+ * window costs n + 2ᶜ additions instead of n full multiplications
+ *
+ * Used for the SCRAPE aggregates U = Σ wₖ·Eₖ, V = Σ wₖ·Cⱼₖ, Lagrange in the
+ * exponent and the two-term z·G + e·x checks in the NIZK verifiers.
+ */
+public final class MultiScalarMul {
+    /** Below this many terms Straus beats Pippenger on secp256r1. */
+    static final int PIPPENGER_THRESHOLD = 400;
+
+    private MultiScalarMul() {
+        /* no-op */ }
+
+    /**
+     * @param points  P₁…Pₙ (all on the same curve, n ≥ 1)
+     * @param scalars k₁…kₙ
+     * @return Σᵢ kᵢ·Pᵢ, NOT normalized
+     */
+    public static ECPoint sum(ECPoint[] points, BigInteger[] scalars) {
+        if (points.length != scalars.length)
+            throw new IllegalArgumentException("point count ≠ scalar count");
+        if (points.length == 0)
+            throw new IllegalArgumentException("empty multi-scalar multiplication");
+        if (points.length == 1)
+            return points[0].multiply(reduce(points[0].getCurve(), scalars[0]));
+        if (points.length < PIPPENGER_THRESHOLD)
+            return straus(points, scalars);
+        return pippenger(points, scalars);
+    }
+
+    /**
+     * Σᵢ kᵢ·Pᵢ as one {@link #sum} per slice of at most chunk terms, the
+     * slices run through {@link ChunkedRange} and added in slice order.
+     * Slicing costs a few more doublings than one big sum, which is what
+     * buys the cores.
+     *
+     * @return Σᵢ kᵢ·Pᵢ, NOT normalized
+     */
+    public static ECPoint sum(ECPoint[] points, BigInteger[] scalars, int chunk) {
+        int n = points.length;
+        if (n != scalars.length)
+            throw new IllegalArgumentException("point count ≠ scalar count");
+        if (n <= chunk)
+            return sum(points, scalars);
+        ECPoint[] parts = new ECPoint[ChunkedRange.chunks(n, chunk)];
+        ChunkedRange.forEach(n, chunk, (lo, hi) -> parts[lo / chunk] = sum(Arrays.copyOfRange(points, lo, hi),
+                Arrays.copyOfRange(scalars, lo, hi)));
+        ECPoint acc = parts[0];
+        for (int i = 1; i < parts.length; i++)
+            acc = acc.add(parts[i]);
+        return acc;
+    }
+
+    /** @return a·P + b·Q (Shamir's trick), NOT normalized */
+    public static ECPoint sumOfTwo(ECPoint P, BigInteger a, ECPoint Q, BigInteger b) {
+        return ECAlgorithms.sumOfTwoMultiplies(P, a, Q, b);
+    }
+
+    /** Interleaved wNAF: one shared chain of doublings for all terms. */
+    public static ECPoint straus(ECPoint[] points, BigInteger[] scalars) {
+        return ECAlgorithms.sumOfMultiplies(points, scalars);
+    }
+
+    /** Bucket method: per c-bit window, drop Pᵢ into bucket kᵢ's digit. */
+    public static ECPoint pippenger(ECPoint[] points, BigInteger[] scalars) {
+        int n = points.length;
+        ECCurve curve = points[0].getCurve();
+        ECPoint infinity = curve.getInfinity();
+
+        // affine inputs → cheaper mixed additions into the buckets
+        ECPoint[] P = points;
+        for (ECPoint pt : points) {
+            if (!pt.isNormalized()) {
+                P = points.clone();
+                curve.normalizeAll(P);
+                break;
+            }
+        }
+
+        BigInteger[] k = new BigInteger[n];
+        int bits = 1;
+        for (int i = 0; i < n; i++) {
+            k[i] = reduce(curve, scalars[i]);
+            bits = Math.max(bits, k[i].bitLength());
+        }
+
+        int c = windowBits(n);
+        int numWindows = (bits + c - 1) / c;
+        ECPoint[] buckets = new ECPoint[(1 << c) - 1];
+
+        ECPoint acc = infinity;
+        for (int w = numWindows - 1; w >= 0; w--) {
+            for (int j = 0; j < c; j++)
+                acc = acc.twice();
+
+            Arrays.fill(buckets, null);
+            int lo = w * c;
+            for (int i = 0; i < n; i++) {
+                int d = digit(k[i], lo, c);
+                if (d != 0) {
+                    ECPoint b = buckets[d - 1];
+                    buckets[d - 1] = (b == null) ? P[i] : b.add(P[i]);
+                }
+            }
+
+            // Σ_d d·B_d via running sums from the top bucket down
+            ECPoint running = infinity;
+            ECPoint windowSum = infinity;
+            for (int d = buckets.length - 1; d >= 0; d--) {
+                if (buckets[d] != null)
+                    running = running.add(buckets[d]);
+                windowSum = windowSum.add(running);
+            }
+            acc = acc.add(windowSum);
+        }
+        return acc;
+    }
+
+    /** c ≈ ln(n), clamped to [4, 12]. */
+    static int windowBits(int n) {
+        int c = (int) Math.round(Math.log(n));
+        return Math.max(4, Math.min(12, c));
+    }
+
+    private static int digit(BigInteger k, int lo, int c) {
+        int d = 0;
+        for (int b = 0; b < c; b++) {
+            if (k.testBit(lo + b))
+                d |= 1 << b;
+        }
+        return d;
+    }
+
+    private static BigInteger reduce(ECCurve curve, BigInteger k) {
+        BigInteger order = curve.getOrder();
+        if (order != null && (k.signum() < 0 || k.compareTo(order) >= 0))
+            return k.mod(order);
+        return k;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.napdkg.util;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Running sum Σ Pᵢ kept in BouncyCastle's projective (Jacobian) coordinates.
+ *
+ * acc.add(P).normalize() in a loop pays one field inversion per term; here
+ * the terms are added projectively (mixed additions when Pᵢ is affine) and
+ * {@link #sum()} normalizes once.
+ *
+ * Not thread-safe; one accumulator per loop.
+ */
+public final class PointAccumulator {
+    private ECPoint acc;
+
+    /** Starts at 𝒪. */
+    public PointAccumulator(ECCurve curve) {
+        this.acc = curve.getInfinity();
+    }
+
+    /** acc ← acc + P */
+    public PointAccumulator add(ECPoint P) {
+        acc = acc.add(P);
+        return this;
+    }
+
+    /** acc ← acc − P */
+    public PointAccumulator subtract(ECPoint P) {
+        acc = acc.subtract(P);
+        return this;
+    }
+
+    /** @return Σ Pᵢ, normalized */
+    public ECPoint sum() {
+        acc = acc.normalize();
+        return acc;
+    }
+
+    /** @return Σ points, normalized (𝒪 for no terms) */
+    public static ECPoint sumOf(ECCurve curve, Iterable<ECPoint> points) {
+        PointAccumulator a = new PointAccumulator(curve);
+        for (ECPoint P : points)
+            a.add(P);
+        return a.sum();
+    }
+}
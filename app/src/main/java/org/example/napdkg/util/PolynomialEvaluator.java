@@ -0,0 +1,115 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Evaluates f(X) = Σ cⱼ·Xʲ mod p at many points at once.
+ *
+ * With the protocol's αᵢ = i the points are consecutive integers, so after
+ * d+1 Horner evaluations (small-integer multipliers) the forward-difference
+ * table Δ⁰f … Δᵈf at the first point is stepped along with
+ * Δᵏf(x+1) = Δᵏf(x) + Δᵏ⁺¹f(x): d modular additions per further point
+ * instead of d BigInteger multiply/mod pairs.
+ *
+ * Arbitrary points fall back to Horner per point.
+ */
+public final class PolynomialEvaluator {
+
+    private PolynomialEvaluator() {
+        /* no-op */ }
+
+    /**
+     * @param c      coefficients [c₀ … c_d]
+     * @param alphas evaluation points α₀ … αₙ
+     * @param p      prime modulus
+     * @return out[i] = f(αᵢ) mod p for every i
+     */
+    public static BigInteger[] evaluateAll(BigInteger[] c, BigInteger[] alphas, BigInteger p) {
+        int len = alphas.length;
+        BigInteger[] out = new BigInteger[len];
+        if (len == 0)
+            return out;
+
+        if (isUnitRun(alphas, 0)) {
+            System.arraycopy(evaluateConsecutive(c, alphas[0], len, p), 0, out, 0, len);
+        } else if (isUnitRun(alphas, 1)) {
+            // α₀ off the run (e.g. α₀ = 0 with α₁ … αₙ shifted)
+            out[0] = horner(c, alphas[0], p);
+            System.arraycopy(evaluateConsecutive(c, alphas[1], len - 1, p), 0, out, 1, len - 1);
+        } else {
+            for (int i = 0; i < len; i++)
+                out[i] = horner(c, alphas[i], p);
+        }
+        return out;
+    }
+
+    /**
+     * @param c     coefficients [c₀ … c_d]
+     * @param x0    first point
+     * @param count number of points
+     * @param p     prime modulus
+     * @return out[k] = f(x0 + k) mod p, k = 0 … count−1
+     */
+    public static BigInteger[] evaluateConsecutive(BigInteger[] c, BigInteger x0, int count, BigInteger p) {
+        BigInteger[] out = new BigInteger[count];
+        int d = c.length - 1;
+        if (d < 0) {
+            Arrays.fill(out, BigInteger.ZERO);
+            return out;
+        }
+        // few points: the difference table would cost more than it saves
+        if (count <= d + 1) {
+            for (int k = 0; k < count; k++)
+                out[k] = horner(c, x0.add(BigInteger.valueOf(k)), p);
+            return out;
+        }
+
+        // y[k] = f(x0 + k), k = 0 … d
+        BigInteger[] y = new BigInteger[d + 1];
+        for (int k = 0; k <= d; k++)
+            y[k] = horner(c, x0.add(BigInteger.valueOf(k)), p);
+
+        // in place: y[k] ← Δᵏf(x0)
+        for (int k = 1; k <= d; k++)
+            for (int i = d; i >= k; i--)
+                y[i] = subMod(y[i], y[i - 1], p);
+
+        out[0] = y[0];
+        for (int k = 1; k < count; k++) {
+            for (int j = 0; j < d; j++)
+                y[j] = addMod(y[j], y[j + 1], p);
+            out[k] = y[0];
+        }
+        return out;
+    }
+
+    /** Horner's rule (one-word multiplier for small x). */
+    private static BigInteger horner(BigInteger[] c, BigInteger x, BigInteger p) {
+        if (c.length == 0)
+            return BigInteger.ZERO;
+        BigInteger xr = x.mod(p);
+        BigInteger r = c[c.length - 1].mod(p);
+        for (int j = c.length - 2; j >= 0; j--)
+            r = r.multiply(xr).add(c[j]).mod(p);
+        return r;
+    }
+
+    /** αₛ, αₛ₊₁, … step by exactly 1. */
+    private static boolean isUnitRun(BigInteger[] alphas, int start) {
+        for (int i = start + 1; i < alphas.length; i++)
+            if (!alphas[i].subtract(alphas[i - 1]).equals(BigInteger.ONE))
+                return false;
+        return start < alphas.length;
+    }
+
+    private static BigInteger addMod(BigInteger a, BigInteger b, BigInteger p) {
+        BigInteger s = a.add(b);
+        return s.compareTo(p) >= 0 ? s.subtract(p) : s;
+    }
+
+    private static BigInteger subMod(BigInteger a, BigInteger b, BigInteger p) {
+        BigInteger s = a.subtract(b);
+        return s.signum() < 0 ? s.add(p) : s;
+    }
+}
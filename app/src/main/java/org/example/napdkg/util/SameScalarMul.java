@@ -0,0 +1,247 @@
+package org.example.napdkg.util;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.math.ec.custom.sec.SecP256R1Curve;
+import org.bouncycastle.math.ec.custom.sec.SecP256R1Field;
+import org.bouncycastle.math.raw.Nat256;
+
+/**
+ * One scalar times many points: k·P₁ … k·Pₘ, for the ECDH masks k·E_j
+ * (dealer: sk_i·E_j over all recipients) and unmasks (verifier: sk_i·E_j
+ * over the dealers in Q1).
+ *
+ * k is recoded to wNAF once and every point walks the same digits in
+ * lockstep, in affine coordinates. Each doubling or addition step needs one
+ * field inversion per point; across the batch those are done together
+ * (Montgomery's trick: 1 inversion + 3(m−1) multiplications), so the batch
+ * pays the cheaper affine formulas without an inversion per point per step.
+ * The odd multiples P, 3P, … that the digits add are built the same way.
+ *
+ * The batch works on secp256r1's raw 8-limb field elements (BouncyCastle's
+ * SecP256R1Field), allocation-free inside the loop. Other curves, and
+ * batches too small to amortize the inversion, go point by point.
+ */
+public final class SameScalarMul {
+    /** wNAF width: digits ±1, ±3, …, ±(2^(w−1) − 1). */
+    static final int WIDTH = 5;
+    /** Below this many points the per-point multiply is as fast. */
+    static final int MIN_BATCH = 8;
+
+    private static final int[] ONE = Nat256.fromBigInteger(BigInteger.ONE);
+
+    private SameScalarMul() {
+        /* no-op */ }
+
+    /**
+     * @param points P₁ … Pₘ (same curve; any coordinates, 𝒪 allowed)
+     * @param k      the scalar
+     * @return k·Pᵢ in the same order, normalized
+     */
+    public static ECPoint[] multiply(ECPoint[] points, BigInteger k) {
+        int m = points.length;
+        ECPoint[] out = new ECPoint[m];
+        if (m == 0)
+            return out;
+        ECCurve curve = points[0].getCurve();
+        k = k.mod(curve.getOrder());
+        if (m < MIN_BATCH || k.signum() == 0 || !(curve instanceof SecP256R1Curve)) {
+            for (int i = 0; i < m; i++)
+                out[i] = points[i].multiply(k);
+            return DkgUtils.normalizeAll(out);
+        }
+
+        ECPoint[] P = points.clone();
+        curve.normalizeAll(P);
+        Scratch s = new Scratch(m);
+        Batch b = new Batch(curve, m);
+        for (int i = 0; i < m; i++)
+            b.set(i, P[i]);
+
+        // odd multiples T[d] = (2d+1)·P, d < 2^(w−2)
+        Batch[] T = new Batch[1 << (WIDTH - 2)];
+        T[0] = b;
+        Batch twoP = b.copy();
+        twoP.twice(s);
+        for (int d = 1; d < T.length; d++) {
+            T[d] = T[d - 1].copy();
+            T[d].add(twoP, false, s);
+        }
+
+        // most significant digit first; the top digit of a wNAF is positive
+        byte[] naf = WNafUtil.generateWindowNaf(WIDTH, k);
+        int top = naf.length - 1;
+        Batch acc = T[naf[top] >> 1].copy();
+        for (int i = top - 1; i >= 0; i--) {
+            acc.twice(s);
+            int d = naf[i];
+            if (d != 0)
+                acc.add(T[Math.abs(d) >> 1], d < 0, s);
+        }
+
+        for (int i = 0; i < m; i++)
+            out[i] = acc.get(i);
+        return out;
+    }
+
+    /** Per-call buffers shared by all batches of one multiply. */
+    private static final class Scratch {
+        final int[][] den, prefix;
+        final boolean[] alone;
+        final int[] inv = Nat256.create(), t = Nat256.create(), lambda = Nat256.create(), x3 = Nat256.create();
+
+        Scratch(int m) {
+            den = new int[m][8];
+            prefix = new int[m][8];
+            alone = new boolean[m];
+        }
+
+        /** den[q] ← 1/den[q] wherever !alone[q], with one field inversion. */
+        void invertAll(int m) {
+            int last = -1;
+            for (int q = 0; q < m; q++) {
+                if (alone[q])
+                    continue;
+                if (last < 0)
+                    System.arraycopy(den[q], 0, prefix[q], 0, 8);
+                else
+                    SecP256R1Field.multiply(prefix[last], den[q], prefix[q]);
+                last = q;
+            }
+            if (last < 0)
+                return;
+            SecP256R1Field.inv(prefix[last], inv);
+            // inv = 1/(d₀…d_q), so 1/d_q = inv·(d₀…d_{q−1}) and inv·d_q steps back one
+            for (int q = last; q >= 0;) {
+                int prev = q - 1;
+                while (prev >= 0 && alone[prev])
+                    prev--;
+                if (prev < 0) {
+                    System.arraycopy(inv, 0, den[q], 0, 8);
+                } else {
+                    SecP256R1Field.multiply(inv, den[q], t);
+                    SecP256R1Field.multiply(inv, prefix[prev], den[q]);
+                    System.arraycopy(t, 0, inv, 0, 8);
+                }
+                q = prev;
+            }
+        }
+    }
+
+    /**
+     * m affine points as coordinate arrays, one group operation applied to
+     * all of them at once. A point at 𝒪, or an addition of a point to itself
+     * or its negative, leaves the batch formulas and is done by BouncyCastle
+     * on its own; for a secret scalar that does not happen in practice.
+     */
+    private static final class Batch {
+        private final ECCurve curve;
+        private final int[][] x, y;
+        private final boolean[] inf;
+
+        Batch(ECCurve curve, int m) {
+            this.curve = curve;
+            this.x = new int[m][];
+            this.y = new int[m][];
+            this.inf = new boolean[m];
+        }
+
+        void set(int q, ECPoint p) {
+            inf[q] = p.isInfinity();
+            if (inf[q])
+                return;
+            x[q] = SecP256R1Field.fromBigInteger(p.getAffineXCoord().toBigInteger());
+            y[q] = SecP256R1Field.fromBigInteger(p.getAffineYCoord().toBigInteger());
+        }
+
+        ECPoint get(int q) {
+            return inf[q] ? curve.getInfinity()
+                    : curve.createPoint(Nat256.toBigInteger(x[q]), Nat256.toBigInteger(y[q]));
+        }
+
+        Batch copy() {
+            int m = x.length;
+            Batch c = new Batch(curve, m);
+            for (int q = 0; q < m; q++) {
+                c.inf[q] = inf[q];
+                if (!inf[q]) {
+                    c.x[q] = x[q].clone();
+                    c.y[q] = y[q].clone();
+                }
+            }
+            return c;
+        }
+
+        /** this ← 2·this */
+        void twice(Scratch s) {
+            int m = x.length;
+            for (int q = 0; q < m; q++) {
+                s.alone[q] = inf[q] || SecP256R1Field.isZero(y[q]) != 0;
+                if (!s.alone[q])
+                    SecP256R1Field.twice(y[q], s.den[q]); // 2y
+            }
+            s.invertAll(m);
+            int[] lambda = s.lambda, t = s.t, x3 = s.x3;
+            for (int q = 0; q < m; q++) {
+                if (s.alone[q]) {
+                    set(q, get(q).twice().normalize());
+                    continue;
+                }
+                int[] xq = x[q], yq = y[q];
+                // λ = (3x² − 3) / 2y  (a = −3)
+                SecP256R1Field.square(xq, t);
+                SecP256R1Field.subtract(t, ONE, t);
+                SecP256R1Field.twice(t, lambda);
+                SecP256R1Field.add(lambda, t, lambda);
+                SecP256R1Field.multiply(lambda, s.den[q], lambda);
+                // x₃ = λ² − 2x, y₃ = λ(x − x₃) − y
+                SecP256R1Field.square(lambda, x3);
+                SecP256R1Field.twice(xq, t);
+                SecP256R1Field.subtract(x3, t, x3);
+                SecP256R1Field.subtract(xq, x3, t);
+                SecP256R1Field.multiply(lambda, t, t);
+                SecP256R1Field.subtract(t, yq, yq);
+                System.arraycopy(x3, 0, xq, 0, 8);
+            }
+        }
+
+        /** this ← this ± other, point by point */
+        void add(Batch other, boolean negate, Scratch s) {
+            int m = x.length;
+            for (int q = 0; q < m; q++) {
+                s.alone[q] = inf[q] || other.inf[q] || Nat256.eq(x[q], other.x[q]);
+                if (!s.alone[q])
+                    SecP256R1Field.subtract(other.x[q], x[q], s.den[q]); // x₂ − x₁
+            }
+            s.invertAll(m);
+            int[] lambda = s.lambda, t = s.t, x3 = s.x3;
+            for (int q = 0; q < m; q++) {
+                if (s.alone[q]) {
+                    ECPoint o = other.get(q);
+                    set(q, get(q).add(negate ? o.negate() : o).normalize());
+                    continue;
+                }
+                int[] xq = x[q], yq = y[q];
+                // λ = (±y₂ − y₁) / (x₂ − x₁)
+                if (negate) {
+                    SecP256R1Field.add(other.y[q], yq, lambda);
+                    SecP256R1Field.negate(lambda, lambda);
+                } else {
+                    SecP256R1Field.subtract(other.y[q], yq, lambda);
+                }
+                SecP256R1Field.multiply(lambda, s.den[q], lambda);
+                // x₃ = λ² − x₁ − x₂, y₃ = λ(x₁ − x₃) − y₁
+                SecP256R1Field.square(lambda, x3);
+                SecP256R1Field.subtract(x3, xq, x3);
+                SecP256R1Field.subtract(x3, other.x[q], x3);
+                SecP256R1Field.subtract(xq, x3, t);
+                SecP256R1Field.multiply(lambda, t, t);
+                SecP256R1Field.subtract(t, yq, yq);
+                System.arraycopy(x3, 0, xq, 0, 8);
+            }
+        }
+    }
+}
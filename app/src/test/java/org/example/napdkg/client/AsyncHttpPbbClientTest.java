@@ -0,0 +1,105 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.server.InMemoryTopicStore;
+import org.example.napdkg.server.PbbServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncHttpPbbClientTest {
+    private static final int MAX_IN_FLIGHT = 4;
+
+    /** Holds each append a few ms and records how many overlap. */
+    private static final class SlowStore extends InMemoryTopicStore {
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+
+        @Override
+        public long append(String topic, String id, ByteBuffer json) {
+            peak.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                return super.append(topic, id, json);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inside.decrementAndGet();
+            }
+        }
+    }
+
+    private SlowStore store;
+    private PbbServer server;
+    private AsyncHttpPbbClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new SlowStore();
+        // more server threads than permits, so the client's limiter is the bound
+        server = PbbServer.start(new InetSocketAddress("127.0.0.1", 0), store, 4 * MAX_IN_FLIGHT);
+        client = AsyncHttpPbbClient.builder(server.url()).maxInFlight(MAX_IN_FLIGHT).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testBurstBeyondMaxInFlightCompletes() throws Exception {
+        List<CompletableFuture<Void>> fs = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            fs.add(client.publishAsync("burst", new EphemeralKeyDTO("k" + i, i, "pk", "prf")));
+        CompletableFuture.allOf(fs.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+        assertEquals(100, client.fetchAsync("burst", EphemeralKeyDTO.class).get().size());
+        assertTrue("more than " + MAX_IN_FLIGHT + " in flight: " + store.peak.get(),
+                store.peak.get() <= MAX_IN_FLIGHT);
+        assertTrue("limiter never saturated", store.peak.get() > 1);
+    }
+
+    @Test
+    public void testClientErrorsAreIOExceptions() throws Exception {
+        assertIOException(client.deleteAsync("burst", "missing"));
+        assertIOException(client.fetchAsync("no/such/path", EphemeralKeyDTO.class));
+    }
+
+    @Test
+    public void testFailuresReleaseTheirPermits() throws Exception {
+        List<CompletableFuture<Void>> deletes = new ArrayList<>();
+        for (int i = 0; i < 3 * MAX_IN_FLIGHT; i++)
+            deletes.add(client.deleteAsync("burst", "missing" + i));
+        for (CompletableFuture<Void> f : deletes)
+            assertIOException(f);
+
+        client.publishAsync("burst", new EphemeralKeyDTO("a", 1, "pk", "prf")).get(10, TimeUnit.SECONDS);
+        assertEquals(1, client.fetchAsync("burst", EphemeralKeyDTO.class).get(10, TimeUnit.SECONDS).size());
+    }
+
+    private static void assertIOException(CompletableFuture<?> f) throws Exception {
+        try {
+            f.get(10, TimeUnit.SECONDS);
+            fail("expected a 4xx to fail the request");
+        } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof IOException);
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().contains("404"));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.Test;
+
+public class CoalescingPbbClientTest {
+    /** Counts the reads and subscriptions that reach the board; fetches wait for a gate. */
+    private static final class CountingBoard extends InMemoryPbbClient {
+        final AtomicInteger fetches = new AtomicInteger(), subscriptions = new AtomicInteger();
+        volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public <T> List<T> fetch(String topic, Class<T> clazz) {
+            fetches.incrementAndGet();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.fetch(topic, clazz);
+        }
+
+        @Override
+        public <T> Subscription subscribe(String topic, Class<T> clazz, Consumer<? super T> listener) {
+            subscriptions.incrementAndGet();
+            return super.subscribe(topic, clazz, listener);
+        }
+    }
+
+    private static EphemeralKeyDTO key(int i) {
+        return new EphemeralKeyDTO("id" + i, i, "pk" + i, "prf" + i);
+    }
+
+    @Test
+    public void testConcurrentFetchesShareOneRead() throws Exception {
+        CountingBoard board = new CountingBoard();
+        board.publish("ephemeralKeys", key(1));
+        CoalescingPbbClient pbb = new CoalescingPbbClient(board, 0);
+        board.gate = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<List<EphemeralKeyDTO>>> got = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            got.add(pool.submit(() -> pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class)));
+        // let every caller reach the flight before the board answers
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pbb.getJoinedReads() < 3 && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        board.gate.countDown();
+
+        List<EphemeralKeyDTO> first = got.get(0).get();
+        for (Future<List<EphemeralKeyDTO>> f : got)
+            assertSame(first, f.get());
+        pool.shutdown();
+        assertEquals(1, board.fetches.get());
+        assertEquals(3, pbb.getJoinedReads());
+        assertEquals("id1", first.get(0).id);
+    }
+
+    @Test
+    public void testCacheServesUntilTheTopicChanges() throws Exception {
+        CountingBoard board = new CountingBoard();
+        CoalescingPbbClient pbb = new CoalescingPbbClient(board, TimeUnit.MINUTES.toMillis(1));
+        pbb.publish("ephemeralKeys", key(1));
+
+        assertEquals(1, pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        assertEquals(1, pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        assertEquals(1, board.fetches.get());
+        assertEquals(1, pbb.getCacheHits());
+
+        // our own write is seen at once
+        pbb.publish("ephemeralKeys", key(2));
+        assertEquals(2, pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        assertEquals(2, board.fetches.get());
+
+        pbb.delete("ephemeralKeys", "id1");
+        assertEquals(Collections.singletonList("id2"), pbb.fetchIds("ephemeralKeys"));
+    }
+
+    @Test
+    public void testSubscribersShareOneUpstreamSubscription() throws Exception {
+        CountingBoard board = new CountingBoard();
+        CoalescingPbbClient pbb = new CoalescingPbbClient(board);
+        board.publish("ephemeralKeys", key(1));
+
+        List<String> a = Collections.synchronizedList(new ArrayList<>());
+        List<String> b = Collections.synchronizedList(new ArrayList<>());
+        Subscription sa = pbb.subscribe("ephemeralKeys", EphemeralKeyDTO.class, e -> a.add(e.id));
+        board.publish("ephemeralKeys", key(2));
+        Subscription sb = pbb.subscribe("ephemeralKeys", EphemeralKeyDTO.class, e -> b.add(e.id));
+        board.publish("ephemeralKeys", key(3));
+
+        assertEquals(1, board.subscriptions.get());
+        assertEquals(List.of("id1", "id2", "id3"), a);
+        assertEquals(List.of("id1", "id2", "id3"), b); // late subscriber got the replay
+
+        sa.close();
+        sb.close();
+        board.publish("ephemeralKeys", key(4));
+        assertEquals(3, a.size());
+
+        // the last close released the upstream one; a new subscriber opens another
+        List<String> c = Collections.synchronizedList(new ArrayList<>());
+        pbb.subscribe("ephemeralKeys", EphemeralKeyDTO.class, e -> c.add(e.id)).close();
+        assertEquals(2, board.subscriptions.get());
+        assertTrue(c.contains("id4"));
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.napdkg.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * HttpPbbClient against a board with json-server's query semantics: a topic
+ * is sliced only when _end or _limit is given, so the positional cursor of
+ * fetchSince must always send an end bound.
+ */
+public class HttpPbbClientTest {
+    private HttpServer http;
+    private final List<String> board = new ArrayList<>();
+    private final List<String> queries = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        http = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        http.createContext("/", this::handle);
+        http.start();
+    }
+
+    @After
+    public void tearDown() {
+        http.stop(0);
+    }
+
+    private PbbClient client() {
+        return new HttpPbbClient("http://127.0.0.1:" + http.getAddress().getPort());
+    }
+
+    @Test
+    public void testFetchSinceReturnsOnlyNewEntries() throws Exception {
+        PbbClient pbb = client();
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("a", 1, "pk1", "prf1"));
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("b", 2, "pk2", "prf2"));
+
+        FetchResult<EphemeralKeyDTO> r = pbb.fetchSince("ephemeralKeys", PbbClient.START, EphemeralKeyDTO.class);
+        assertEquals(2, r.getItems().size());
+        assertEquals(2, r.getCursor());
+
+        r = pbb.fetchSince("ephemeralKeys", r.getCursor(), EphemeralKeyDTO.class);
+        assertTrue(r.getItems().isEmpty());
+        assertEquals(2, r.getCursor());
+
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("c", 3, "pk3", "prf3"));
+        r = pbb.fetchSince("ephemeralKeys", r.getCursor(), EphemeralKeyDTO.class);
+        assertEquals(1, r.getItems().size());
+        assertEquals(3, r.getItems().get(0).partyIndex);
+        assertEquals(3, r.getCursor());
+
+        for (String q : queries)
+            assertTrue("no end bound in ?" + q, q.contains("_end=") || q.contains("_limit="));
+    }
+
+    /** GET slices as json-server does: _start counts only with _end or _limit. */
+    private synchronized void handle(HttpExchange ex) throws IOException {
+        try {
+            if (ex.getRequestMethod().equals("POST")) {
+                JsonObject obj;
+                try (InputStream in = ex.getRequestBody()) {
+                    obj = JsonParser.parseString(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                            .getAsJsonObject();
+                }
+                board.add(obj.toString());
+                send(ex, 201, obj.toString());
+                return;
+            }
+            String raw = ex.getRequestURI().getRawQuery();
+            Map<String, Integer> q = new HashMap<>();
+            if (raw != null) {
+                queries.add(raw);
+                for (String kv : raw.split("&")) {
+                    String[] p = kv.split("=", 2);
+                    q.put(p[0], Integer.parseInt(p[1]));
+                }
+            }
+            int from = 0, to = board.size();
+            if (q.containsKey("_end") || q.containsKey("_limit")) {
+                from = Math.min(q.getOrDefault("_start", 0), to);
+                to = q.containsKey("_end") ? Math.min(q.get("_end"), to)
+                        : Math.min(from + q.get("_limit"), to);
+            }
+            send(ex, 200, "[" + String.join(",", board.subList(from, Math.max(from, to))) + "]");
+        } finally {
+            ex.close();
+        }
+    }
+
+    private static void send(HttpExchange ex, int code, String body) throws IOException {
+        byte[] b = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(code, b.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(b);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.example.napdkg.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.example.napdkg.dto.EphemeralKeyDTO;
 import org.junit.Before;
@@ -33,4 +39,119 @@ public class InMemoryPbbClientTest {
         assertTrue(out.contains(e1));
         assertTrue(out.contains(e2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFetchSinceReturnsOnlyNewEntries() throws Exception {
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "prf1"));
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id2", 2, "pk2", "prf2"));
+
+        FetchResult<EphemeralKeyDTO> first = client.fetchSince("ephemeralKeys", PbbClient.START,
+                EphemeralKeyDTO.class);
+        assertEquals(2, first.getItems().size());
+        assertEquals("id1", first.getItems().get(0).id);
+
+        FetchResult<EphemeralKeyDTO> empty = client.fetchSince("ephemeralKeys", first.getCursor(),
+                EphemeralKeyDTO.class);
+        assertTrue(empty.getItems().isEmpty());
+        assertEquals(first.getCursor(), empty.getCursor());
+
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id3", 3, "pk3", "prf3"));
+        FetchResult<EphemeralKeyDTO> next = client.fetchSince("ephemeralKeys", first.getCursor(),
+                EphemeralKeyDTO.class);
+        assertEquals(1, next.getItems().size());
+        assertEquals("id3", next.getItems().get(0).id);
+    }
+
+    @Test
+    public void testIdsManifestAndCursorsSurviveDeletes() throws Exception {
+        client.publish("DealerPublish", new EphemeralKeyDTO("a", 0, "x", "y"));
+        client.publish("DealerPublish", new EphemeralKeyDTO("b", 1, "x", "y"));
+        long cursor = client.fetchSince("DealerPublish", PbbClient.START, EphemeralKeyDTO.class).getCursor();
+
+        assertEquals(Arrays.asList("a", "b"), client.fetchIds("DealerPublish"));
+        for (String id : client.fetchIds("DealerPublish"))
+            client.delete("DealerPublish", id);
+        assertTrue(client.fetchIds("DealerPublish").isEmpty());
+
+        // sequence numbers keep growing, so an old cursor still sees new entries
+        client.publish("DealerPublish", new EphemeralKeyDTO("c", 2, "x", "y"));
+        List<EphemeralKeyDTO> fresh = client.fetchSince("DealerPublish", cursor, EphemeralKeyDTO.class).getItems();
+        assertEquals(1, fresh.size());
+        assertEquals("c", fresh.get(0).id);
+    }
+
+    @Test
+    public void testSubscribeReplaysThenPushesUntilClosed() throws Exception {
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "prf1"));
+
+        List<String> seen = new ArrayList<>();
+        Subscription sub = client.subscribe("ephemeralKeys", EphemeralKeyDTO.class, dto -> seen.add(dto.id));
+        assertEquals(Arrays.asList("id1"), seen);
+
+        // delivered synchronously inside publish
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id2", 2, "pk2", "prf2"));
+        assertEquals(Arrays.asList("id1", "id2"), seen);
+
+        sub.close();
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id3", 3, "pk3", "prf3"));
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    public void testNullIdIsAssignedAndWrittenBack() throws Exception {
+        EphemeralKeyDTO e = new EphemeralKeyDTO(null, 1, "pk", "prf");
+        client.publish("ephemeralKeys", e);
+        assertNotNull(e.id);
+        assertEquals(Arrays.asList(e.id), client.fetchIds("ephemeralKeys"));
+        client.delete("ephemeralKeys", e.id);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFetchIsImmutableAndReusedWhileUnchanged() throws Exception {
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "prf1"));
+        List<EphemeralKeyDTO> a = client.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        assertSame(a, client.fetch("ephemeralKeys", EphemeralKeyDTO.class));
+        client.publish("ephemeralKeys", new EphemeralKeyDTO("id2", 2, "pk2", "prf2"));
+        assertEquals(2, client.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        a.clear();
+    }
+
+    @Test
+    public void testConcurrentPublishersKeepOneOrder() throws Exception {
+        int threads = 4, each = 500;
+        List<String> pushed = new ArrayList<>();
+        client.subscribe("DealerPublish", EphemeralKeyDTO.class, dto -> pushed.add(dto.id));
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int tt = t;
+            ts[t] = new Thread(() -> {
+                for (int i = 0; i < each; i++)
+                    client.publish("DealerPublish", new EphemeralKeyDTO(tt + ":" + i, tt, "x", "y"));
+            });
+            ts[t].start();
+        }
+        for (Thread t : ts)
+            t.join();
+
+        List<String> ids = client.fetchIds("DealerPublish");
+        assertEquals(threads * each, ids.size());
+        assertEquals(ids, pushed);
+        // each publisher's own messages stay in its order
+        Map<String, Integer> next = new HashMap<>();
+        for (String id : ids) {
+            String[] p = id.split(":");
+            int expect = next.getOrDefault(p[0], 0);
+            assertEquals(expect, Integer.parseInt(p[1]));
+            next.put(p[0], expect + 1);
+        }
+        // cursors page through the same order
+        long cursor = PbbClient.START;
+        List<String> paged = new ArrayList<>();
+        for (int k = 0; k < 3; k++) {
+            FetchResult<EphemeralKeyDTO> r = client.fetchSince("DealerPublish", cursor, EphemeralKeyDTO.class);
+            r.getItems().forEach(dto -> paged.add(dto.id));
+            cursor = r.getCursor();
+        }
+        assertEquals(ids, paged);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.dto.DleqProofDTO;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Test;
+
+public class BatchDleqVerifierTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+    private final SecureRandom rnd = new SecureRandom();
+
+    private BigInteger scalar() {
+        return new BigInteger(ctx.getOrder().bitLength(), rnd).mod(ctx.getOrder());
+    }
+
+    /** count statements over a shared h (like EQ1), proofs in the given version */
+    private List<BatchDleqVerifier.Statement> statements(int count, int version) {
+        ECPoint h = ctx.multiplyG(scalar()).normalize();
+        List<BatchDleqVerifier.Statement> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BigInteger a = scalar();
+            ECPoint x = ctx.multiplyG(a).normalize();
+            ECPoint y = h.multiply(a).normalize();
+            out.add(new BatchDleqVerifier.Statement(x, h, y,
+                    NizkDlEqProof.generateProof(ctx, x, h, y, a, version)));
+        }
+        return out;
+    }
+
+    private BatchDleqVerifier.Statement withWrongY(BatchDleqVerifier.Statement st) {
+        return new BatchDleqVerifier.Statement(st.x, st.h, st.y.add(ctx.getGenerator()).normalize(), st.proof);
+    }
+
+    @Test
+    public void testValidBatchPasses() {
+        List<BatchDleqVerifier.Statement> stmts = statements(9, NizkDlEqProof.V2_COMMITMENT);
+        assertTrue(BatchDleqVerifier.verifyAll(ctx, stmts));
+    }
+
+    @Test
+    public void testBisectionFindsExactlyTheBadProofs() {
+        List<BatchDleqVerifier.Statement> stmts = statements(11, NizkDlEqProof.V2_COMMITMENT);
+        stmts.set(3, withWrongY(stmts.get(3)));
+        stmts.set(10, withWrongY(stmts.get(10)));
+
+        boolean[] expected = new boolean[stmts.size()];
+        for (int i = 0; i < expected.length; i++) {
+            BatchDleqVerifier.Statement st = stmts.get(i);
+            expected[i] = NizkDlEqProof.verifyProof(ctx, st.x, st.h, st.y, st.proof);
+        }
+        assertFalse(expected[3]);
+        assertFalse(expected[10]);
+        assertArrayEquals(expected, BatchDleqVerifier.verify(ctx, stmts));
+    }
+
+    @Test
+    public void testMixedVersions() {
+        List<BatchDleqVerifier.Statement> stmts = statements(4, NizkDlEqProof.V2_COMMITMENT);
+        stmts.addAll(statements(3, NizkDlEqProof.V1_CHALLENGE));
+        stmts.addAll(statements(3, NizkDlEqProof.V3_TRANSCRIPT));
+        stmts.set(5, withWrongY(stmts.get(5)));
+        boolean[] ok = BatchDleqVerifier.verify(ctx, stmts);
+        for (int i = 0; i < ok.length; i++)
+            assertEquals(i != 5, ok[i]);
+    }
+
+    @Test
+    public void testDtoRoundTrip() {
+        for (int version : new int[] { NizkDlEqProof.V1_CHALLENGE, NizkDlEqProof.V2_COMMITMENT,
+                NizkDlEqProof.V3_TRANSCRIPT }) {
+            BatchDleqVerifier.Statement st = statements(1, version).get(0);
+            DleqProofDTO dto = DleqProofDTO.from(st.proof);
+            assertEquals(version, dto.getVersion());
+            NizkDlEqProof back = dto.toProof(ctx);
+            assertEquals(version, back.getVersion());
+            assertTrue(NizkDlEqProof.verifyProof(ctx, st.x, st.h, st.y, back));
+        }
+    }
+
+    @Test
+    public void testV2AndV3ChallengesDiffer() {
+        // v2 keeps its PRG challenge: relabelling either form as the other must fail
+        BatchDleqVerifier.Statement st = statements(1, NizkDlEqProof.V2_COMMITMENT).get(0);
+        NizkDlEqProof asV3 = new NizkDlEqProof(NizkDlEqProof.V3_TRANSCRIPT, st.proof.getA1(), st.proof.getA2(),
+                st.proof.getResponse());
+        assertTrue(NizkDlEqProof.verifyProof(ctx, st.x, st.h, st.y, st.proof));
+        assertFalse(NizkDlEqProof.verifyProof(ctx, st.x, st.h, st.y, asV3));
+        assertEquals(NizkDlEqProof.V3_TRANSCRIPT, NizkDlEqProof.DEFAULT_VERSION);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgRef;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Test;
+
+public class DkgRunnerTest {
+
+    @Test
+    public void testPartiesRunToTheEndWithOrderedTimelines() throws Exception {
+        int n = 6, t = 3, fa = 1;
+        DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        InMemoryPbbClient pbb = new InMemoryPbbClient();
+        DkgRef.resetForNewRun();
+
+        DkgRunner.Result r;
+        try (PartyRuntime rt = new PartyRuntime(2)) {
+            List<PartyContext> parties = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                parties.add(new PartyContext(i, ctx, pbb, n, t, fa, rt));
+            r = new DkgRunner(pbb, rt.waiters()).run(parties);
+        }
+
+        assertNotNull(DkgRef.TRUE_Y.get()); // someone reconstructed the group key
+        assertEquals(n, pbb.fetch("ShareVerificationOutput", Object.class).size());
+        assertEquals(n, r.timelines().size());
+        for (DkgRunner.Timeline tl : r.timelines()) {
+            for (DkgRunner.Stage s : DkgRunner.Stage.values())
+                assertTrue(tl.stageMs(s) >= 0);
+            assertTrue(tl.totalMs() <= r.slowest().totalMs());
+        }
+        assertTrue(r.slowest().totalMs() <= r.wallMs());
+        assertTrue(r.summary().contains("Q1_FINAL"));
+    }
+
+    @Test(timeout = 60_000)
+    public void testFirstFailureEndsTheRunWhileOthersWait() throws Exception {
+        int n = 6, t = 3, fa = 1;
+        DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), t, n);
+        InMemoryPbbClient pbb = new InMemoryPbbClient();
+        // the last party cannot publish its key, so the others wait for n keys forever
+        PbbClient broken = new PbbClient() {
+            @Override
+            public void publish(String topic, Object msg) throws IOException {
+                throw new IOException("board unreachable");
+            }
+
+            @Override
+            public <T> List<T> fetch(String topic, Class<T> clazz) {
+                return pbb.fetch(topic, clazz);
+            }
+
+            @Override
+            public void delete(String topic, String id) {
+                pbb.delete(topic, id);
+            }
+        };
+
+        try (PartyRuntime rt = new PartyRuntime(2)) {
+            List<PartyContext> parties = new ArrayList<>(n);
+            for (int i = 0; i < n; i++)
+                parties.add(new PartyContext(i, ctx, i == n - 1 ? broken : pbb, n, t, fa, rt));
+            new DkgRunner(pbb, rt.waiters()).run(parties);
+            fail("expected the broken party's exception");
+        } catch (IOException e) {
+            assertEquals("board unreachable", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.DkgUtils;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Test;
+
+public class EphemeralKeyDirectoryTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 2, 6);
+
+    private List<EphemeralKeyDTO> postKeys(DhKeyPair[] kps, int... order) throws Exception {
+        List<EphemeralKeyDTO> dtos = new ArrayList<>();
+        for (int i : order) {
+            NizkDlProof prf = NizkDlProof.generateProof(ctx, kps[i]);
+            dtos.add(new EphemeralKeyDTO("id" + i, i, DkgUtils.encodePoint(kps[i].getPublic()), prf.encode()));
+        }
+        return dtos;
+    }
+
+    private DhKeyPair[] keyPairs() {
+        DhKeyPair[] kps = new DhKeyPair[ctx.getNumParticipants()];
+        for (int i = 0; i < kps.length; i++)
+            kps[i] = DhKeyPair.generate(ctx);
+        return kps;
+    }
+
+    @Test
+    public void testArrivalAndPartyViews() throws Exception {
+        DhKeyPair[] kps = keyPairs();
+        EphemeralKeyDirectory dir = EphemeralKeyDirectory.load(ctx, postKeys(kps, 3, 0, 5, 1, 4, 2));
+
+        assertEquals(6, dir.size());
+        assertEquals(kps[3].getPublic().normalize(), dir.getE()[0]);
+        assertEquals(kps[2].getPublic().normalize(), dir.getE()[5]);
+        for (int i = 0; i < kps.length; i++) {
+            assertEquals(i, dir.get(i).getPartyIndex());
+            assertEquals(kps[i].getPublic().normalize(), dir.getEByPartyIndex()[i]);
+        }
+        assertEquals(2, dir.positionOf(kps[5].getPublic()));
+        assertEquals(-1, dir.positionOf(DhKeyPair.generate(ctx).getPublic()));
+    }
+
+    @Test
+    public void testReloadReusesVerifiedEntries() throws Exception {
+        DhKeyPair[] kps = keyPairs();
+        List<EphemeralKeyDTO> all = postKeys(kps, 0, 1, 2, 3, 4, 5);
+
+        EphemeralKeyDirectory partial = EphemeralKeyDirectory.load(ctx, all.subList(0, 4));
+        assertNull(partial.get(5));
+
+        EphemeralKeyDirectory full = EphemeralKeyDirectory.load(ctx, all);
+        assertSame(partial.get(2), full.get(2));
+        assertSame(full, EphemeralKeyDirectory.load(ctx, new ArrayList<>(all)));
+    }
+
+    @Test
+    public void testDirectoriesAreScopedToTheirContext() throws Exception {
+        List<EphemeralKeyDTO> all = postKeys(keyPairs(), 0, 1, 2, 3, 4, 5);
+        EphemeralKeyDirectory mine = EphemeralKeyDirectory.load(ctx, all);
+
+        DkgContext other = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 2, 6);
+        EphemeralKeyDirectory theirs = EphemeralKeyDirectory.load(other, all);
+        assertNotSame(mine, theirs);
+        assertNotSame("verified entries leaked across sessions", mine.get(0), theirs.get(0));
+        assertSame(mine, EphemeralKeyDirectory.load(ctx, all));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsInvalidProof() throws Exception {
+        DhKeyPair[] kps = keyPairs();
+        List<EphemeralKeyDTO> dtos = postKeys(kps, 0, 1);
+        // party 1's proof over party 0's key
+        dtos.get(1).publicKey = dtos.get(0).publicKey;
+        dtos.get(1).schnorrProof = postKeys(kps, 1).get(0).schnorrProof;
+        EphemeralKeyDirectory.load(ctx, dtos);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PartyRuntimeTest {
+
+    @Test
+    public void testThousandsOfBlockedPartiesShareTheComputePool() throws Exception {
+        int parties = 5000;
+        try (PartyRuntime rt = new PartyRuntime(2)) {
+            CountDownLatch allWaiting = new CountDownLatch(parties);
+            CountDownLatch go = new CountDownLatch(1);
+            AtomicInteger inCompute = new AtomicInteger(), maxInCompute = new AtomicInteger();
+
+            List<Callable<Integer>> tasks = new ArrayList<>(parties);
+            for (int i = 0; i < parties; i++) {
+                int id = i;
+                tasks.add(() -> {
+                    allWaiting.countDown();
+                    go.await(); // every party blocked at once, as on the PBB
+                    return rt.compute(() -> {
+                        maxInCompute.accumulateAndGet(inCompute.incrementAndGet(), Math::max);
+                        inCompute.decrementAndGet();
+                        return id;
+                    });
+                });
+            }
+            List<Future<Integer>> done = new ArrayList<>(parties);
+            for (Callable<Integer> c : tasks)
+                done.add(rt.waiters().submit(c));
+            assertTrue(allWaiting.await(60, TimeUnit.SECONDS));
+            go.countDown();
+
+            for (int i = 0; i < parties; i++)
+                assertEquals(i, (int) done.get(i).get(60, TimeUnit.SECONDS));
+            assertTrue(maxInCompute.get() <= rt.computeThreads());
+        }
+    }
+
+    @Test
+    public void testComputeRethrowsAsThrownAndNestsInline() throws Exception {
+        try (PartyRuntime rt = new PartyRuntime(1)) {
+            try {
+                rt.compute(() -> {
+                    throw new IOException("boom");
+                });
+                fail();
+            } catch (IOException e) {
+                assertEquals("boom", e.getMessage());
+            }
+            // a nested call on a 1-thread pool would deadlock if it were resubmitted
+            assertEquals(7, (int) rt.compute(() -> rt.compute(() -> 7)));
+        }
+    }
+
+    @Test
+    public void testComputeWrapsAForeignThrowable() throws Exception {
+        Throwable odd = new Throwable("neither Exception nor Error");
+        try (PartyRuntime rt = new PartyRuntime(1)) {
+            rt.compute(() -> PartyRuntimeTest.<RuntimeException>sneakyThrow(odd));
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(odd, e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> Void sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Test;
+
+public class Q1AggregateTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 1, 4);
+    private final ECPoint G = ctx.getGenerator();
+
+    private SharingOutput dealer(int j, int columnSeed) {
+        ECPoint[] C = new ECPoint[3];
+        BigInteger[] cHat = new BigInteger[3];
+        for (int c = 0; c < 3; c++) {
+            C[c] = G.multiply(BigInteger.valueOf(columnSeed + c)).normalize();
+            cHat[c] = BigInteger.valueOf(columnSeed * 10 + c);
+        }
+        // same E_j and z whatever the columns
+        NizkDlEqProof proof = new NizkDlEqProof(NizkDlEqProof.V3_TRANSCRIPT, G, G.twice().normalize(),
+                BigInteger.valueOf(42));
+        return new SharingOutput(j, j, G.multiply(BigInteger.valueOf(j + 100)).normalize(), C, cHat, proof);
+    }
+
+    @Test
+    public void testSameContentsShareOneAggregate() {
+        List<SharingOutput> q1 = Arrays.asList(dealer(0, 5), dealer(1, 9));
+        Q1Aggregate a = Q1Aggregate.of(ctx, q1);
+        List<SharingOutput> reversed = Arrays.asList(dealer(1, 9), dealer(0, 5));
+        assertSame(a, Q1Aggregate.of(ctx, reversed));
+    }
+
+    @Test
+    public void testDifferentColumnsUnderTheSameResponseDoNotCollide() {
+        Q1Aggregate a = Q1Aggregate.of(ctx, Collections.singletonList(dealer(0, 5)));
+        Q1Aggregate b = Q1Aggregate.of(ctx, Collections.singletonList(dealer(0, 7)));
+        assertNotEquals(a.getW(0), b.getW(0));
+        assertEquals(G.multiply(BigInteger.valueOf(7)).normalize(), b.getW(0));
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.Test;
+
+public class Q1BuilderTest {
+
+    private static SharingOutput dealer(int d) {
+        return new SharingOutput(d, d, null, new ECPoint[0], new BigInteger[0], null);
+    }
+
+    @Test
+    public void testAddsOnceDropsAndListsByIndex() {
+        Q1Builder q1 = new Q1Builder(8);
+        assertTrue(q1.add(dealer(5)));
+        assertTrue(q1.add(dealer(1)));
+        assertTrue(q1.add(dealer(3)));
+        assertFalse(q1.add(dealer(3)));
+        q1.remove(1);
+        q1.remove(7); // not there: no-op
+
+        assertEquals(2, q1.size());
+        assertFalse(q1.contains(1));
+        List<SharingOutput> out = q1.inIndexOrder();
+        assertEquals(3, out.get(0).getDealerIndex());
+        assertEquals(5, out.get(1).getDealerIndex());
+    }
+
+    @Test
+    public void testConcurrentAdds() throws Exception {
+        int n = 1000;
+        Q1Builder q1 = new Q1Builder(n);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int d = 0; d < n; d++) {
+            int dd = d;
+            pool.execute(() -> q1.add(dealer(dd)));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(n, q1.size());
+        List<SharingOutput> out = q1.inIndexOrder();
+        for (int d = 0; d < n; d++)
+            assertEquals(d, out.get(d).getDealerIndex());
+    }
+}
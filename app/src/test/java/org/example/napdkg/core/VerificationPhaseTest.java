@@ -0,0 +1,117 @@
+package org.example.napdkg.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.example.napdkg.client.InMemoryPbbClient;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.example.napdkg.dto.SharingOutputDTO;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * verifyInArrivalOrder against a board laid out by hand: the honest Sh_j are
+ * dealt once on a scratch board, then copied in the order under test.
+ */
+public class VerificationPhaseTest {
+    private static final int N = 6, T = 2, FA = 1; // Q1 holds t+fa = 3
+
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), T, N);
+    private final List<PartyContext> parties = new ArrayList<>(N);
+    private final Map<Integer, SharingOutputDTO> dealt = new TreeMap<>();
+    private final InMemoryPbbClient scratch = new InMemoryPbbClient();
+    private PartyRuntime rt;
+
+    @Before
+    public void setUp() throws Exception {
+        rt = new PartyRuntime(2);
+        for (int i = 0; i < N; i++) {
+            PartyContext P = new PartyContext(i, ctx, scratch, N, T, FA, rt);
+            SetupPhasePublisher.publishEphemeralKey(P);
+            parties.add(P);
+        }
+        for (PartyContext P : parties)
+            new SharingPhase(P, T).runSharingAsDealer();
+        for (SharingOutputDTO dto : scratch.fetch("DealerPublish", SharingOutputDTO.class))
+            dealt.put(dto.dealerIndexDTO, dto);
+    }
+
+    @After
+    public void tearDown() {
+        rt.close();
+    }
+
+    @Test
+    public void testQ1IsTheFirstValidDealersInBoardOrder() throws Exception {
+        InMemoryPbbClient board = boardWithKeys();
+        // dealer 4 twice, dealer 2 with a forged C_{2,1}
+        SharingOutputDTO forged = copyOf(dealt.get(2));
+        forged.Cij[1] = dealt.get(3).Cij[1];
+        for (SharingOutputDTO dto : Arrays.asList(copyOf(dealt.get(4)), copyOf(dealt.get(4)), forged,
+                copyOf(dealt.get(5)), copyOf(dealt.get(0)), copyOf(dealt.get(3)), copyOf(dealt.get(1))))
+            board.publish("DealerPublish", dto);
+
+        VerificationPhase vp = verifier(board);
+        vp.verifyInArrivalOrder();
+
+        assertEquals(Arrays.asList(0, 4, 5), dealerIndices(vp.getQ1()));
+        // 4, 2 and 5 as one group, then 0 for the forged 2; never 3 or 1
+        assertEquals(T + FA + 1, vp.dealersLaunched());
+    }
+
+    @Test
+    public void testShortBoardEndsAfterTheWait() throws Exception {
+        InMemoryPbbClient board = boardWithKeys();
+        // a duplicate but only two distinct dealers: t+fa never pass
+        for (int d : new int[] { 1, 1, 3 })
+            board.publish("DealerPublish", copyOf(dealt.get(d)));
+
+        VerificationPhase vp = verifier(board);
+        vp.setBoardWaitMs(300);
+        vp.verifyInArrivalOrder();
+
+        assertEquals(Arrays.asList(1, 3), dealerIndices(vp.getQ1()));
+        assertEquals(2, vp.dealersLaunched());
+    }
+
+    private InMemoryPbbClient boardWithKeys() {
+        InMemoryPbbClient board = new InMemoryPbbClient();
+        for (EphemeralKeyDTO k : scratch.fetch("ephemeralKeys", EphemeralKeyDTO.class))
+            board.publish("ephemeralKeys", k);
+        return board;
+    }
+
+    /** Party 1, reading the given board with its own key. */
+    private VerificationPhase verifier(InMemoryPbbClient board) {
+        PartyContext P = new PartyContext(1, ctx, board, N, T, FA, rt);
+        P.ephKey = parties.get(1).ephKey;
+        return new VerificationPhase(P);
+    }
+
+    /** A fresh entry with the same content; the board assigns it a new id. */
+    private static SharingOutputDTO copyOf(SharingOutputDTO in) {
+        SharingOutputDTO out = new SharingOutputDTO();
+        out.dealerIndexDTO = in.dealerIndexDTO;
+        out.publisherindexDTO = in.publisherindexDTO;
+        out.dealerPub = in.dealerPub;
+        out.Cij = in.Cij.clone();
+        out.CHat = in.CHat.clone();
+        out.proof = in.proof;
+        return out;
+    }
+
+    private static List<Integer> dealerIndices(List<SharingOutput> q1) {
+        List<Integer> ds = new ArrayList<>(q1.size());
+        for (SharingOutput so : q1)
+            ds.add(so.getDealerIndex());
+        return ds;
+    }
+}
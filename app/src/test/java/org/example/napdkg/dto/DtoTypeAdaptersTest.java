@@ -0,0 +1,103 @@
+package org.example.napdkg.dto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.client.GsonFactory;
+import org.example.napdkg.client.WireCodec;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.NizkDlEqProof;
+import org.example.napdkg.core.ShareVerificationPublish;
+import org.example.napdkg.core.SharingOutput;
+import org.example.napdkg.util.DkgContext;
+import org.example.napdkg.util.GroupGenerator;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/** The streaming adapters against Gson's reflective ones. */
+public class DtoTypeAdaptersTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 2, 6);
+    private final Gson reflective = new Gson();
+    private final Gson streaming = GsonFactory.createGson();
+
+    private ECPoint point(long k) {
+        return ctx.getGenerator().multiply(BigInteger.valueOf(k)).normalize();
+    }
+
+    private SharingOutputDTO sharingOutput(NizkDlEqProof proof) {
+        SharingOutput so = new SharingOutput(2, 4, point(7),
+                new ECPoint[] { point(1), point(2), point(3) },
+                new BigInteger[] { BigInteger.ONE, BigInteger.TEN, BigInteger.valueOf(255) }, proof);
+        return SharingOutputDTO.from(so);
+    }
+
+    @Test
+    public void testWritesTheReflectiveJson() {
+        SharingOutputDTO v2 = sharingOutput(new NizkDlEqProof(point(5), point(6), BigInteger.TWO));
+        SharingOutputDTO v1 = sharingOutput(new NizkDlEqProof(BigInteger.ONE, BigInteger.TWO));
+        v1.id = "abc";
+        ShareVerificationOutputDTO sv = ShareVerificationOutputDTO.from(
+                new ShareVerificationPublish(3, point(9), new NizkDlEqProof(point(5), point(6), BigInteger.TWO)));
+        EphemeralKeyDTO ek = new EphemeralKeyDTO(null, 1, "02ab", "v2|1|2");
+        SharingOutputDTO empty = new SharingOutputDTO();
+        DleqProofDTO prf = DleqProofDTO.from(new NizkDlEqProof(BigInteger.ONE, BigInteger.TWO));
+
+        for (Object o : new Object[] { v2, v1, sv, ek, empty, prf })
+            assertEquals(reflective.toJson(o), streaming.toJson(o));
+        assertEquals(reflective.toJson(new Object[] { v2, ek }), streaming.toJson(new Object[] { v2, ek }));
+    }
+
+    @Test
+    public void testReadsAnyOrderAndSkipsUnknownFields() {
+        String json = "[{\"proof\":{\"response\":\"2\",\"a2\":\"0a\",\"a1\":\"0b\",\"version\":2,\"extra\":[1,{}]},"
+                + "\"CHat\":[\"ff\",null],\"Cij\":[\"02aa\"],\"dealerPub\":null,\"publisherindexDTO\":4,"
+                + "\"dealerIndexDTO\":\"2\",\"id\":17,\"createdAt\":\"now\"}]";
+        List<SharingOutputDTO> got = streaming.fromJson(json,
+                TypeToken.getParameterized(List.class, SharingOutputDTO.class).getType());
+        SharingOutputDTO d = got.get(0);
+        assertEquals("17", d.id);
+        assertEquals(2, d.dealerIndexDTO);
+        assertEquals(4, d.publisherindexDTO);
+        assertNull(d.dealerPub);
+        assertArrayEquals(new String[] { "02aa" }, d.Cij);
+        assertArrayEquals(new String[] { "ff", null }, d.CHat);
+        assertEquals(NizkDlEqProof.V2_COMMITMENT, d.proof.getVersion());
+        assertEquals("0b", d.proof.a1);
+        assertEquals("0a", d.proof.a2);
+        assertEquals("2", d.proof.response);
+    }
+
+    @Test
+    public void testRoundTripsThroughBothGsons() {
+        NizkDlEqProof prf = new NizkDlEqProof(point(5), point(6), BigInteger.TWO);
+        ShareVerificationOutputDTO sv = ShareVerificationOutputDTO.from(new ShareVerificationPublish(3, point(9), prf));
+        sv.id = "s3";
+        ShareVerificationOutputDTO back = streaming.fromJson(reflective.toJson(sv), ShareVerificationOutputDTO.class);
+        assertEquals(reflective.toJson(sv), reflective.toJson(back));
+        ShareVerificationPublish p = ShareVerificationPublish.fromDTO(back, ctx);
+        assertEquals(point(9), p.tpki);
+        assertEquals(prf.getA1(), p.Pftpki.getA1());
+
+        EphemeralKeyDTO ek = reflective.fromJson(streaming.toJson(new EphemeralKeyDTO("e1", 5, "02ab", "1|2")),
+                EphemeralKeyDTO.class);
+        assertEquals("e1", ek.id);
+        assertEquals(5, ek.partyIndex);
+        assertEquals("02ab", ek.publicKey);
+        assertEquals("1|2", ek.schnorrProof);
+    }
+
+    @Test
+    public void testJsonSizeMatchesEncoding() {
+        WireCodec json = WireCodec.json(streaming);
+        SharingOutputDTO d = sharingOutput(new NizkDlEqProof(point(5), point(6), BigInteger.TWO));
+        d.id = "ünï";
+        assertEquals(json.encode(d).remaining(), json.size(d));
+    }
+}
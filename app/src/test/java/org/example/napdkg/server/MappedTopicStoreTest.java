@@ -0,0 +1,133 @@
+package org.example.napdkg.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.example.napdkg.client.FetchResult;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedTopicStoreTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static ByteBuffer json(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(TopicStore.Entry e) {
+        return StandardCharsets.UTF_8.decode(e.body()).toString();
+    }
+
+    @Test
+    public void testEntriesSurviveReopen() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            s.append("t", "a", json("{\"id\":\"a\"}"));
+            s.append("t", "b", json("{\"id\":\"b\"}"));
+            s.append("t", "c", json("{\"id\":\"c\"}"));
+            s.delete("t", "b");
+        }
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            assertEquals(Arrays.asList("a", "c"), s.ids("t"));
+            assertEquals("{\"id\":\"c\"}", text(s.get("t", "c")));
+            assertNull(s.get("t", "b"));
+            assertEquals(3, s.lastSeq("t"));
+            assertEquals(4, s.append("t", "d", json("{}")));
+        }
+    }
+
+    @Test
+    public void testGrowsPastInitialMapping() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        byte[] big = new byte[MappedTopicStore.INITIAL_SIZE / 3];
+        Arrays.fill(big, (byte) 'x');
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            for (int i = 0; i < 5; i++)
+                s.append("t", "e" + i, ByteBuffer.wrap(big));
+            // slices taken before a remap stay readable
+            assertEquals(big.length, s.since("t", 0).get(0).length());
+        }
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            List<TopicStore.Entry> all = s.since("t", 0);
+            assertEquals(5, all.size());
+            assertEquals(ByteBuffer.wrap(big), all.get(4).body());
+        }
+    }
+
+    @Test
+    public void testTruncateStartsNewEpochAndKeepsSeq() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            s.append("t", "a", json("{}"));
+            s.append("t", "b", json("{}"));
+            s.truncate("t");
+            assertEquals(1, s.epoch("t"));
+            assertTrue(s.since("t", 0).isEmpty());
+            assertEquals(3, s.append("t", "c", json("{}")));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(Arrays.asList("t.1.seg"),
+                    files.map(p -> p.getFileName().toString()).collect(Collectors.toList()));
+        }
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            assertEquals(Arrays.asList("c"), s.ids("t"));
+            assertEquals(3, s.lastSeq("t"));
+        }
+    }
+
+    @Test
+    public void testTornTailIsDropped() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            s.append("t", "a", json("{\"id\":\"a\"}"));
+            s.append("t", "b", json("{\"id\":\"b\"}"));
+        }
+        // corrupt the last body byte: b's crc no longer matches
+        Path seg = dir.resolve("t.0.seg");
+        byte[] raw = Files.readAllBytes(seg);
+        int at = new String(raw, StandardCharsets.ISO_8859_1).lastIndexOf("\"b\"}") + 3;
+        try (FileChannel ch = FileChannel.open(seg, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] { '!' }), at);
+        }
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            assertEquals(Arrays.asList("a"), s.ids("t"));
+            s.append("t", "c", json("{\"id\":\"c\"}"));
+        }
+        try (MappedTopicStore s = new MappedTopicStore(dir)) {
+            assertEquals(Arrays.asList("a", "c"), s.ids("t"));
+        }
+    }
+
+    @Test
+    public void testClientOverStore() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        long cursor;
+        try (TopicStorePbbClient pbb = new TopicStorePbbClient(new MappedTopicStore(dir))) {
+            pbb.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "prf1"));
+            cursor = pbb.fetchSince("ephemeralKeys", PbbClient.START, EphemeralKeyDTO.class).getCursor();
+            pbb.publish("ephemeralKeys", new EphemeralKeyDTO(null, 2, "pk2", "prf2"));
+        }
+        try (TopicStorePbbClient pbb = new TopicStorePbbClient(new MappedTopicStore(dir))) {
+            FetchResult<EphemeralKeyDTO> r = pbb.fetchSince("ephemeralKeys", cursor, EphemeralKeyDTO.class);
+            assertEquals(1, r.getItems().size());
+            assertEquals("pk2", r.getItems().get(0).publicKey);
+            assertEquals(2, pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.napdkg.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.example.napdkg.client.AsyncHttpPbbClient;
+import org.example.napdkg.client.FetchResult;
+import org.example.napdkg.client.GsonFactory;
+import org.example.napdkg.client.HttpPbbClient;
+import org.example.napdkg.client.InstrumentedPbbClient;
+import org.example.napdkg.client.PbbClient;
+import org.example.napdkg.client.Subscription;
+import org.example.napdkg.core.Metrics;
+import org.example.napdkg.core.Phase;
+import org.example.napdkg.dto.EphemeralKeyDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class PbbServerTest {
+    private PbbServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = PbbServer.start(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    private PbbClient client(boolean extendedApi) {
+        return new HttpPbbClient(AsyncHttpPbbClient.builder(server.url()).extendedApi(extendedApi).build());
+    }
+
+    @Test
+    public void testJsonServerShape() throws Exception {
+        PbbClient pbb = client(false);
+        assertTrue(pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).isEmpty());
+
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("id1", 1, "pk1", "prf1"));
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO(null, 2, "pk2", "prf2"));
+
+        List<EphemeralKeyDTO> all = pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class);
+        assertEquals(2, all.size());
+        assertEquals("id1", all.get(0).id);
+        assertEquals("pk1", all.get(0).publicKey);
+        assertNotNull("id assigned on publish", all.get(1).id);
+
+        // positional cursor, as against json-server
+        FetchResult<EphemeralKeyDTO> r = pbb.fetchSince("ephemeralKeys", 1, EphemeralKeyDTO.class);
+        assertEquals(1, r.getItems().size());
+        assertEquals(2, r.getItems().get(0).partyIndex);
+        assertEquals(2, r.getCursor());
+
+        pbb.delete("ephemeralKeys", "id1");
+        assertEquals(1, pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testDeleteMissingIs404() throws Exception {
+        client(false).delete("ephemeralKeys", "nope");
+    }
+
+    @Test
+    public void testExtendedApi() throws Exception {
+        PbbClient pbb = client(true);
+        pbb.publishAll("DealerPublish", new Object[] {
+                new EphemeralKeyDTO("a", 0, "x", "y"),
+                new EphemeralKeyDTO("b", 1, "x", "y") });
+        assertEquals(Arrays.asList("a", "b"), pbb.fetchIds("DealerPublish"));
+
+        FetchResult<EphemeralKeyDTO> first = pbb.fetchSince("DealerPublish", PbbClient.START, EphemeralKeyDTO.class);
+        assertEquals(2, first.getItems().size());
+
+        // sequence cursors survive deletes
+        pbb.delete("DealerPublish", "a");
+        pbb.publish("DealerPublish", new EphemeralKeyDTO("c", 2, "x", "y"));
+        FetchResult<EphemeralKeyDTO> next = pbb.fetchSince("DealerPublish", first.getCursor(),
+                EphemeralKeyDTO.class);
+        assertEquals(1, next.getItems().size());
+        assertEquals("c", next.getItems().get(0).id);
+
+        FetchResult<EphemeralKeyDTO> none = pbb.fetchSince("DealerPublish", next.getCursor(), EphemeralKeyDTO.class);
+        assertTrue(none.getItems().isEmpty());
+        assertEquals(next.getCursor(), none.getCursor());
+    }
+
+    @Test
+    public void testInstrumentedBooksWireBytesUnderExplicitPhase() throws Exception {
+        Gson gson = GsonFactory.createGson();
+        Metrics metrics = new Metrics("test");
+        InstrumentedPbbClient pbb = new InstrumentedPbbClient(client(true), gson, metrics);
+        EphemeralKeyDTO dto = new EphemeralKeyDTO("id1", 1, "pk1", "prf1");
+        int body = gson.toJson(dto).getBytes(StandardCharsets.UTF_8).length;
+
+        pbb.setPhase(Phase.SETUP);
+        pbb.publish("ephemeralKeys", dto);
+        assertEquals(body, pbb.getBytesSent());
+
+        // a fetch on another thread (as a poller's) is still booked under SHARING
+        pbb.setPhase(Phase.SHARING);
+        int got = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pbb.fetch("ephemeralKeys", EphemeralKeyDTO.class).size();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).get();
+        assertEquals(1, got);
+
+        Map<Phase, Metrics.Stat> byPhase = metrics.snapshot();
+        assertEquals(body, byPhase.get(Phase.SETUP).bytesOut.sum());
+        assertEquals(1, byPhase.get(Phase.SETUP).msgsOut.sum());
+        assertEquals(body + 2, byPhase.get(Phase.SHARING).bytesIn.sum()); // [ … ]
+        assertEquals(1, byPhase.get(Phase.SHARING).msgsIn.sum());
+        assertEquals(0, byPhase.get(Phase.OTHER).bytesIn.sum());
+    }
+
+    @Test
+    public void testLongPollHeldUntilAppend() throws Exception {
+        PbbClient pbb = client(true);
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("a", 1, "pk", "prf"));
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest held = HttpRequest.newBuilder(URI.create(server.url() + "ephemeralKeys?_since=1&_wait=10000"))
+                .build();
+        long t0 = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> f = http.sendAsync(held, HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(200);
+        assertFalse("answered with nothing new", f.isDone());
+
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("b", 2, "pk", "prf"));
+        HttpResponse<String> resp = f.get(5, TimeUnit.SECONDS);
+        assertTrue(resp.body(), resp.body().contains("\"b\""));
+        assertEquals("2", resp.headers().firstValue(PbbServer.CURSOR_HEADER).get());
+        assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testLongPollTimesOutEmpty() throws Exception {
+        HttpRequest held = HttpRequest.newBuilder(URI.create(server.url() + "quiet?_since=0&_wait=100")).build();
+        long t0 = System.nanoTime();
+        HttpResponse<String> resp = HttpClient.newHttpClient().send(held, HttpResponse.BodyHandlers.ofString());
+        assertTrue(System.nanoTime() - t0 >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(200, resp.statusCode());
+        assertEquals("[]", resp.body());
+        assertEquals("0", resp.headers().firstValue(PbbServer.CURSOR_HEADER).get());
+    }
+
+    @Test
+    public void testSubscribeDeliversBacklogThenNewEntries() throws Exception {
+        PbbClient pbb = client(true);
+        pbb.publish("ephemeralKeys", new EphemeralKeyDTO("a", 1, "pk", "prf"));
+        List<String> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch three = new CountDownLatch(3);
+        Subscription sub = pbb.subscribe("ephemeralKeys", EphemeralKeyDTO.class, dto -> {
+            seen.add(dto.id);
+            three.countDown();
+        });
+        try {
+            pbb.publish("ephemeralKeys", new EphemeralKeyDTO("b", 2, "pk", "prf"));
+            pbb.publish("ephemeralKeys", new EphemeralKeyDTO("c", 3, "pk", "prf"));
+            assertTrue("not delivered", three.await(5, TimeUnit.SECONDS));
+        } finally {
+            sub.close();
+        }
+        assertEquals(Arrays.asList("a", "b", "c"), seen);
+    }
+
+    @Test
+    public void testListenerFailureResumesAtTheFailedEntry() throws Exception {
+        resumesAtTheFailedEntry(client(true)); // long-poll
+        resumesAtTheFailedEntry(client(false)); // polling
+    }
+
+    private static void resumesAtTheFailedEntry(PbbClient pbb) throws Exception {
+        String topic = "resume" + System.nanoTime();
+        for (String id : new String[] { "a", "b", "c" })
+            pbb.publish(topic, new EphemeralKeyDTO(id, 1, "pk", "prf"));
+        List<String> calls = new CopyOnWriteArrayList<>();
+        CountDownLatch last = new CountDownLatch(1);
+        Subscription sub = pbb.subscribe(topic, EphemeralKeyDTO.class, dto -> {
+            calls.add(dto.id);
+            if (dto.id.equals("b") && calls.indexOf("b") == calls.size() - 1)
+                throw new IllegalStateException("first delivery of b fails");
+            if (dto.id.equals("c"))
+                last.countDown();
+        });
+        try {
+            assertTrue("not delivered", last.await(5, TimeUnit.SECONDS));
+        } finally {
+            sub.close();
+        }
+        // b is retried alone; a is not handed over again
+        assertEquals(Arrays.asList("a", "b", "b", "c"), calls);
+    }
+}
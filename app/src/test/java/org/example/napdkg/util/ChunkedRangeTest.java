@@ -0,0 +1,68 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.example.napdkg.core.GShamirShareDKG;
+import org.example.napdkg.core.Share;
+import org.junit.Test;
+
+public class ChunkedRangeTest {
+
+    @Test
+    public void testEveryIndexOnceInBoundedChunks() {
+        int n = 1000, chunk = 64;
+        int[] hits = new int[n];
+        AtomicInteger chunks = new AtomicInteger();
+        ChunkedRange.forEach(n, chunk, (lo, hi) -> {
+            assertTrue(hi - lo <= chunk);
+            assertEquals(0, lo % chunk); // chunk boundaries fixed by n, not the schedule
+            chunks.incrementAndGet();
+            for (int i = lo; i < hi; i++)
+                hits[i]++;
+        });
+        for (int i = 0; i < n; i++)
+            assertEquals(1, hits[i]);
+        assertEquals(ChunkedRange.chunks(n, chunk), chunks.get());
+    }
+
+    @Test
+    public void testRunsInTheCallersPoolAndRethrows() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            int parallelism = pool.submit(ChunkedRange::parallelism).get();
+            assertEquals(2, parallelism);
+        } finally {
+            pool.shutdown();
+        }
+        try {
+            ChunkedRange.forEach(10, 3, (lo, hi) -> {
+                if (lo == 6)
+                    throw new IllegalStateException("chunk " + lo);
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().endsWith("chunk 6"));
+        }
+    }
+
+    @Test
+    public void testChunkedSharesMatchTheirScalars() {
+        int n = 50;
+        DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 10, n);
+        Share[] shares = GShamirShareDKG.ShamirSharingResult.generateShares(ctx, BigInteger.TEN, 7).shares;
+        assertEquals(n, shares.length);
+        for (Share sh : shares) {
+            ECPoint A = sh.getAiPoint();
+            assertTrue(A.isNormalized());
+            assertEquals(ctx.multiplyG(sh.getai()).normalize(), A);
+        }
+    }
+}
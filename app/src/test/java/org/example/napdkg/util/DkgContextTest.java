@@ -0,0 +1,87 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class DkgContextTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+
+    @Test
+    public void testMemoComputesOncePerKey() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            computeOncePerKey(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void computeOncePerKey(ExecutorService pool) throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> ctx.memo("k", () -> {
+            runs.incrementAndGet();
+            await(release);
+            return "v";
+        }), pool);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> {
+            while (runs.get() == 0)
+                Thread.onSpinWait();
+            return ctx.memo("k", () -> {
+                runs.incrementAndGet();
+                return "other";
+            });
+        }, pool);
+
+        // a different key is not held up by k's computation
+        assertEquals("w", CompletableFuture.supplyAsync(() -> {
+            while (runs.get() == 0)
+                Thread.onSpinWait();
+            return ctx.<String>memo("j", () -> "w");
+        }, pool).get(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertEquals("v", first.get(5, TimeUnit.SECONDS));
+        assertEquals("v", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testMemoDoesNotCacheFailures() {
+        try {
+            ctx.memo("k", () -> {
+                throw new IllegalStateException("boom");
+            });
+            fail("expected the computation's exception");
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertEquals("v", ctx.memo("k", () -> "v"));
+    }
+
+    @Test
+    public void testMemoIsPerContext() {
+        DkgContext other = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+        ctx.memo("k", () -> "mine");
+        assertEquals("theirs", other.memo("k", () -> "theirs"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
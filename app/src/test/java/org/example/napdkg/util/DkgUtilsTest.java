@@ -0,0 +1,49 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class DkgUtilsTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+
+    /** Projective points, as sums and products leave them. */
+    private ECPoint[] projective(int n) {
+        ECPoint[] P = new ECPoint[n];
+        for (int i = 0; i < n; i++) {
+            P[i] = ctx.getGenerator().multiply(BigInteger.valueOf(i + 2)).twice();
+            assertFalse(P[i].isNormalized());
+        }
+        return P;
+    }
+
+    @Test
+    public void testEncodePointsLeavesTheCallersArrayAlone() {
+        ECPoint[] P = projective(5);
+        ECPoint[] before = P.clone();
+        String[] enc = DkgUtils.encodePoints(P);
+        for (int i = 0; i < P.length; i++) {
+            assertSame(before[i], P[i]);
+            assertEquals(DkgUtils.encodePoint(P[i].normalize()), enc[i]);
+        }
+    }
+
+    @Test
+    public void testNormalizedCopiesOnlyWhenNeeded() {
+        ECPoint[] P = projective(4);
+        ECPoint[] N = DkgUtils.normalized(P);
+        assertFalse(P[0].isNormalized());
+        for (int i = 0; i < P.length; i++)
+            assertEquals(P[i], N[i]);
+
+        assertSame(N, DkgUtils.normalized(N));
+        assertArrayEquals(new ECPoint[0], DkgUtils.normalized(new ECPoint[0]));
+    }
+}
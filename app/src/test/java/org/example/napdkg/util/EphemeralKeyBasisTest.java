@@ -0,0 +1,56 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class EphemeralKeyBasisTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 12);
+    private final SecureRandom rnd = new SecureRandom();
+
+    private ECPoint[] randomKeys() {
+        BigInteger p = ctx.getOrder();
+        ECPoint[] E = new ECPoint[ctx.getNumParticipants()];
+        for (int k = 0; k < E.length; k++)
+            E[k] = ctx.multiplyG(new BigInteger(p.bitLength(), rnd).mod(p)).normalize();
+        return E;
+    }
+
+    @Test
+    public void testAggregateMatchesWeightedSum() {
+        int n = ctx.getNumParticipants();
+        BigInteger p = ctx.getOrder();
+        BigInteger[] alpha = ctx.getAlphas();
+        BigInteger[] v = ctx.getVs();
+        ECPoint[] E = randomKeys();
+
+        EphemeralKeyBasis basis = ctx.getEphemeralBasis(E);
+        assertEquals(n - ctx.getThreshold() - 1, basis.size());
+
+        BigInteger[] mStar = new BigInteger[basis.size()];
+        for (int d = 0; d < mStar.length; d++)
+            mStar[d] = new BigInteger(p.bitLength(), rnd).mod(p);
+
+        ECPoint expected = ctx.getCurve().getInfinity();
+        for (int k = 0; k < n; k++) {
+            BigInteger w = v[k].multiply(DkgUtils.evaluatePolynomial(mStar, alpha[k + 1], p)).mod(p);
+            expected = expected.add(E[k].multiply(w));
+        }
+        assertEquals(expected.normalize(), basis.aggregate(mStar).normalize());
+    }
+
+    @Test
+    public void testCachedPerKeySet() {
+        ECPoint[] E = randomKeys();
+        EphemeralKeyBasis first = ctx.getEphemeralBasis(E);
+        assertSame(first, ctx.getEphemeralBasis(E.clone()));
+        assertNotSame(first, ctx.getEphemeralBasis(randomKeys()));
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigInteger;
+
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class FiatShamirTranscriptTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+
+    private BigInteger straight() {
+        return FiatShamirTranscript.start(ctx, "dleq")
+                .appendPoint("G", ctx.getGenerator())
+                .appendScalar("k", BigInteger.TEN)
+                .challengeScalar("e");
+    }
+
+    @Test
+    public void testNestedTranscriptOnOneThreadLeavesTheOuterAlone() {
+        BigInteger expected = straight();
+
+        FiatShamirTranscript outer = FiatShamirTranscript.start(ctx, "dleq").appendPoint("G", ctx.getGenerator());
+        BigInteger inner = FiatShamirTranscript.start(ctx, "schnorr") // e.g. a proof run inline mid-way
+                .appendScalar("k", BigInteger.ONE)
+                .challengeScalar("e");
+        BigInteger got = outer.appendScalar("k", BigInteger.TEN).challengeScalar("e");
+
+        assertEquals(expected, got);
+        assertNotEquals(expected, inner);
+    }
+
+    @Test
+    public void testDomainSeparates() {
+        BigInteger a = FiatShamirTranscript.start(ctx, "dleq").challengeScalar("e");
+        BigInteger b = FiatShamirTranscript.start(ctx, "schnorr").challengeScalar("e");
+        assertNotEquals(a, b);
+        assertEquals(a, FiatShamirTranscript.start(ctx, "dleq").challengeScalar("e"));
+    }
+}
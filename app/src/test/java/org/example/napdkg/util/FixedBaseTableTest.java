@@ -0,0 +1,39 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class FixedBaseTableTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+
+    @Test
+    public void testMatchesPlainMultiply() {
+        ECPoint G = ctx.getGenerator();
+        BigInteger p = ctx.getOrder();
+        SecureRandom rnd = new SecureRandom();
+        for (int i = 0; i < 32; i++) {
+            BigInteger k = new BigInteger(p.bitLength(), rnd).mod(p);
+            assertEquals(G.multiply(k).normalize(), ctx.multiplyG(k).normalize());
+        }
+    }
+
+    @Test
+    public void testEdgeScalars() {
+        ECPoint G = ctx.getGenerator();
+        BigInteger p = ctx.getOrder();
+        assertTrue(ctx.multiplyG(BigInteger.ZERO).isInfinity());
+        assertTrue(ctx.multiplyG(p).isInfinity());
+        assertEquals(G.normalize(), ctx.multiplyG(BigInteger.ONE).normalize());
+        assertEquals(G.negate().normalize(), ctx.multiplyG(p.subtract(BigInteger.ONE)).normalize());
+        // unmasked shares can exceed p; they must still act as k mod p
+        BigInteger big = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        assertEquals(G.multiply(big.mod(p)).normalize(), ctx.multiplyG(big).normalize());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.junit.Test;
+
+public class LagrangeEngineTest {
+    private final BigInteger p = GroupGenerator.generateGroup().getgroupOrd();
+    private final SecureRandom rnd = new SecureRandom();
+
+    private BigInteger[] consecutive(int n) {
+        BigInteger[] a = new BigInteger[n + 1];
+        for (int i = 0; i <= n; i++)
+            a[i] = BigInteger.valueOf(i);
+        return a;
+    }
+
+    private BigInteger[] randomAlphas(int n) {
+        BigInteger[] a = new BigInteger[n + 1];
+        a[0] = BigInteger.ZERO;
+        for (int i = 1; i <= n; i++)
+            a[i] = new BigInteger(p.bitLength(), rnd).mod(p);
+        return a;
+    }
+
+    private BigInteger[] naiveScrape(BigInteger[] alphas, int n) {
+        BigInteger[] v = new BigInteger[n];
+        for (int j = 1; j <= n; j++) {
+            BigInteger prod = BigInteger.ONE;
+            for (int k = 1; k <= n; k++)
+                if (j != k)
+                    prod = prod.multiply(alphas[j].subtract(alphas[k]).mod(p).modInverse(p)).mod(p);
+            v[j - 1] = prod;
+        }
+        return v;
+    }
+
+    private BigInteger[] naiveLambdas(BigInteger[] alphas, int[] idx) {
+        BigInteger[] lam = new BigInteger[idx.length];
+        for (int k = 0; k < idx.length; k++) {
+            BigInteger l = BigInteger.ONE;
+            for (int m = 0; m < idx.length; m++) {
+                if (m == k)
+                    continue;
+                BigInteger num = alphas[0].subtract(alphas[idx[m]]).mod(p);
+                BigInteger den = alphas[idx[k]].subtract(alphas[idx[m]]).mod(p);
+                l = l.multiply(num).multiply(den.modInverse(p)).mod(p);
+            }
+            lam[k] = l;
+        }
+        return lam;
+    }
+
+    @Test
+    public void testScrapeWeightsMatchNaive() {
+        for (int n : new int[] { 1, 2, 7, 40 }) {
+            BigInteger[] a = consecutive(n);
+            assertArrayEquals(naiveScrape(a, n), LagrangeEngine.scrapeWeights(p, a, n));
+            BigInteger[] r = randomAlphas(n);
+            assertArrayEquals(naiveScrape(r, n), LagrangeEngine.scrapeWeights(p, r, n));
+        }
+    }
+
+    @Test
+    public void testLambdasMatchNaive() {
+        int n = 30;
+        int[][] sets = { { 1 }, { 3, 1, 2 }, { 2, 5, 9, 11, 17, 30 }, { 30, 29, 28, 27, 1 } };
+        for (BigInteger[] a : new BigInteger[][] { consecutive(n), randomAlphas(n) }) {
+            LagrangeEngine eng = new LagrangeEngine(p, a);
+            for (int[] idx : sets)
+                assertArrayEquals(naiveLambdas(a, idx), eng.lambdasAtZero(idx));
+        }
+    }
+
+    @Test
+    public void testLambdasMemoizedAsCopies() {
+        LagrangeEngine eng = new LagrangeEngine(p, consecutive(10));
+        int[] idx = { 1, 4, 7 };
+        BigInteger[] first = eng.lambdasAtZero(idx);
+        first[0] = BigInteger.ZERO;
+        BigInteger[] second = eng.lambdasAtZero(idx);
+        assertNotSame(first, second);
+        assertArrayEquals(naiveLambdas(consecutive(10), idx), second);
+    }
+
+    @Test
+    public void testBatchInverse() {
+        assertEquals(0, LagrangeEngine.batchInverse(new BigInteger[0], p).length);
+        BigInteger[] a = new BigInteger[17];
+        for (int i = 0; i < a.length; i++)
+            a[i] = new BigInteger(p.bitLength(), rnd).mod(p.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+        BigInteger[] inv = LagrangeEngine.batchInverse(a, p);
+        for (int i = 0; i < a.length; i++)
+            assertEquals(a[i].modInverse(p), inv[i]);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testBatchInverseRejectsZero() {
+        LagrangeEngine.batchInverse(new BigInteger[] { BigInteger.ONE, p, BigInteger.TEN }, p);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class MultiScalarMulTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+    private final SecureRandom rnd = new SecureRandom();
+
+    private ECPoint naive(ECPoint[] P, BigInteger[] k) {
+        ECPoint acc = ctx.getCurve().getInfinity();
+        for (int i = 0; i < P.length; i++)
+            acc = acc.add(P[i].multiply(k[i].mod(ctx.getOrder())));
+        return acc.normalize();
+    }
+
+    private void check(int n) {
+        BigInteger p = ctx.getOrder();
+        ECPoint[] P = new ECPoint[n];
+        BigInteger[] k = new BigInteger[n];
+        for (int i = 0; i < n; i++) {
+            P[i] = ctx.multiplyG(new BigInteger(p.bitLength(), rnd)).normalize();
+            k[i] = new BigInteger(p.bitLength(), rnd).mod(p);
+        }
+        k[0] = BigInteger.ZERO;
+        if (n > 1)
+            k[1] = p.subtract(BigInteger.ONE);
+
+        ECPoint expected = naive(P, k);
+        assertEquals(expected, MultiScalarMul.sum(P, k).normalize());
+        assertEquals(expected, MultiScalarMul.straus(P, k).normalize());
+        assertEquals(expected, MultiScalarMul.pippenger(P, k).normalize());
+        assertEquals(expected, MultiScalarMul.sum(P, k, 5).normalize());
+    }
+
+    @Test
+    public void testSmallAndLargeInputsAgreeWithNaive() {
+        check(1);
+        check(2);
+        check(17);
+        check(MultiScalarMul.PIPPENGER_THRESHOLD + 3);
+    }
+
+    @Test
+    public void testSumOfTwo() {
+        BigInteger p = ctx.getOrder();
+        ECPoint G = ctx.getGenerator();
+        ECPoint X = ctx.multiplyG(BigInteger.valueOf(12345)).normalize();
+        BigInteger z = new BigInteger(p.bitLength(), rnd).mod(p);
+        BigInteger e = new BigInteger(p.bitLength(), rnd).mod(p);
+        assertEquals(G.multiply(z).add(X.multiply(e)).normalize(),
+                MultiScalarMul.sumOfTwo(G, z, X, e).normalize());
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.junit.Test;
+
+public class PolynomialEvaluatorTest {
+    private final BigInteger p = GroupGenerator.generateGroup().getgroupOrd();
+    private final SecureRandom rnd = new SecureRandom();
+
+    private BigInteger[] randomCoeffs(int degree) {
+        BigInteger[] c = new BigInteger[degree + 1];
+        for (int j = 0; j <= degree; j++)
+            c[j] = new BigInteger(p.bitLength(), rnd).mod(p);
+        return c;
+    }
+
+    private void assertMatchesHorner(BigInteger[] c, BigInteger[] alphas) {
+        BigInteger[] got = PolynomialEvaluator.evaluateAll(c, alphas, p);
+        assertEquals(alphas.length, got.length);
+        for (int i = 0; i < alphas.length; i++)
+            assertEquals("α[" + i + "]", DkgUtils.evaluatePolynomial(c, alphas[i], p), got[i]);
+    }
+
+    private BigInteger[] run(int from, int count) {
+        BigInteger[] a = new BigInteger[count];
+        for (int i = 0; i < count; i++)
+            a[i] = BigInteger.valueOf(from + i);
+        return a;
+    }
+
+    @Test
+    public void testConsecutiveAlphas() {
+        for (int degree : new int[] { 0, 1, 2, 5, 37 })
+            assertMatchesHorner(randomCoeffs(degree), run(0, 101));
+    }
+
+    @Test
+    public void testShiftedRunAfterAlphaZero() {
+        BigInteger[] a = run(6, 50);
+        a[0] = BigInteger.ZERO; // α₀ = 0, α₁ … = 7, 8, …
+        assertMatchesHorner(randomCoeffs(9), a);
+    }
+
+    @Test
+    public void testArbitraryAlphas() {
+        BigInteger[] a = new BigInteger[20];
+        for (int i = 0; i < a.length; i++)
+            a[i] = new BigInteger(p.bitLength(), rnd).mod(p);
+        assertMatchesHorner(randomCoeffs(7), a);
+    }
+
+    @Test
+    public void testFewerPointsThanDegree() {
+        assertMatchesHorner(randomCoeffs(12), run(0, 5));
+    }
+
+    @Test
+    public void testEmptyPolynomial() {
+        BigInteger[] got = PolynomialEvaluator.evaluateAll(new BigInteger[0], run(0, 4), p);
+        for (BigInteger y : got)
+            assertEquals(BigInteger.ZERO, y);
+    }
+}
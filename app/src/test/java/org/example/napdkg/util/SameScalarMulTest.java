@@ -0,0 +1,56 @@
+package org.example.napdkg.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.example.napdkg.core.DHPVSS_Setup;
+import org.junit.Test;
+
+public class SameScalarMulTest {
+    private final DkgContext ctx = DHPVSS_Setup.dhPvssSetup(GroupGenerator.generateGroup(), 3, 8);
+    private final SecureRandom rnd = new SecureRandom();
+
+    private ECPoint[] points(int m) {
+        ECPoint[] P = new ECPoint[m];
+        for (int i = 0; i < m; i++)
+            P[i] = ctx.multiplyG(new BigInteger(ctx.getOrder().bitLength(), rnd)); // projective on purpose
+        return P;
+    }
+
+    private void check(ECPoint[] P, BigInteger k) {
+        ECPoint[] got = SameScalarMul.multiply(P, k);
+        assertEquals(P.length, got.length);
+        for (int i = 0; i < P.length; i++) {
+            assertTrue(got[i].isNormalized());
+            assertEquals(P[i].multiply(k.mod(ctx.getOrder())).normalize(), got[i]);
+        }
+    }
+
+    @Test
+    public void testBatchAgreesWithPerPointMultiply() {
+        BigInteger p = ctx.getOrder();
+        ECPoint[] P = points(40);
+        check(P, new BigInteger(p.bitLength(), rnd).mod(p));
+        check(P, BigInteger.ONE);
+        check(P, BigInteger.valueOf(0b1011_0111_0001L)); // negative wNAF digits
+        check(P, p.subtract(BigInteger.ONE));
+        check(P, p.add(BigInteger.TEN)); // reduced mod p
+        check(P, BigInteger.ZERO);
+    }
+
+    @Test
+    public void testInfinityRepeatsAndSmallBatches() {
+        BigInteger k = new BigInteger(ctx.getOrder().bitLength(), rnd);
+        ECPoint[] P = points(SameScalarMul.MIN_BATCH + 4);
+        P[3] = ctx.getCurve().getInfinity();
+        P[5] = P[4];
+        P[6] = P[4].negate();
+        check(P, k);
+        check(points(SameScalarMul.MIN_BATCH - 1), k);
+        assertEquals(0, SameScalarMul.multiply(new ECPoint[0], k).length);
+    }
+}